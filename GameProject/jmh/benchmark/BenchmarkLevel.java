@@ -0,0 +1,61 @@
+package benchmark;
+
+import java.awt.Color;
+import gameobjects.GameObject;
+import gameobjects.RectObject;
+import controller.SimpleShotController;
+import playground.InputQueue;
+import playground.Music;
+import playground.SpaceInvadersLevel;
+
+/**
+ * {@link SpaceInvadersLevel} with a configurable number of enemies, brought into "playing" state
+ * without waiting for the start phase. Used as fixture by the benchmarks. The time step is zero, so
+ * nothing moves and no enemy shoots: repeated calls of {@link #applyGameLogic()} always see the
+ * same scene.
+ */
+class BenchmarkLevel extends SpaceInvadersLevel {
+
+  private final int nrEnemies;
+
+  BenchmarkLevel(int nrEnemies) {
+    super();
+    this.nrEnemies = nrEnemies;
+  }
+
+  @Override
+  protected int calcNrEnemies() {
+    return nrEnemies;
+  }
+
+  /**
+   * prepares the level, creates ego, stars, enemies and collectables and the given number of player
+   * shots (flying below the enemies, so they do not hit).
+   * 
+   * @param nrShots number of player shots
+   * @return this level
+   */
+  BenchmarkLevel setUpScene(int nrShots) {
+    Music.setEnabled(false);
+    setGameTime(0);
+    prepareLevel("benchmark");
+    processKeyEvents(new InputQueue());
+    setTimestep(0);
+    applyGameLogic(); // start: ego, stars
+    updateObjects();
+    setLevelFlag("gameStatus", "init");
+    applyGameLogic(); // init: enemies, collectables
+    updateObjects();
+
+    for (int i = 0; i < nrShots; i++) {
+      GameObject shot = new RectObject("simpleShot" + i, this, (i * 37) % getSizeX(),
+          getSizeY() * 0.8, 0, -SHOTSPEED, 4, 12, Color.CYAN)
+              .addController(new SimpleShotController()).addTag(TAG_SHOT);
+      shot.generateColliders();
+      addObject(shot);
+    }
+    updateObjects();
+    return this;
+  }
+
+}
@@ -0,0 +1,31 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks like JMH's own main class (same command line options, e.g. a regular
+ * expression to select benchmarks or <code>-p nrEnemies=300</code>), but writes the results as
+ * JSON to <code>jmh-result.json</code> unless <code>-rf</code>/<code>-rff</code> are given.
+ */
+public class BenchmarkMain {
+
+  /** default file for the machine-readable results */
+  public static final String RESULT_FILE = "jmh-result.json";
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions cmd = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+    if (!cmd.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+    if (!cmd.getResult().hasValue()) {
+      options.result(RESULT_FILE);
+    }
+    new Runner(options.build()).run();
+  }
+
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import collider.Collider;
+import gameobjects.EgoObject;
+import gameobjects.GameObject;
+import gameobjects.RectObject;
+import playground.Level1;
+import playground.Playground;
+
+/**
+ * {@link Collider#collidesWith(Collider)} for every pair of collider shapes, with overlapping
+ * colliders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ColliderBenchmark {
+
+  Collider rect1, rect2, circ1, circ2;
+
+  @Setup
+  public void setUp() {
+    Playground pg = new Level1();
+    GameObject r1 = new RectObject("r1", pg, 100, 100, 0, 0, 20, 20, Color.RED).generateColliders();
+    GameObject r2 = new RectObject("r2", pg, 110, 105, 0, 0, 20, 20, Color.RED).generateColliders();
+    GameObject c1 = new EgoObject("c1", pg, 115, 100, 0, 0, 10).generateColliders();
+    GameObject c2 = new EgoObject("c2", pg, 125, 100, 0, 0, 10).generateColliders();
+    rect1 = r1.scol.getFirst();
+    rect2 = r2.scol.getFirst();
+    circ1 = c1.scol.getFirst();
+    circ2 = c2.scol.getFirst();
+  }
+
+  @Benchmark
+  public boolean rectRect() {
+    return rect1.collidesWith(rect2);
+  }
+
+  @Benchmark
+  public boolean rectCirc() {
+    return rect1.collidesWith(circ1);
+  }
+
+  @Benchmark
+  public boolean circRect() {
+    return circ1.collidesWith(rect1);
+  }
+
+  @Benchmark
+  public boolean circCirc() {
+    return circ1.collidesWith(circ2);
+  }
+
+}
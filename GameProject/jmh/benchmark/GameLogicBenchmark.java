@@ -0,0 +1,44 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import playground.SpaceInvadersLevel;
+
+/**
+ * {@link SpaceInvadersLevel#applyGameLogic()} in playing state with a given number of enemies and
+ * a tenth as many player shots.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameLogicBenchmark {
+
+  @Param({"30", "300", "3000"})
+  int nrEnemies;
+
+  BenchmarkLevel level;
+
+  @Setup
+  public void setUp() {
+    level = new BenchmarkLevel(nrEnemies).setUpScene(nrEnemies / 10);
+  }
+
+  @Benchmark
+  public void applyGameLogic() {
+    level.applyGameLogic();
+  }
+
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.awt.Color;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import controller.FallingStarController;
+import gameobjects.FallingStar;
+import gameobjects.GameObject;
+import playground.Level1;
+import playground.Playground;
+
+/**
+ * {@link Playground#updateObjects()} with falling stars (parallel-safe controllers), updated
+ * one after another or in parallel on the common pool (see
+ * {@link Playground#setUpdatePool(ForkJoinPool)}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ParallelUpdateBenchmark {
+
+  @Param({"1000", "10000", "50000"})
+  int nrObjects;
+
+  @Param({"false", "true"})
+  boolean parallel;
+
+  Playground level;
+
+  @Setup
+  public void setUp() {
+    Playground.setUpdatePool(parallel ? ForkJoinPool.commonPool() : null);
+    level = new Level1();
+    level.reset();
+    level.setTimestep(1. / 120.);
+    for (int i = 0; i < nrObjects; i++) {
+      GameObject o = new FallingStar("star" + i, level, (i * 7) % 700, (i * 13) % 700, 0, 50,
+          Color.WHITE, 1).addController(new FallingStarController());
+      level.addObjectNow(o);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    level.reset();
+    Playground.setUpdatePool(null);
+  }
+
+  @Benchmark
+  public void updateObjects() {
+    level.updateObjects();
+  }
+
+}
@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.awt.Color;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import controller.FallingStarController;
+import gameobjects.EntityStore;
+import gameobjects.FallingStar;
+import gameobjects.GameObject;
+import playground.Level1;
+import playground.Playground;
+
+/**
+ * {@link Playground#updateObjects()} and object lookup with a given number of objects in the
+ * level. Every tenth object is named (and tagged) "enemy", the others are falling stars. With
+ * <code>entityStore</code> the positions are kept in an {@link EntityStore} and the stars are moved
+ * in bulk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PlaygroundBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  int nrObjects;
+
+  @Param({"false", "true"})
+  boolean entityStore;
+
+  Playground level;
+
+  @Setup
+  public void setUp() {
+    Playground.setEntityStore(entityStore ? new EntityStore(nrObjects) : null);
+    level = new Level1();
+    level.reset();
+    level.setTimestep(1. / 120.);
+    for (int i = 0; i < nrObjects; i++) {
+      boolean enemy = i % 10 == 0;
+      GameObject o = new FallingStar((enemy ? "enemy" : "star") + i, level, (i * 7) % 700,
+          (i * 13) % 700, 0, 50, Color.WHITE, 1).addController(new FallingStarController());
+      if (enemy) {
+        o.addTag("enemy");
+      }
+      level.addObjectNow(o);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    level.reset();
+    Playground.setEntityStore(null);
+  }
+
+  @Benchmark
+  public void updateObjects() {
+    level.updateObjects();
+  }
+
+  @Benchmark
+  public LinkedList<GameObject> collectObjects() {
+    return level.collectObjects("enemy", false);
+  }
+
+  @Benchmark
+  public int objectsByTag() {
+    Collection<GameObject> enemies = level.getObjectsByTag("enemy");
+    int active = 0;
+    for (GameObject e : enemies) {
+      if (e.isActive()) {
+        active++;
+      }
+    }
+    return active;
+  }
+
+}
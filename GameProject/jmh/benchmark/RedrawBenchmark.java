@@ -0,0 +1,57 @@
+package benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import playground.Playground;
+
+/**
+ * {@link Playground#redraw(Graphics2D, double)} of a level in playing state into an offscreen
+ * image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RedrawBenchmark {
+
+  @Param({"30", "300"})
+  int nrEnemies;
+
+  BenchmarkLevel level;
+  BufferedImage image;
+  Graphics2D g;
+
+  @Setup
+  public void setUp() {
+    level = new BenchmarkLevel(nrEnemies).setUpScene(nrEnemies / 10);
+    image = new BufferedImage(level.getSizeX(), level.getSizeY(), BufferedImage.TYPE_INT_RGB);
+    g = image.createGraphics();
+  }
+
+  @TearDown
+  public void tearDown() {
+    g.dispose();
+  }
+
+  @Benchmark
+  public BufferedImage redraw() {
+    level.redraw(g, 1.);
+    return image;
+  }
+
+}
@@ -0,0 +1,278 @@
+package base;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import collider.CollisionDispatch;
+import playground.FrameOverlay;
+import playground.Playground;
+import rendering.CachedText;
+
+
+/**
+ * Records per frame how long the phases of the {@link GameLoop} take (input, update, game logic,
+ * waiting for the paint, redraw) together with the number of objects, collision tests and bytes
+ * allocated by the game thread. The last {@link #WINDOW} values of every metric are kept in a ring
+ * buffer, from which p50/p95/p99/max are calculated. Optionally these statistics are drawn on top
+ * of the level (see {@link #setOverlayEnabled(boolean)}).
+ * 
+ * <p>
+ * All phases except redraw are measured on the game thread, redraw is reported by
+ * {@link Playground#redraw(Graphics2D, double)}, i.e. by the Swing thread unless active rendering is
+ * used. Each ring buffer has a single writer, so recording needs no locks. While the profiler is
+ * disabled (default) the game loop only checks {@link #isEnabled()}.
+ * </p>
+ */
+public class FrameProfiler implements FrameOverlay {
+
+  /** time for processing key and mouse events (ns) */
+  public static final int INPUT = 0;
+  /** time for {@link Playground#updateObjects()}, summed over all steps of a frame (ns) */
+  public static final int UPDATE = 1;
+  /** time for {@link Playground#applyGameLogic()}, summed over all steps of a frame (ns) */
+  public static final int LOGIC = 2;
+  /** time the game thread waited for the frame to be painted (ns) */
+  public static final int PAINT_WAIT = 3;
+  /** time for {@link Playground#redraw(Graphics2D, double)} without the overlay (ns) */
+  public static final int REDRAW = 4;
+  /** number of objects in the level at the end of the frame */
+  public static final int OBJECTS = 5;
+  /** number of exact collision tests in the frame */
+  public static final int COLLISION_TESTS = 6;
+  /** bytes allocated by the game thread in the frame, -1 if the JVM cannot measure it */
+  public static final int ALLOCATED = 7;
+
+  static final int NR_METRICS = 8;
+  static final String[] NAMES = {"input", "update", "logic", "paint wait", "redraw", "objects",
+      "coll. tests", "alloc bytes"};
+
+  /** number of frames the statistics are calculated over, a power of 2 */
+  public static final int WINDOW = 256;
+  /** the overlay recalculates its statistics at most this often */
+  static final long OVERLAY_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+  private static final int P50 = 0, P95 = 1, P99 = 2, MAX = 3;
+  private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 160);
+
+  /** ring buffer of the last {@link #WINDOW} values of one metric, written by one thread only */
+  static final class Ring {
+    private final long[] values = new long[WINDOW];
+    private final AtomicLong written = new AtomicLong();
+
+    void add(long value) {
+      long n = written.get();
+      values[(int) (n & (WINDOW - 1))] = value;
+      written.lazySet(n + 1);
+    }
+
+    /** copies the values, newest first, and returns how many there are */
+    int copyTo(long[] dest) {
+      long n = written.get();
+      int count = (int) Math.min(n, WINDOW);
+      for (int i = 0; i < count; i++) {
+        dest[i] = values[(int) ((n - 1 - i) & (WINDOW - 1))];
+      }
+      return count;
+    }
+  }
+
+  private volatile boolean enabled = false;
+  private volatile boolean overlayEnabled = false;
+
+  private final Ring[] rings = new Ring[NR_METRICS];
+  /** sums of the current frame, game thread only */
+  private final long[] frame = new long[NR_METRICS];
+  private long lastTestCount = 0;
+  private long lastAllocated = -1;
+  private final com.sun.management.ThreadMXBean threadBean;
+
+  private final long[] scratch = new long[WINDOW];
+  private final long[][] stats = new long[NR_METRICS][4];
+  private long lastOverlayUpdate = 0;
+  private final CachedText[] overlayLines = new CachedText[NR_METRICS + 1];
+
+
+  public FrameProfiler() {
+    for (int i = 0; i < NR_METRICS; i++) {
+      rings[i] = new Ring();
+    }
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    com.sun.management.ThreadMXBean allocBean = null;
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      allocBean = (com.sun.management.ThreadMXBean) bean;
+      if (!allocBean.isThreadAllocatedMemorySupported()
+          || !allocBean.isThreadAllocatedMemoryEnabled()) {
+        allocBean = null;
+      }
+    }
+    this.threadBean = allocBean;
+    Font font = CachedText.getFont("Monospaced", Font.PLAIN, 11);
+    for (int i = 0; i < overlayLines.length; i++) {
+      overlayLines[i] = new CachedText(font, Color.GREEN);
+    }
+  }
+
+
+  /**
+   * switches recording on or off. While enabled, the profiler is set as
+   * {@link Playground#setFrameOverlay(FrameOverlay)} to get the redraw times.
+   * 
+   * @param enabled true to record
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    Playground.setFrameOverlay(enabled ? this : null);
+  }
+
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+
+  /**
+   * switches drawing the statistics on top of the level on or off. Enables recording if switched
+   * on.
+   * 
+   * @param overlayEnabled true to draw the overlay
+   */
+  public void setOverlayEnabled(boolean overlayEnabled) {
+    this.overlayEnabled = overlayEnabled;
+    if (overlayEnabled && !enabled) {
+      setEnabled(true);
+    }
+  }
+
+
+  /**
+   * adds a measured value to the current frame of the game thread. Call only from the game thread.
+   * 
+   * @param metric one of the phase constants, e.g. {@link #UPDATE}
+   * @param value nanoseconds (or count) to add
+   */
+  public void add(int metric, long value) {
+    frame[metric] += value;
+  }
+
+
+  /**
+   * completes the current frame: counts objects, collision tests and allocated bytes and stores all
+   * values of the game thread in the ring buffers. Call only from the game thread, once per frame.
+   * 
+   * @param playground the level played
+   */
+  public void endFrame(Playground playground) {
+    frame[OBJECTS] = playground.getObjectCount();
+    long tests = CollisionDispatch.getTestCount();
+    frame[COLLISION_TESTS] = tests - lastTestCount;
+    lastTestCount = tests;
+    if (threadBean != null) {
+      long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      frame[ALLOCATED] = lastAllocated < 0 ? 0 : allocated - lastAllocated;
+      lastAllocated = allocated;
+    } else {
+      frame[ALLOCATED] = -1;
+    }
+    for (int i = 0; i < NR_METRICS; i++) {
+      if (i != REDRAW) {
+        rings[i].add(frame[i]);
+      }
+      frame[i] = 0;
+    }
+  }
+
+
+  @Override
+  public void redrawFinished(long nanos) {
+    rings[REDRAW].add(nanos);
+  }
+
+
+  /**
+   * calculates p50, p95, p99 and max of a metric over the last {@link #WINDOW} frames.
+   * 
+   * @param metric one of the phase constants, e.g. {@link #UPDATE}
+   * @return array {p50, p95, p99, max}, all 0 if nothing was recorded yet
+   */
+  public synchronized long[] getStatistics(int metric) {
+    updateStatistics(metric);
+    return stats[metric].clone();
+  }
+
+
+  private void updateStatistics(int metric) {
+    int count = rings[metric].copyTo(scratch);
+    long[] s = stats[metric];
+    if (count == 0) {
+      Arrays.fill(s, 0);
+      return;
+    }
+    Arrays.sort(scratch, 0, count);
+    s[P50] = scratch[percentileIndex(count, 0.50)];
+    s[P95] = scratch[percentileIndex(count, 0.95)];
+    s[P99] = scratch[percentileIndex(count, 0.99)];
+    s[MAX] = scratch[count - 1];
+  }
+
+
+  /** nearest-rank index of percentile p in count sorted values */
+  static int percentileIndex(int count, double p) {
+    return Math.max(0, (int) Math.ceil(p * count) - 1);
+  }
+
+
+  /**
+   * @return multi-line summary of all statistics, times in microseconds
+   */
+  public synchronized String summary() {
+    StringBuilder sb = new StringBuilder("frame profile over last " + WINDOW + " frames");
+    for (int i = 0; i < NR_METRICS; i++) {
+      updateStatistics(i);
+      sb.append('\n').append(formatLine(i));
+    }
+    return sb.toString();
+  }
+
+
+  private String formatLine(int metric) {
+    long[] s = stats[metric];
+    if (metric <= REDRAW) {
+      return String.format("%-11s %7.1f %7.1f %7.1f %7.1f us", NAMES[metric], s[P50] / 1000.,
+          s[P95] / 1000., s[P99] / 1000., s[MAX] / 1000.);
+    }
+    return String.format("%-11s %7d %7d %7d %7d", NAMES[metric], s[P50], s[P95], s[P99], s[MAX]);
+  }
+
+
+  @Override
+  public void drawOverlay(Graphics2D g2, Playground playground) {
+    if (!overlayEnabled) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (now - lastOverlayUpdate > OVERLAY_INTERVAL_NANOS) {
+      lastOverlayUpdate = now;
+      synchronized (this) {
+        overlayLines[0].setText(String.format("%-11s %7s %7s %7s %7s", "", "p50", "p95", "p99",
+            "max"));
+        for (int i = 0; i < NR_METRICS; i++) {
+          updateStatistics(i);
+          overlayLines[i + 1].setText(formatLine(i));
+        }
+      }
+    }
+    int lineHeight = 13;
+    int y = playground.getSizeY() - overlayLines.length * lineHeight - 4;
+    g2.setColor(OVERLAY_BACKGROUND);
+    g2.fillRect(0, y - lineHeight + 2, 340, overlayLines.length * lineHeight + 4);
+    for (CachedText line : overlayLines) {
+      line.draw(g2, 4, y);
+      y += lineHeight;
+    }
+  }
+
+}
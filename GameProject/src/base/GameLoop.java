@@ -1,14 +1,25 @@
 package base;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import gameobjects.EntityStore;
 import gameobjects.GameObject;
+import playground.AssetCache;
+import playground.Flag;
+import playground.HighscoreManager;
+import playground.InputQueue;
 import playground.Level1;
 import playground.Playground;
+import playground.SaveGame;
+import playground.Snapshot;
+import playground.SpaceInvadersLevel;
+import playground.Trace;
 import ui.GameUI;
 
 
@@ -33,6 +44,59 @@ public class GameLoop {
   /** Pixel height of Game GUI (above 0) */
   public static int SIZEY = 200;
 
+  /**
+   * if true (default) the levels are simulated with constant time steps of {@link #FIXED_TIMESTEP}
+   * seconds, independent of the measured frame time. If false, the measured wall-clock time of each
+   * loop iteration is used as time step (old behavior). Can be switched off with command line
+   * argument <code>--variable-step</code>.
+   */
+  public static boolean FIXED_STEP = true;
+  /** simulation time step in seconds used if {@link #FIXED_STEP} is true (120 Hz logic) */
+  public static double FIXED_TIMESTEP = 1. / 120.;
+  /**
+   * maximum number of simulation steps executed per rendered frame to catch up with wall-clock
+   * time. Remaining time is dropped, the game slows down instead of stalling completely.
+   */
+  public static int MAX_CATCHUP_STEPS = 5;
+  /**
+   * number of buffers for active rendering, see {@link GameUI#GameUI(int, int, int)}. 0 (default)
+   * lets Swing paint the frames. Set by command line arguments <code>--active-rendering</code> (2)
+   * or <code>--triple-buffering</code> (3).
+   */
+  public static int RENDER_BUFFERS = 0;
+
+  /**
+   * per-phase timings of the game loop, disabled by default. Enabled by command line arguments
+   * <code>--profile</code> (statistics are logged at the end of each level) or
+   * <code>--profile-overlay</code> (additionally drawn on top of the level).
+   */
+  public static final FrameProfiler PROFILER = new FrameProfiler();
+
+  /** global flag set to the time step of the last simulation step (double) */
+  public static final Flag FLAG_GAME_TIME = Flag.of("gameTime");
+
+  /**
+   * initial capacity of the {@link EntityStore} used with command line argument
+   * <code>--entity-store</code>, see {@link Playground#setEntityStore(EntityStore)}
+   */
+  public static int ENTITY_STORE_CAPACITY = 1024;
+
+  /**
+   * seed of the random numbers of the game (see {@link Playground#setRandomSeed(long)}), set by
+   * command line argument <code>--seed &lt;n&gt;</code>. If null a new seed is chosen for each run.
+   */
+  public static Long RANDOM_SEED = null;
+  /**
+   * file the session is recorded to with a {@link SessionRecorder}, set by command line argument
+   * <code>--record &lt;file&gt;</code>. Null (default) records nothing.
+   */
+  public static File RECORD_FILE = null;
+  /**
+   * file of a recorded session that is played again instead of reading the keyboard, set by
+   * command line argument <code>--replay &lt;file&gt;</code>.
+   */
+  public static File REPLAY_FILE = null;
+
    /**
     *  before call to {@link #runGame(String[])} this List should be initialized (in constructor).
    */
@@ -75,28 +139,55 @@ public class GameLoop {
     this.levels.clear();
   }
 
+  /**
+   * returns the list of levels to play, as defined by {@link #defineLevels()}.
+   * 
+   * @return the internal list of levels (not a copy)
+   */
+  List<Playground> getLevels() {
+    return this.levels;
+  }
+
 
   /**
    * loops over all {@link #levels} and implements the game loop to update continuously the level
    * during play time
    *
-   * @param args command line arguments forwarded (currently ignored)
+   * @param args command line arguments forwarded, see {@link #parseArgs(String[])}
    * @throws IOException if hitghscore.txt cannot be written.
    */
   public void runGame(String[] args) throws IOException {
 
+    parseArgs(args);
     logger.info("GUI starts");
-    GameUI gameUI = new GameUI(SIZEX, SIZEY);   // probably change to your new GUI class
+    GameUI gameUI = new GameUI(SIZEX, SIZEY, RENDER_BUFFERS);   // probably change to your new GUI class
+
+    if (REPLAY_FILE != null) {
+      try (SessionReplayer replayer = new SessionReplayer(REPLAY_FILE)) {
+        replayGame(gameUI, replayer);
+      }
+      logger.info("Replay ends. Bye.");
+      System.exit(0);
+    }
+    SessionRecorder recorder = startSession();
+    preloadAssets(0);
 
     double gameTime = -1;
+    double accumulator = 0;
+    double alpha = 1.;
     Playground currentPlayground = null;
 
     // loop over different levels
     ListIterator<Playground> levelIterator = levels.listIterator();
     while (true) {
-      logger.debug("LevelIndex is " + (levelIterator.nextIndex()) + " (of " + levels.size() + " levels)");
+      logger.debug("LevelIndex is {} (of {} levels)", levelIterator.nextIndex(), levels.size());
       gameTime = 0;
+      accumulator = 0;
+      alpha = 1.;
       long start = System.nanoTime();
+      if (recorder != null) {
+        recorder.clock(gameTime);
+      }
       
       // loop over single level
       while (true) {
@@ -107,6 +198,9 @@ public class GameLoop {
         if (act == GameUI.ACTION_RESET) {
           // ReStart Game in same Level
           logger.info("GUI RESET");          
+          if (recorder != null) {
+            recorder.prepareLevel(levelIterator.nextIndex() - 1, currentPlayground.getGameTime());
+          }
           currentPlayground.prepareLevel("level" + (levelIterator.nextIndex()-1));
           GameUI.resetAction();
         }
@@ -117,7 +211,11 @@ public class GameLoop {
           start = System.nanoTime();
           levelIterator = levels.listIterator(); // reset
           currentPlayground = levelIterator.next(); // again level
+          if (recorder != null) {
+            recorder.prepareLevel(levelIterator.nextIndex() - 1, currentPlayground.getGameTime());
+          }
           currentPlayground.prepareLevel("level" + (levelIterator.nextIndex()-1));
+          preloadAssets(levelIterator.nextIndex());
           gameUI.setPlayground(currentPlayground);          
           GameUI.resetAction();
           break;
@@ -136,14 +234,44 @@ public class GameLoop {
 
         if (act == GameUI.ACTION_SAVE) {
           logger.info("GUI SAVE");
-          // UNDONE save current state (not yet working/implemented)
+          // captured here between two frames, written to disk in the background
+          if (currentPlayground != null) {
+            SaveGame.save(currentPlayground, levelIterator.nextIndex() - 1);
+          }
           GameUI.resetAction();
         }
 
         if (act == GameUI.ACTION_LOAD) {
           logger.info("GUI LOAD");
-          // load game state (currently simply resets)
           GameUI.resetAction();
+          Snapshot snapshot = null;
+          try {
+            snapshot = SaveGame.load();
+          } catch (IOException e) {
+            logger.warn("cannot load saved game: " + e.getMessage());
+          }
+          if (snapshot != null && snapshot.getLevelIndex() < levels.size()) {
+            if (recorder != null) {
+              // the replay could not restore the snapshot, so the recording ends here
+              logger.info("loading a saved game ends the recording");
+              recorder.close();
+              recorder = null;
+            }
+            int index = snapshot.getLevelIndex();
+            levelIterator = levels.listIterator(index);
+            currentPlayground = levelIterator.next();
+            gameUI.lockPainting();
+            try {
+              snapshot.restore(currentPlayground);
+            } finally {
+              gameUI.unlockPainting();
+            }
+            gameTime = snapshot.getGameTime();
+            accumulator = 0;
+            start = System.nanoTime();
+            preloadAssets(index + 1);
+            gameUI.setPlayground(currentPlayground);
+          }
         }
 
         // if game has been created: execute a single iteration of the game loop
@@ -162,66 +290,329 @@ public class GameLoop {
           }
 
           // paint current state of level and start time measurement          
-          gameUI.waitWhilePainting();
+          long paintWait = gameUI.waitWhilePainting(alpha);
+          if (Trace.ENABLED) {
+            logger.trace("waited {}ns for painting", paintWait);
+          }
+          boolean profiling = PROFILER.isEnabled();
+          long inputStart = 0;
+          if (profiling) {
+            PROFILER.add(FrameProfiler.PAINT_WAIT, paintWait);
+            inputStart = System.nanoTime();
+          }
 
 
           gameUI.grabFocus(); // needed to grab input events in next step
 
           // communicate inputs to level
-          currentPlayground.processKeyEvents(gameUI.getKeyEvents());
+          InputQueue keyEvents = gameUI.getKeyEvents();
+          if (recorder != null) {
+            keyEvents = recorder.captureInput(keyEvents);
+          }
+          currentPlayground.processKeyEvents(keyEvents);
           currentPlayground.processMouseEvents(gameUI.getMouseEvents());
+          if (profiling) {
+            PROFILER.add(FrameProfiler.INPUT, System.nanoTime() - inputStart);
+          }
 
-          if (currentPlayground.isPaused() == false) {
-            
-            // update objects and level
-            currentPlayground.updateObjects();
-            currentPlayground.applyGameLogic();
-            
-
-            // update game time
-            gameTime += realTS;             
-            // communicate gameTime and timestep to level
-            currentPlayground.setTimestep(realTS);
-            currentPlayground.setGameTime(gameTime);
-            Playground.setGlobalFlag("gameTime", Double.valueOf(realTS));
-            logger.trace("gameTime is now "+gameTime);
-
-          } // if
+          // objects must not change while Swing draws them, even if a paint comes late
+          gameUI.lockPainting();
+          try {
+            if (currentPlayground.isPaused() == false) {
+
+              if (FIXED_STEP) {
+                // accumulate wall-clock time and consume it in constant simulation steps
+                accumulator += realTS;
+                int steps = 0;
+                while (accumulator >= FIXED_TIMESTEP && steps < MAX_CATCHUP_STEPS) {
+                  gameTime = stepLevel(currentPlayground, gameTime, FIXED_TIMESTEP);
+                  if (recorder != null) {
+                    recorder.step(FIXED_TIMESTEP);
+                  }
+                  accumulator -= FIXED_TIMESTEP;
+                  steps++;
+                }
+                if (accumulator >= FIXED_TIMESTEP) {
+                  logger.debug("dropping {}s of simulation time after {} catch-up steps",
+                      accumulator, steps);
+                  accumulator = accumulator % FIXED_TIMESTEP;
+                }
+                // fraction of the next step already elapsed, to interpolate positions on redraw
+                alpha = accumulator / FIXED_TIMESTEP;
+              } else {
+                gameTime = stepLevel(currentPlayground, gameTime, realTS);
+                if (recorder != null) {
+                  recorder.step(realTS);
+                }
+                alpha = 1.;
+              }
+
+            } // if
+          } finally {
+            gameUI.unlockPainting();
+          }
+          if (recorder != null) {
+            recorder.endFrame();
+          }
+          if (profiling) {
+            PROFILER.endFrame(currentPlayground);
+          }
         } // if
 
       } // inner while loop within level
+      if (PROFILER.isEnabled()) {
+        logger.info(PROFILER.summary());
+      }
 
       // after level is done: leave outer loop if game over
       if (currentPlayground.gameOver() == true) {
+        submitScore(HighscoreManager.getInstance(), levelIterator.nextIndex() - 1);
         break; // outer while ends game
       }
 
       // after level is done: reset level and go to next, if there is one
       if (currentPlayground.levelFinished() == true) {
+        if (recorder != null) {
+          recorder.resetLevel(levelIterator.nextIndex() - 1);
+        }
         currentPlayground.reset();
 
         // increase level counter, go on to next one        
-        logger.debug("level finished. now new LevelIndex is " + levelIterator.nextIndex());
+        logger.debug("level finished. now new LevelIndex is {}", levelIterator.nextIndex());
         if (levelIterator.nextIndex() >= levels.size()) {
           logger.info("reached end of levels");
+          submitScore(HighscoreManager.getInstance(), levelIterator.nextIndex() - 1);
           break; // outer while ends game;
         }
         currentPlayground = levelIterator.next();
+        if (recorder != null) {
+          recorder.prepareLevel(levelIterator.nextIndex() - 1, currentPlayground.getGameTime());
+        }
         currentPlayground.prepareLevel("level" + (levelIterator.nextIndex()-1));
+        preloadAssets(levelIterator.nextIndex());
       }
 
     } // outer loop over levels
+    if (recorder != null) {
+      recorder.close();
+    }
     logger.info("Game ends. Bye.");
     System.exit(0);
   } // main()
 
 
+  /**
+   * starts loading the assets of a level in the background, see
+   * {@link Playground#getAssetManifest()}. Called for the next level while the current one is
+   * played.
+   *
+   * @param index index of the level in {@link #getLevels()}, ignored if there is no such level
+   */
+  void preloadAssets(int index) {
+    if (index < levels.size()) {
+      AssetCache.getInstance().preload(levels.get(index).getAssetManifest());
+    }
+  }
+
+
+  /**
+   * seeds the random numbers of the game with {@link #RANDOM_SEED} or a new seed and starts
+   * recording to {@link #RECORD_FILE} if set. The recording is also finished if the window is
+   * closed.
+   *
+   * @return the recorder, or null if the session is not recorded
+   * @throws IOException if the recording cannot be created
+   */
+  private SessionRecorder startSession() throws IOException {
+    long seed = RANDOM_SEED != null ? RANDOM_SEED : System.nanoTime();
+    Playground.setRandomSeed(seed);
+    logger.info("random seed is " + seed);
+    if (RECORD_FILE == null) {
+      return null;
+    }
+    SessionRecorder recorder = new SessionRecorder(RECORD_FILE, seed, FIXED_STEP, FIXED_TIMESTEP);
+    Runtime.getRuntime().addShutdownHook(new Thread(recorder::close));
+    return recorder;
+  }
+
+
+  /**
+   * plays a recorded session again in the window: levels are prepared and reset, and key events and
+   * time steps are given to the levels exactly as recorded. Frames are shown at the speed they were
+   * recorded, user input is ignored.
+   *
+   * @param gameUI window to show the levels in
+   * @param replayer the recorded session
+   * @throws IOException if the recording cannot be read
+   */
+  void replayGame(GameUI gameUI, SessionReplayer replayer) throws IOException {
+    Playground.setRandomSeed(replayer.getSeed());
+    InputQueue input = new InputQueue();
+    Playground currentPlayground = null;
+    double gameTime = 0;
+    double replayedTime = 0;
+    long start = System.nanoTime();
+
+    byte record;
+    while ((record = replayer.next()) != SessionReplayer.END) {
+      if (record == SessionReplayer.PREPARE) {
+        currentPlayground = levels.get(replayer.getLevel());
+        currentPlayground.setGameTime(replayer.getLevelTime());
+        currentPlayground.prepareLevel("level" + replayer.getLevel());
+        preloadAssets(replayer.getLevel() + 1);
+        gameUI.setPlayground(currentPlayground);
+      } else if (record == SessionReplayer.RESET) {
+        levels.get(replayer.getLevel()).reset();
+      } else if (record == SessionReplayer.CLOCK) {
+        gameTime = replayer.getGameTime();
+      } else if (record == SessionReplayer.FRAME && currentPlayground != null) {
+        gameUI.waitWhilePainting(1.);
+        replayer.eventsTo(input);
+        currentPlayground.processKeyEvents(input);
+        gameUI.lockPainting();
+        try {
+          for (int i = 0; i < replayer.getStepCount(); i++) {
+            double timeStep = replayer.getTimeStep(i);
+            gameTime = stepLevel(currentPlayground, gameTime, timeStep);
+            replayedTime += timeStep;
+          }
+        } finally {
+          gameUI.unlockPainting();
+        }
+        // do not run ahead of the recorded game time
+        long ahead = (long) (replayedTime * 1e9) - (System.nanoTime() - start);
+        if (ahead > 0) {
+          try {
+            Thread.sleep(ahead / 1000000, (int) (ahead % 1000000));
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+    }
+    logger.info("replayed " + replayer.getFrameCount() + " frames");
+  }
+
+
+  /**
+   * executes one simulation step of the given level: updates all objects, applies the game logic
+   * and advances the game time by the given time step.
+   *
+   * @param playground the level to update
+   * @param gameTime game time in seconds before this step
+   * @param timeStep duration of this step in seconds
+   * @return the new game time in seconds after this step
+   */
+  static double stepLevel(Playground playground, double gameTime, double timeStep) {
+    // communicate timestep to level
+    playground.setTimestep(timeStep);
+
+    // update objects and level, measured if profiling
+    if (PROFILER.isEnabled()) {
+      long t0 = System.nanoTime();
+      playground.updateObjects();
+      long t1 = System.nanoTime();
+      playground.applyGameLogic();
+      PROFILER.add(FrameProfiler.UPDATE, t1 - t0);
+      PROFILER.add(FrameProfiler.LOGIC, System.nanoTime() - t1);
+    } else {
+      playground.updateObjects();
+      playground.applyGameLogic();
+    }
+
+    // update game time
+    gameTime += timeStep;
+    playground.setGameTime(gameTime);
+    Playground.getGlobalFlags().setDouble(FLAG_GAME_TIME, timeStep);
+    if (Trace.ENABLED) {
+      logger.trace("gameTime is now {}", gameTime);
+    }
+    return gameTime;
+  }
+
+
+  /**
+   * enters the points of a game into a highscore table. Called once per game, when the game is lost
+   * or its last level is finished, so a game gives exactly one entry. The table is written in the
+   * background, see {@link HighscoreManager}.
+   *
+   * @param highscores the table, null to enter nothing
+   * @param levelIndex index of the level the game ended in
+   */
+  static void submitScore(HighscoreManager highscores, int levelIndex) {
+    if (highscores != null) {
+      highscores.submit(System.getProperty("user.name"),
+          Playground.getGlobalFlags().getInt(SpaceInvadersLevel.FLAG_POINTS, 0),
+          "level" + levelIndex);
+    }
+  }
+
+
+  /**
+   * evaluates command line arguments. Currently supported:
+   * <ul>
+   * <li><code>--variable-step</code>: use measured frame time as time step (disables
+   * {@link #FIXED_STEP})
+   * <li><code>--fixed-step</code>: use constant time steps of {@link #FIXED_TIMESTEP} (default)
+   * <li><code>--active-rendering</code>: draw frames directly with double buffering (see
+   * {@link #RENDER_BUFFERS})
+   * <li><code>--triple-buffering</code>: draw frames directly with triple buffering
+   * <li><code>--profile</code>: record frame timings with {@link #PROFILER}
+   * <li><code>--profile-overlay</code>: record frame timings and draw them on top of the level
+   * <li><code>--entity-store</code>: keep positions and speeds of all objects in an
+   * {@link EntityStore}
+   * <li><code>--parallel-update</code>: update objects with parallel-safe controllers on all cores,
+   * see {@link Playground#setUpdatePool(ForkJoinPool)}
+   * <li><code>--seed &lt;n&gt;</code>: seed of the random numbers, see {@link #RANDOM_SEED}
+   * <li><code>--record &lt;file&gt;</code>: record the session, see {@link #RECORD_FILE}
+   * <li><code>--replay &lt;file&gt;</code>: play a recorded session, see {@link #REPLAY_FILE}
+   * </ul>
+   *
+   * @param args command line arguments as given to {@link #runGame(String[])}
+   */
+  void parseArgs(String[] args) {
+    if (args == null) {
+      return;
+    }
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (arg.equals("--variable-step")) {
+        FIXED_STEP = false;
+      } else if (arg.equals("--fixed-step")) {
+        FIXED_STEP = true;
+      } else if (arg.equals("--active-rendering")) {
+        RENDER_BUFFERS = 2;
+      } else if (arg.equals("--triple-buffering")) {
+        RENDER_BUFFERS = 3;
+      } else if (arg.equals("--profile")) {
+        PROFILER.setEnabled(true);
+      } else if (arg.equals("--profile-overlay")) {
+        PROFILER.setOverlayEnabled(true);
+      } else if (arg.equals("--entity-store")) {
+        Playground.setEntityStore(new EntityStore(ENTITY_STORE_CAPACITY));
+      } else if (arg.equals("--parallel-update")) {
+        Playground.setUpdatePool(ForkJoinPool.commonPool());
+      } else if (arg.equals("--seed") && i + 1 < args.length) {
+        RANDOM_SEED = Long.valueOf(args[++i]);
+      } else if (arg.equals("--record") && i + 1 < args.length) {
+        RECORD_FILE = new File(args[++i]);
+      } else if (arg.equals("--replay") && i + 1 < args.length) {
+        REPLAY_FILE = new File(args[++i]);
+      }
+    }
+    logger.info("fixed time step mode is " + FIXED_STEP + ", render buffers " + RENDER_BUFFERS
+        + ", entity store " + (Playground.getEntityStore() != null) + ", parallel update "
+        + (Playground.getUpdatePool() != null));
+  }
+
+
   /**
    * main to start the whole application.
    * initializes the {@link #levels} ArrayList of Playground instances (levels) to be played with one level {@link SpaceInvadersLevel} in constructor of {@link #GameLoop}.
    * 
    * @param args Java default command line args, forwarded to {@link #runGame(String[])}
-   * @throws IOException in case highscore.txt cannot be written.
+   * @throws IOException in case a recorded session cannot be written.
    */
   public static void main(String[] args) throws IOException {
     GameLoop gl = new GameLoop();    
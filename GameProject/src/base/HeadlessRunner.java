@@ -0,0 +1,326 @@
+package base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import gameobjects.EntityStore;
+import playground.AssetCache;
+import playground.FlagTable;
+import playground.HighscoreManager;
+import playground.InputQueue;
+import playground.Music;
+import playground.Playground;
+import playground.SpaceInvadersLevel;
+
+/**
+ * Plays the levels of a {@link GameLoop} without any window, e.g. for balancing levels on a build
+ * server. In contrast to {@link GameLoop#runGame(String[])} nothing is drawn, keyboard input is
+ * taken from an {@link InputScript}, all levels are simulated with constant time steps as fast as
+ * possible and the JVM is not terminated at the end. Sound is switched off. A game can be recorded
+ * with a {@link SessionRecorder} and sessions recorded here or in {@link GameLoop} can be replayed
+ * with {@link #replay(SessionReplayer)}.
+ */
+public class HeadlessRunner {
+
+  private final List<Playground> levels;
+  private double timeStep = GameLoop.FIXED_TIMESTEP;
+  private Long seed = null;
+  private SessionRecorder recorder = null;
+  private HighscoreManager highscores = HighscoreManager.getInstance();
+
+  private static Logger logger = LogManager.getLogger(HeadlessRunner.class);
+
+  /**
+   * @param game the game whose levels (see {@link GameLoop#defineLevels()}) are simulated
+   */
+  public HeadlessRunner(GameLoop game) {
+    this.levels = game.getLevels();
+  }
+
+  /**
+   * sets the simulated time step, default is {@link GameLoop#FIXED_TIMESTEP}.
+   * 
+   * @param seconds time step in seconds (&gt; 0)
+   * @return this instance
+   */
+  public HeadlessRunner setTimestep(double seconds) {
+    this.timeStep = seconds;
+    return this;
+  }
+
+  /**
+   * sets the seed of the random numbers (see {@link Playground#setRandomSeed(long)}), so that each
+   * call of {@link #run(InputScript, long)} plays the same game.
+   * 
+   * @param seed the seed, or null (default) to keep the random numbers as they are
+   * @return this instance
+   */
+  public HeadlessRunner setSeed(Long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * records the next game simulated by {@link #run(InputScript, long)}. The recorder should have
+   * been created with the seed set by {@link #setSeed(Long)} and the time step of this runner; it
+   * is closed at the end of the game.
+   * 
+   * @param recorder the recorder, or null to record nothing
+   * @return this instance
+   */
+  public HeadlessRunner setRecorder(SessionRecorder recorder) {
+    this.recorder = recorder;
+    return this;
+  }
+
+  /**
+   * sets the highscore table the points of each game simulated by {@link #run(InputScript, long)}
+   * are entered into when it is lost or all levels are finished. Games stopped after the maximum
+   * number of frames and replayed sessions are not entered.
+   * 
+   * @param highscores the table, default {@link HighscoreManager#getInstance()}, or null to enter
+   *        nothing
+   * @return this instance
+   */
+  public HeadlessRunner setHighscores(HighscoreManager highscores) {
+    this.highscores = highscores;
+    return this;
+  }
+
+  /**
+   * simulates a whole game from the first level on until the game is lost, all levels are finished
+   * or the given number of frames is reached.
+   * 
+   * @param script key input to deliver, it is rewound at the start of each level
+   * @param maxFrames upper bound for simulation steps over all levels (to stop games that never
+   *        end)
+   * @return the outcome of the game
+   * @throws UncheckedIOException if the game is recorded and writing the recording fails
+   */
+  public SimulationResult run(InputScript script, long maxFrames) {
+    Music.setEnabled(false);
+    if (seed != null) {
+      Playground.setRandomSeed(seed);
+    }
+    try {
+      return simulate(script, maxFrames);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      if (recorder != null) {
+        recorder.close();
+        recorder = null;
+      }
+    }
+  }
+
+  private SimulationResult simulate(InputScript script, long maxFrames) throws IOException {
+    long start = System.nanoTime();
+    long frames = 0;
+    double totalGameTime = 0;
+    int levelsFinished = 0;
+    boolean gameOver = false;
+
+    InputQueue input = new InputQueue();
+
+    for (int i = 0; i < levels.size() && frames < maxFrames; i++) {
+      Playground level = levels.get(i);
+      if (i == 0) {
+        level.resetFlags(Playground.FLAGS_ALL);
+      }
+      level.setGameTime(0);
+      level.getKeyInput().clear();
+      if (recorder != null) {
+        recorder.prepareLevel(i, 0);
+      }
+      level.prepareLevel("level" + i);
+      preloadAssets(i + 1);
+      script.rewind();
+
+      double gameTime = 0;
+      if (recorder != null) {
+        recorder.clock(gameTime);
+      }
+      int levelFrame = 0;
+      while (!level.levelFinished() && !level.gameOver() && frames < maxFrames) {
+        script.eventsForFrame(levelFrame, gameTime, input);
+        if (recorder != null) {
+          level.processKeyEvents(recorder.captureInput(input));
+          gameTime = GameLoop.stepLevel(level, gameTime, timeStep);
+          recorder.step(timeStep);
+          recorder.endFrame();
+        } else {
+          level.processKeyEvents(input);
+          gameTime = GameLoop.stepLevel(level, gameTime, timeStep);
+        }
+        if (GameLoop.PROFILER.isEnabled()) {
+          GameLoop.PROFILER.endFrame(level);
+        }
+        levelFrame++;
+        frames++;
+      }
+      totalGameTime += gameTime;
+
+      if (level.gameOver()) {
+        gameOver = true;
+        GameLoop.submitScore(highscores, i);
+        break;
+      }
+      if (level.levelFinished()) {
+        levelsFinished++;
+        if (i == levels.size() - 1) {
+          GameLoop.submitScore(highscores, i);
+        }
+        if (recorder != null) {
+          recorder.resetLevel(i);
+        }
+        level.reset();
+      }
+    }
+
+    return finish(frames, start, totalGameTime, levelsFinished, gameOver);
+  }
+
+  /**
+   * plays a recorded session again as fast as possible, see {@link SessionReplayer}. Key input and
+   * time steps are taken from the recording only. With the levels of the same game the outcome is
+   * identical to the recorded one.
+   * 
+   * @param replayer the recorded session
+   * @return the outcome of the game
+   * @throws IOException if the recording cannot be read
+   */
+  public SimulationResult replay(SessionReplayer replayer) throws IOException {
+    Music.setEnabled(false);
+    long start = System.nanoTime();
+    long frames = 0;
+    double totalGameTime = 0;
+    int levelsFinished = 0;
+
+    // like the levels of a new game
+    Playground.setRandomSeed(replayer.getSeed());
+    for (Playground level : levels) {
+      level.getKeyInput().clear();
+    }
+    levels.get(0).resetFlags(Playground.FLAGS_ALL);
+
+    InputQueue input = new InputQueue();
+    Playground level = null;
+    double gameTime = 0;
+    byte record;
+    while ((record = replayer.next()) != SessionReplayer.END) {
+      if (record == SessionReplayer.PREPARE) {
+        level = levels.get(replayer.getLevel());
+        level.setGameTime(replayer.getLevelTime());
+        level.prepareLevel("level" + replayer.getLevel());
+        preloadAssets(replayer.getLevel() + 1);
+      } else if (record == SessionReplayer.RESET) {
+        if (levels.get(replayer.getLevel()).levelFinished()) {
+          levelsFinished++;
+        }
+        levels.get(replayer.getLevel()).reset();
+      } else if (record == SessionReplayer.CLOCK) {
+        totalGameTime += gameTime;
+        gameTime = replayer.getGameTime();
+      } else if (record == SessionReplayer.FRAME && level != null) {
+        replayer.eventsTo(input);
+        level.processKeyEvents(input);
+        for (int i = 0; i < replayer.getStepCount(); i++) {
+          gameTime = GameLoop.stepLevel(level, gameTime, replayer.getTimeStep(i));
+          if (GameLoop.PROFILER.isEnabled()) {
+            GameLoop.PROFILER.endFrame(level);
+          }
+          frames++;
+        }
+      }
+    }
+    totalGameTime += gameTime;
+    return finish(frames, start, totalGameTime, levelsFinished, level != null && level.gameOver());
+  }
+
+  /** loads the assets of the next level while the current one is simulated */
+  private void preloadAssets(int index) {
+    if (index < levels.size()) {
+      AssetCache.getInstance().preload(levels.get(index).getAssetManifest());
+    }
+  }
+
+  private SimulationResult finish(long frames, long start, double totalGameTime,
+      int levelsFinished, boolean gameOver) {
+    FlagTable flags = Playground.getGlobalFlags();
+    SimulationResult result = new SimulationResult(flags.getInt(SpaceInvadersLevel.FLAG_POINTS, 0),
+        flags.getInt(SpaceInvadersLevel.FLAG_EGO_LIVES, 0), frames,
+        System.nanoTime() - start, totalGameTime, levelsFinished, gameOver);
+    logger.info("simulation done: " + result);
+    if (GameLoop.PROFILER.isEnabled()) {
+      logger.info(GameLoop.PROFILER.summary());
+    }
+    return result;
+  }
+
+  /**
+   * simulates games of {@link GameLoop} without input and prints one result per line.
+   * 
+   * @param args optional: number of games (default 1), maximum frames per game (default 100000);
+   *        <code>--profile</code> prints frame statistics at the end, <code>--entity-store</code>
+   *        keeps object positions in an {@link EntityStore}, <code>--parallel-update</code>
+   *        updates parallel-safe objects on all cores, <code>--seed &lt;n&gt;</code> sets the seed
+   *        of the random numbers, <code>--record &lt;file&gt;</code> records the first game and
+   *        <code>--replay &lt;file&gt;</code> plays a recorded session instead of simulating games
+   * @throws IOException if a recording cannot be written or read
+   */
+  public static void main(String[] args) throws IOException {
+    System.setProperty("java.awt.headless", "true");
+    ArrayList<String> numbers = new ArrayList<String>();
+    Long seed = null;
+    File recordFile = null;
+    File replayFile = null;
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (arg.equals("--profile")) {
+        GameLoop.PROFILER.setEnabled(true);
+      } else if (arg.equals("--entity-store")) {
+        Playground.setEntityStore(new EntityStore(GameLoop.ENTITY_STORE_CAPACITY));
+      } else if (arg.equals("--parallel-update")) {
+        Playground.setUpdatePool(ForkJoinPool.commonPool());
+      } else if (arg.equals("--seed") && i + 1 < args.length) {
+        seed = Long.valueOf(args[++i]);
+      } else if (arg.equals("--record") && i + 1 < args.length) {
+        recordFile = new File(args[++i]);
+      } else if (arg.equals("--replay") && i + 1 < args.length) {
+        replayFile = new File(args[++i]);
+      } else {
+        numbers.add(arg);
+      }
+    }
+    int games = numbers.size() > 0 ? Integer.parseInt(numbers.get(0)) : 1;
+    long maxFrames = numbers.size() > 1 ? Long.parseLong(numbers.get(1)) : 100000;
+
+    HeadlessRunner runner = new HeadlessRunner(new GameLoop());
+    if (replayFile != null) {
+      try (SessionReplayer replayer = new SessionReplayer(replayFile)) {
+        System.out.println(runner.replay(replayer));
+      }
+      return;
+    }
+    if (recordFile != null) {
+      if (seed == null) {
+        seed = System.nanoTime();
+      }
+      runner.setRecorder(new SessionRecorder(recordFile, seed, true, runner.timeStep));
+    }
+    runner.setSeed(seed);
+    for (int g = 0; g < games; g++) {
+      System.out.println(runner.run(new InputScript(), maxFrames));
+    }
+    if (GameLoop.PROFILER.isEnabled()) {
+      System.out.println(GameLoop.PROFILER.summary());
+    }
+  }
+
+}
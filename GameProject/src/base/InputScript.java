@@ -0,0 +1,79 @@
+package base;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import playground.InputQueue;
+
+/**
+ * A scripted sequence of key presses and releases, used instead of a keyboard by
+ * {@link HeadlessRunner}. Each entry is bound to the frame (simulation step) in which it occurs.
+ * Entries are delivered in the order they were added, so they must be added with increasing frame
+ * numbers.
+ * 
+ * <pre>
+ * InputScript script = new InputScript().press(10, KeyEvent.VK_LEFT).release(40, KeyEvent.VK_LEFT)
+ *     .press(41, KeyEvent.VK_SPACE).release(42, KeyEvent.VK_SPACE);
+ * </pre>
+ */
+public class InputScript {
+
+  private ArrayList<Integer> frames = new ArrayList<Integer>();
+  private ArrayList<Integer> keyCodes = new ArrayList<Integer>();
+  private ArrayList<Boolean> pressed = new ArrayList<Boolean>();
+  private int next = 0;
+
+  /**
+   * adds a key press.
+   * 
+   * @param frame frame number (starting at 0 for each level) the key is pressed in
+   * @param keyCode key code as defined in {@link KeyEvent}, e.g. {@link KeyEvent#VK_SPACE}
+   * @return this instance
+   */
+  public InputScript press(int frame, int keyCode) {
+    return add(frame, keyCode, true);
+  }
+
+  /**
+   * adds a key release.
+   * 
+   * @param frame frame number (starting at 0 for each level) the key is released in
+   * @param keyCode key code as defined in {@link KeyEvent}
+   * @return this instance
+   */
+  public InputScript release(int frame, int keyCode) {
+    return add(frame, keyCode, false);
+  }
+
+  private InputScript add(int frame, int keyCode, boolean isPressed) {
+    this.frames.add(frame);
+    this.keyCodes.add(keyCode);
+    this.pressed.add(isPressed);
+    return this;
+  }
+
+  /** restarts delivering events from the beginning of the script, e.g. for a new level */
+  public void rewind() {
+    this.next = 0;
+  }
+
+  /**
+   * adds all events of the given frame to the queue, as the GUI would have done. Events of frames
+   * that were skipped are delivered, too.
+   * 
+   * @param frame current frame number
+   * @param gameTime current game time in seconds, used as event time stamp
+   * @param queue queue to add the events to, in the order they occurred
+   * @return number of events added
+   */
+  public int eventsForFrame(int frame, double gameTime, InputQueue queue) {
+    int n = 0;
+    while (next < frames.size() && frames.get(next) <= frame) {
+      byte type = pressed.get(next) ? InputQueue.KEY_PRESSED : InputQueue.KEY_RELEASED;
+      queue.offer(type, keyCodes.get(next), (long) (gameTime * 1e9));
+      next++;
+      n++;
+    }
+    return n;
+  }
+
+}
@@ -0,0 +1,243 @@
+package base;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import playground.InputQueue;
+import playground.KeyInput;
+import playground.Playground;
+
+/**
+ * Records a game session into a compact binary file, so that {@link SessionReplayer} can play it
+ * again exactly as it happened. Only what cannot be recomputed is written: the seed of the random
+ * numbers (see {@link Playground#setRandomSeed(long)}), the levels started and reset, and for each
+ * frame the key events and the time steps simulated. Everything else follows deterministically.
+ *
+ * <p>
+ * The game thread calls, in the order the actions happen: {@link #prepareLevel(int, double)},
+ * {@link #resetLevel(int)}, {@link #clock(double)} and, for each frame,
+ * {@link #captureInput(InputQueue)}, {@link #step(double)} per simulation step and
+ * {@link #endFrame()}. {@link #close()} may also be called from another thread, e.g. a shutdown
+ * hook when the window is closed.
+ * </p>
+ *
+ * <p>
+ * File format (big endian as written by {@link DataOutputStream}, counts and key codes as unsigned
+ * variable-length integers with 7 bits per byte):
+ * </p>
+ *
+ * <pre>
+ * header:  int magic "GLSR", short version, long seed, boolean fixed step, double fixed time step
+ * PREPARE: byte 1, varint level index, double game time of the level before preparing it
+ * RESET:   byte 2, varint level index
+ * CLOCK:   byte 3, double game time of the loop
+ * FRAME:   byte 4, varint number of key events, per event byte type and varint key code,
+ *          varint number of steps, per step double time step (only without fixed step)
+ * END:     byte 0
+ * </pre>
+ */
+public class SessionRecorder implements Closeable {
+
+  static final int MAGIC = 0x474C5352;
+  static final short VERSION = 1;
+
+  static final byte END = 0;
+  static final byte PREPARE = 1;
+  static final byte RESET = 2;
+  static final byte CLOCK = 3;
+  static final byte FRAME = 4;
+
+  private final DataOutputStream out;
+  private final boolean fixedStep;
+  private final double fixedTimestep;
+
+  /** events of the current frame, taken from the GUI and forwarded to the level */
+  private final KeyInput captured = new KeyInput();
+  private final InputQueue forward = new InputQueue();
+  private byte[] eventTypes = new byte[16];
+  private int[] eventCodes = new int[16];
+  private int events = 0;
+  private double[] steps = new double[8];
+  private int stepCount = 0;
+
+  private long frames = 0;
+  private boolean closed = false;
+
+  private static Logger logger = LogManager.getLogger(SessionRecorder.class);
+
+  /**
+   * creates the file and writes its header.
+   *
+   * @param file file to write, replaced if it exists
+   * @param seed seed of the random numbers used for this session
+   * @param fixedStep true if all steps use the same time step (see {@link GameLoop#FIXED_STEP})
+   * @param fixedTimestep the time step in seconds if fixedStep is true
+   * @throws IOException if the file cannot be written
+   */
+  public SessionRecorder(File file, long seed, boolean fixedStep, double fixedTimestep)
+      throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    this.fixedStep = fixedStep;
+    this.fixedTimestep = fixedTimestep;
+    out.writeInt(MAGIC);
+    out.writeShort(VERSION);
+    out.writeLong(seed);
+    out.writeBoolean(fixedStep);
+    out.writeDouble(fixedTimestep);
+    logger.info("recording session to " + file + " with seed " + seed);
+  }
+
+  /**
+   * records that a level is (re)started with {@link Playground#prepareLevel(String)}. Call before
+   * preparing it.
+   *
+   * @param index index of the level in the list of levels of the game
+   * @param levelTime game time of the level before preparing it, see {@link Playground#getGameTime()}
+   * @throws IOException if writing fails
+   */
+  public synchronized void prepareLevel(int index, double levelTime) throws IOException {
+    if (closed) {
+      return;
+    }
+    out.writeByte(PREPARE);
+    writeVarInt(index);
+    out.writeDouble(levelTime);
+  }
+
+  /**
+   * records that a level was reset with {@link Playground#reset()}.
+   *
+   * @param index index of the level in the list of levels of the game
+   * @throws IOException if writing fails
+   */
+  public synchronized void resetLevel(int index) throws IOException {
+    if (closed) {
+      return;
+    }
+    out.writeByte(RESET);
+    writeVarInt(index);
+  }
+
+  /**
+   * records that the game loop set its game time other than by simulating a step, e.g. to 0 at the
+   * start of a level.
+   *
+   * @param gameTime the new game time in seconds
+   * @throws IOException if writing fails
+   */
+  public synchronized void clock(double gameTime) throws IOException {
+    if (closed) {
+      return;
+    }
+    out.writeByte(CLOCK);
+    out.writeDouble(gameTime);
+  }
+
+  /**
+   * takes all key events from the queue filled by the GUI and records them for the current frame.
+   *
+   * @param source queue filled by the GUI, emptied by this call
+   * @return queue with the same events, to be passed to
+   *         {@link Playground#processKeyEvents(InputQueue)}
+   */
+  public InputQueue captureInput(InputQueue source) {
+    source.drainTo(captured);
+    while (captured.next()) {
+      byte type = captured.isPressed() ? InputQueue.KEY_PRESSED : InputQueue.KEY_RELEASED;
+      if (events == eventTypes.length) {
+        eventTypes = Arrays.copyOf(eventTypes, 2 * events);
+        eventCodes = Arrays.copyOf(eventCodes, 2 * events);
+      }
+      eventTypes[events] = type;
+      eventCodes[events] = captured.getKeyCode();
+      events++;
+      forward.offer(type, captured.getKeyCode(), captured.getTime());
+    }
+    return forward;
+  }
+
+  /**
+   * records one simulation step of the current frame.
+   *
+   * @param timeStep time step in seconds
+   * @throws IllegalArgumentException if a fixed time step was given to the constructor and this
+   *         one differs
+   */
+  public void step(double timeStep) {
+    if (fixedStep && timeStep != fixedTimestep) {
+      throw new IllegalArgumentException(
+          "time step " + timeStep + " differs from fixed time step " + fixedTimestep);
+    }
+    if (stepCount == steps.length) {
+      steps = Arrays.copyOf(steps, 2 * stepCount);
+    }
+    steps[stepCount++] = timeStep;
+  }
+
+  /**
+   * writes the events and steps of the current frame.
+   *
+   * @throws IOException if writing fails
+   */
+  public synchronized void endFrame() throws IOException {
+    if (closed) {
+      return;
+    }
+    out.writeByte(FRAME);
+    writeVarInt(events);
+    for (int i = 0; i < events; i++) {
+      out.writeByte(eventTypes[i]);
+      writeVarInt(eventCodes[i]);
+    }
+    writeVarInt(stepCount);
+    if (!fixedStep) {
+      for (int i = 0; i < stepCount; i++) {
+        out.writeDouble(steps[i]);
+      }
+    }
+    events = 0;
+    stepCount = 0;
+    frames++;
+  }
+
+  /**
+   * @return number of frames written so far
+   */
+  public synchronized long getFrameCount() {
+    return frames;
+  }
+
+  /** unsigned LEB128 encoding, non-negative values only */
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  /**
+   * writes the end mark and closes the file. Further calls of the recording methods are ignored.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      out.writeByte(END);
+      out.close();
+      logger.info("session recorded, " + frames + " frames");
+    } catch (IOException e) {
+      logger.error("could not finish session recording", e);
+    }
+  }
+
+}
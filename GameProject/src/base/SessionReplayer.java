@@ -0,0 +1,228 @@
+package base;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import playground.InputQueue;
+
+/**
+ * Reads a session written by {@link SessionRecorder} record by record. The caller repeats the
+ * recorded actions in the same order, see
+ * {@link GameLoop#replayGame(ui.GameUI, SessionReplayer)} and
+ * {@link HeadlessRunner#replay(SessionReplayer)}:
+ *
+ * <pre>
+ * Playground.setRandomSeed(replayer.getSeed());
+ * byte record;
+ * while ((record = replayer.next()) != SessionReplayer.END) {
+ *   if (record == SessionReplayer.FRAME) {
+ *     replayer.eventsTo(input);
+ *     level.processKeyEvents(input);
+ *     for (int i = 0; i &lt; replayer.getStepCount(); i++) {
+ *       gameTime = GameLoop.stepLevel(level, gameTime, replayer.getTimeStep(i));
+ *     }
+ *   } else ...
+ * }
+ * </pre>
+ *
+ * A file that ends without end mark (e.g. because the game was killed) ends after its last complete
+ * record.
+ */
+public class SessionReplayer implements Closeable {
+
+  /** no more records */
+  public static final byte END = SessionRecorder.END;
+  /** a level is prepared, see {@link #getLevel()} and {@link #getLevelTime()} */
+  public static final byte PREPARE = SessionRecorder.PREPARE;
+  /** a level is reset, see {@link #getLevel()} */
+  public static final byte RESET = SessionRecorder.RESET;
+  /** the game loop sets its game time, see {@link #getGameTime()} */
+  public static final byte CLOCK = SessionRecorder.CLOCK;
+  /** a frame with key events and simulation steps */
+  public static final byte FRAME = SessionRecorder.FRAME;
+
+  private final DataInputStream in;
+  private final long seed;
+  private final boolean fixedStep;
+  private final double fixedTimestep;
+
+  private int level = 0;
+  private double levelTime = 0;
+  private double gameTime = 0;
+  private byte[] eventTypes = new byte[16];
+  private int[] eventCodes = new int[16];
+  private int events = 0;
+  private double[] steps = new double[8];
+  private int stepCount = 0;
+  private long frames = 0;
+
+  /**
+   * opens the file and reads its header.
+   *
+   * @param file a file written by {@link SessionRecorder}
+   * @throws IOException if the file cannot be read or is no session recording of this version
+   */
+  public SessionReplayer(File file) throws IOException {
+    this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+    try {
+      if (in.readInt() != SessionRecorder.MAGIC) {
+        throw new IOException(file + " is no session recording");
+      }
+      short version = in.readShort();
+      if (version != SessionRecorder.VERSION) {
+        throw new IOException("unsupported session recording version " + version + " in " + file);
+      }
+      this.seed = in.readLong();
+      this.fixedStep = in.readBoolean();
+      this.fixedTimestep = in.readDouble();
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /**
+   * reads the next record.
+   *
+   * @return its type: {@link #PREPARE}, {@link #RESET}, {@link #CLOCK}, {@link #FRAME} or
+   *         {@link #END}
+   * @throws IOException if reading fails or the file is corrupt
+   */
+  public byte next() throws IOException {
+    int type = in.read();
+    if (type < 0) {
+      return END;
+    }
+    try {
+      switch (type) {
+        case END:
+          return END;
+        case PREPARE:
+          level = readVarInt();
+          levelTime = in.readDouble();
+          return PREPARE;
+        case RESET:
+          level = readVarInt();
+          return RESET;
+        case CLOCK:
+          gameTime = in.readDouble();
+          return CLOCK;
+        case FRAME:
+          readFrame();
+          frames++;
+          return FRAME;
+        default:
+          throw new IOException("unknown record type " + type + " after frame " + frames);
+      }
+    } catch (EOFException e) {
+      // last record incomplete: recording was not closed
+      return END;
+    }
+  }
+
+  private void readFrame() throws IOException {
+    events = readVarInt();
+    if (events > eventTypes.length) {
+      eventTypes = Arrays.copyOf(eventTypes, events);
+      eventCodes = Arrays.copyOf(eventCodes, events);
+    }
+    for (int i = 0; i < events; i++) {
+      eventTypes[i] = in.readByte();
+      eventCodes[i] = readVarInt();
+    }
+    stepCount = readVarInt();
+    if (stepCount > steps.length) {
+      steps = Arrays.copyOf(steps, stepCount);
+    }
+    for (int i = 0; i < stepCount; i++) {
+      steps[i] = fixedStep ? fixedTimestep : in.readDouble();
+    }
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("corrupt number after frame " + frames);
+  }
+
+  /**
+   * @return seed of the random numbers of the recorded session
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * @return level index of the last {@link #PREPARE} or {@link #RESET} record
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * @return game time of the level before it was prepared, of the last {@link #PREPARE} record
+   */
+  public double getLevelTime() {
+    return levelTime;
+  }
+
+  /**
+   * @return game time of the last {@link #CLOCK} record
+   */
+  public double getGameTime() {
+    return gameTime;
+  }
+
+  /**
+   * offers the key events of the last {@link #FRAME} record to the queue, like the GUI does.
+   *
+   * @param queue queue to pass to {@link playground.Playground#processKeyEvents(InputQueue)}
+   * @return number of events
+   */
+  public int eventsTo(InputQueue queue) {
+    long now = System.nanoTime();
+    for (int i = 0; i < events; i++) {
+      queue.offer(eventTypes[i], eventCodes[i], now);
+    }
+    return events;
+  }
+
+  /**
+   * @return number of simulation steps of the last {@link #FRAME} record
+   */
+  public int getStepCount() {
+    return stepCount;
+  }
+
+  /**
+   * @param i step index, 0 &lt;= i &lt; {@link #getStepCount()}
+   * @return time step in seconds of the step
+   */
+  public double getTimeStep(int i) {
+    return steps[i];
+  }
+
+  /**
+   * @return number of {@link #FRAME} records read so far
+   */
+  public long getFrameCount() {
+    return frames;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+}
@@ -0,0 +1,68 @@
+package base;
+
+/**
+ * Outcome of a game simulated by {@link HeadlessRunner}.
+ */
+public class SimulationResult {
+
+  private final int points;
+  private final int lives;
+  private final long frames;
+  private final long elapsedNanos;
+  private final double gameTime;
+  private final int levelsFinished;
+  private final boolean gameOver;
+
+  SimulationResult(int points, int lives, long frames, long elapsedNanos, double gameTime,
+      int levelsFinished, boolean gameOver) {
+    this.points = points;
+    this.lives = lives;
+    this.frames = frames;
+    this.elapsedNanos = elapsedNanos;
+    this.gameTime = gameTime;
+    this.levelsFinished = levelsFinished;
+    this.gameOver = gameOver;
+  }
+
+  /** @return value of global flag "points" at the end of the game */
+  public int getPoints() {
+    return points;
+  }
+
+  /** @return value of global flag "egoLives" at the end of the game */
+  public int getLives() {
+    return lives;
+  }
+
+  /** @return number of simulation steps executed over all levels */
+  public long getFrames() {
+    return frames;
+  }
+
+  /** @return wall-clock time of the simulation in nanoseconds */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /** @return simulated game time in seconds summed over all levels */
+  public double getGameTime() {
+    return gameTime;
+  }
+
+  /** @return number of levels that were finished */
+  public int getLevelsFinished() {
+    return levelsFinished;
+  }
+
+  /** @return true if the game ended because the player lost */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  public String toString() {
+    return "points=" + points + " lives=" + lives + " frames=" + frames + " elapsedMs="
+        + (elapsedNanos / 1000000) + " gameTime=" + gameTime + " levelsFinished=" + levelsFinished
+        + " gameOver=" + gameOver;
+  }
+
+}
@@ -2,6 +2,7 @@ package collider;
 
 import java.awt.Color;
 import gameobjects.*;
+import playground.Trace;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -36,51 +37,39 @@ public class CircleCollider extends Collider {
     return "circ:" + x + " " + y + "/" + r + " ";
   }
 
+  @Override
+  public double getExtentX() {
+    return r;
+  }
+
+  @Override
+  public double getExtentY() {
+    return r;
+  }
+
 
   /**
-   * calculates the collission of this with other collider
+   * calculates the collission of this with other circle collider
    * 
-   * @param _c2 the other collider
+   * @param c2 the other collider
    * @return true if a collision was detected
-   * @throws Exception in case the math operations are invalid (due to illegal values of x y or
-   *         radius)
    */
-  public boolean checkCollisionCircCirc(Collider _c2) throws Exception {
-    CircleCollider c2 = (CircleCollider) _c2;
+  public boolean checkCollisionCircCirc(CircleCollider c2) {
     CircleCollider c1 = this;
-    logger.trace(c1.x + " " + c1.y + " " + c1.r + " " + c2.x + " " + c2.y+ " " + c2.r);
-    int kathete1 = (int) (Math.abs(c2.gameobject.getX() - c1.gameobject.getX()));
-    int kathete2 = (int) (Math.abs(c2.gameobject.getX() - c1.gameobject.getY()));
-    int hypothenuse = (int) (c1.r + c2.r);
+    double kathete1 = c2.getX() - c1.getX();
+    double kathete2 = c2.getY() - c1.getY();
+    double hypothenuse = c1.r + c2.r;
 
-    logger.trace(kathete1 + " " + kathete2 + " " + hypothenuse + " ");
+    if (Trace.ENABLED) {
+      logger.trace("distance {}/{}, sum of radii {}", kathete1, kathete2, hypothenuse);
+    }
 
-    if (((kathete1 ^ 2) + (kathete2 ^ 2)) <= (hypothenuse ^ 2)) {
-      logger.trace("Collision");
+    if ((kathete1 * kathete1 + kathete2 * kathete2) <= (hypothenuse * hypothenuse)) {
       return true;
     }
     return false;
   }
 
-
-
-  @Override
-  public boolean collidesWith(Collider other) {
-
-    // circ circ
-    try {
-      return checkCollisionCircCirc(other);
-    } catch (Exception e) {
-    }
-
-    try {
-      return other.collidesWith(this);
-    } catch (Exception e) {
-    }
-
-    throw new RuntimeException("Collider type not implemented!");
-  }
-
   private Color color = Color.WHITE;
 
 
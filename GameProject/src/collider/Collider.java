@@ -25,6 +25,9 @@ public abstract class Collider {
   protected double dx = 0.;
   double dy = 0.;
 
+  /** shape kind used to find the collision test, see {@link CollisionDispatch} */
+  final int kind;
+
   /**
    * 
    * @param id unique name for Collider (internally)
@@ -36,6 +39,7 @@ public abstract class Collider {
     this.id = id;
     this.controller = o.getObjectController();
     this.playground = o.getPlayground();
+    this.kind = CollisionDispatch.kindOf(getClass());
 
   }
 
@@ -116,12 +120,32 @@ public abstract class Collider {
   }
 
   /**
-   * checks the collission with another collider instance.
+   * half of the width of the axis aligned box enclosing this collider, centered at
+   * {@link #getX()}. Used for broad-phase collision detection, see {@link SpatialHash}.
+   * 
+   * @return half width in pixels (zero or positive)
+   */
+  abstract public double getExtentX();
+
+  /**
+   * half of the height of the axis aligned box enclosing this collider, centered at
+   * {@link #getY()}. Used for broad-phase collision detection, see {@link SpatialHash}.
+   * 
+   * @return half height in pixels (zero or positive)
+   */
+  abstract public double getExtentY();
+
+  /**
+   * checks the collission with another collider instance. The test is chosen by the shapes of
+   * both colliders, see {@link CollisionDispatch}.
    * 
    * @param other the instance to compare to
    * @return true if the colliders collide (touch or overlap)
+   * @throws RuntimeException if no test is registered for the two shapes
    */
-  abstract public boolean collidesWith(Collider other);
+  public boolean collidesWith(Collider other) {
+    return CollisionDispatch.collide(this, other);
+  }
 
 
 }
@@ -0,0 +1,157 @@
+package collider;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Chooses the exact collision test for a pair of colliders by their shape. Every collider class
+ * (shape) gets a small integer kind, and the test for two kinds is looked up in a table, so
+ * {@link Collider#collidesWith(Collider)} needs neither casts that may fail nor
+ * <code>instanceof</code> chains. The tests for {@link RectCollider} and {@link CircleCollider} are
+ * registered here; a new collider shape registers its tests against the existing shapes once, e.g.
+ * in a static initializer of its class:
+ * 
+ * <pre>
+ * static {
+ *   CollisionDispatch.register(MyCollider.class, RectCollider.class, (m, r) -&gt; m.checkRect(r));
+ *   CollisionDispatch.register(MyCollider.class, CircleCollider.class, (m, c) -&gt; m.checkCirc(c));
+ * }
+ * </pre>
+ * 
+ * Subclasses of a registered collider class use the tests of that class.
+ */
+public final class CollisionDispatch {
+
+  /**
+   * exact collision test for two collider shapes.
+   *
+   * @param <A> first collider type
+   * @param <B> second collider type
+   */
+  public interface CollisionCheck<A extends Collider, B extends Collider> {
+    /**
+     * @param a first collider
+     * @param b second collider
+     * @return true if both colliders touch or overlap
+     */
+    boolean collide(A a, B b);
+  }
+
+  private static HashMap<Class<?>, Integer> kinds = new HashMap<Class<?>, Integer>();
+  private static CollisionCheck<Collider, Collider>[][] table = newTable(4);
+
+  /** number of exact tests run so far, only counted on the game thread, see {@link #getTestCount()} */
+  private static long tests = 0;
+
+  static {
+    register(RectCollider.class, RectCollider.class, (a, b) -> a.checkCollisionRectRect(b));
+    register(RectCollider.class, CircleCollider.class, (a, b) -> a.checkCollisionRectCirc(b));
+    register(CircleCollider.class, CircleCollider.class, (a, b) -> a.checkCollisionCircCirc(b));
+  }
+
+  private CollisionDispatch() {}
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static CollisionCheck<Collider, Collider>[][] newTable(int size) {
+    return new CollisionCheck[size][size];
+  }
+
+  /**
+   * returns the kind of a collider class. Classes that were not registered themselves get the kind
+   * of their nearest registered superclass, or a new kind without any tests.
+   * 
+   * @param type collider class
+   * @return index into the dispatch table
+   */
+  static synchronized int kindOf(Class<?> type) {
+    Integer kind = kinds.get(type);
+    if (kind == null) {
+      Class<?> sup = type.getSuperclass();
+      while (sup != null && kind == null) {
+        kind = kinds.get(sup);
+        sup = sup.getSuperclass();
+      }
+      if (kind == null) {
+        kind = newKind();
+      }
+      kinds.put(type, kind);
+    }
+    return kind;
+  }
+
+  private static int newKind() {
+    int kind = 0;
+    for (Integer k : kinds.values()) {
+      kind = Math.max(kind, k + 1);
+    }
+    if (kind >= table.length) {
+      CollisionCheck<Collider, Collider>[][] bigger = newTable(2 * table.length);
+      for (int i = 0; i < table.length; i++) {
+        bigger[i] = Arrays.copyOf(table[i], bigger.length);
+      }
+      table = bigger;
+    }
+    return kind;
+  }
+
+  /**
+   * registers the exact collision test for two collider classes. The test is used in both
+   * directions (A with B and B with A). An existing test for the same pair is replaced.
+   * 
+   * @param <A> first collider type
+   * @param <B> second collider type
+   * @param typeA first collider class
+   * @param typeB second collider class
+   * @param check the test
+   */
+  @SuppressWarnings("unchecked")
+  public static synchronized <A extends Collider, B extends Collider> void register(
+      Class<A> typeA, Class<B> typeB, CollisionCheck<A, B> check) {
+    int a = registeredKind(typeA);
+    int b = registeredKind(typeB);
+    CollisionCheck<Collider, Collider> forward = (CollisionCheck<Collider, Collider>) check;
+    table[a][b] = forward;
+    if (a != b) {
+      table[b][a] = (x, y) -> forward.collide(y, x);
+    }
+  }
+
+  private static int registeredKind(Class<?> type) {
+    Integer kind = kinds.get(type);
+    if (kind == null) {
+      kind = newKind();
+      kinds.put(type, kind);
+    }
+    return kind;
+  }
+
+  /**
+   * runs the exact collision test registered for the shapes of both colliders.
+   * 
+   * @param a first collider
+   * @param b second collider
+   * @return true if both colliders touch or overlap
+   * @throws RuntimeException if no test is registered for this pair of shapes
+   */
+  static boolean collide(Collider a, Collider b) {
+    CollisionCheck<Collider, Collider> check = table[a.kind][b.kind];
+    if (check == null) {
+      throw new RuntimeException("Collider type not implemented! " + a.getClass().getName()
+          + " with " + b.getClass().getName());
+    }
+    tests++;
+    return check.collide(a, b);
+  }
+
+
+  /**
+   * returns the number of exact collision tests run so far. Only meant for statistics, the counter
+   * is not synchronized.
+   * 
+   * @return number of calls of {@link Collider#collidesWith(Collider)}
+   */
+  public static long getTestCount() {
+    return tests;
+  }
+
+}
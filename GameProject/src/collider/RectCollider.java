@@ -3,6 +3,7 @@ package collider;
 import java.awt.Color;
 
 import gameobjects.*;
+import playground.Trace;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -40,14 +41,24 @@ public class RectCollider extends Collider {
     return " " + w + " " + h + " ";
   }
 
+  @Override
+  public double getExtentX() {
+    return w / 2.;
+  }
+
+  @Override
+  public double getExtentY() {
+    return h / 2.;
+  }
+
   /**
    * checks collision with other Collider, which needs to be a RectCollider, too.
-   * @param other RectCollider (is casted) to calculate collision with
+   * @param other RectCollider to calculate collision with
    * @return true if collission is detected
    */
-  public boolean checkCollisionRectRect(Collider other) {
+  public boolean checkCollisionRectRect(RectCollider other) {
     RectCollider r1 = this;
-    RectCollider r2 = (RectCollider) other;
+    RectCollider r2 = other;
 
     if ((((r1.getX() + r1.w / 2.) >= (r2.getX() - r2.w / 2.)) && ((r1.getX() + r1.w / 2.) <= (r2
         .getX() + r2.w / 2.)))
@@ -64,17 +75,20 @@ public class RectCollider extends Collider {
   }
 
  /**
-  * checks collision with other Collider, which needs to be a CircleCollider
-  * @param other CircleCollider (is casted) to calculate collision with
+  * checks collision with a CircleCollider
+  * @param other CircleCollider to calculate collision with
   * @return true if collission is detected
   */
-  public boolean checkCollisionRectCirc(Collider other) {
+  public boolean checkCollisionRectCirc(CircleCollider other) {
     RectCollider r = this;
-    CircleCollider c = (CircleCollider) (other);
+    CircleCollider c = other;
     double circleDistX = Math.abs(c.getX()  - (r.getX()  ));
     double circleDistY = Math.abs(c.getY()  - (r.getY() ) );
 
-    logger.trace("c.x:"+c.x+" "+"c.y:"+c.y+" "+"c.r:"+c.r+" "+"r.x:"+r.getX()+" "+"r.y:"+r.getY()+" "+"r.w:"+r.w+" "+"r.h:"+r.h+" "+"circleDistX:"+circleDistX+" "+"circleDistY:"+circleDistY);
+    if (Trace.ENABLED) {
+      logger.trace("c.r:{} r.x:{} r.y:{} r.w:{} r.h:{} circleDistX:{} circleDistY:{}", c.r,
+          r.getX(), r.getY(), r.w, r.h, circleDistX, circleDistY);
+    }
 
     if (circleDistX > (r.w / 2 + c.r))
       return false;
@@ -82,11 +96,9 @@ public class RectCollider extends Collider {
       return false;
 
     if (circleDistX <= (r.w / 2)) {
-        logger.trace("Collision Rect with circle");
       return true;
     }
     if (circleDistY <= (r.h / 2)) {
-      logger.trace("Collision Rect with circle (second)");
       return true;
     }
 
@@ -96,32 +108,4 @@ public class RectCollider extends Collider {
     return (cornerDistSqr <= c.r * c.r); // falls true zurueckgegeben: Kollision
   }
 
-
-
-  @Override
-  public boolean collidesWith(Collider other) {
-
-    // rect circ
-    try {
-      return checkCollisionRectCirc(other);
-    } catch (Exception e) {
-      // do nothing
-    }
-
-    // rect rect
-    try {
-      return checkCollisionRectRect(other);
-    } catch (Exception e) {
-      // do nothing
-    }
-
-    try {
-      return other.collidesWith(this);
-    } catch (Exception e) {
-      // do nothing
-    }
-
-    throw new RuntimeException("Collider type not implemented!");
-  }
-
 }
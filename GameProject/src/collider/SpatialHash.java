@@ -0,0 +1,244 @@
+package collider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import gameobjects.GameObject;
+
+/**
+ * Broad-phase collision detection with a uniform grid over the playing field. Objects of one group
+ * (e.g. shots) are inserted into all grid cells their axis aligned bounding box (AABB) overlaps.
+ * Objects of another group (e.g. enemies) are then queried against the grid, and only pairs whose
+ * AABBs overlap are reported, so that the exact (narrow-phase) test
+ * {@link GameObject#collisionDetection(GameObject)} runs on candidates only. The AABB of an object
+ * encloses all of its colliders, see {@link Collider#getExtentX()}.
+ * 
+ * <p>
+ * The grid is meant to be rebuilt every time step: call {@link #clear()}, insert the current
+ * objects and run the queries. Objects outside of the playing field are put into the border cells.
+ * </p>
+ * 
+ * <pre>
+ * grid.clear();
+ * grid.insertAll(shots, true);
+ * grid.findPairs(enemies, (enemy, shot) -&gt; {
+ *   if (enemy.collisionDetection(shot)) {
+ *     ...
+ *   }
+ * });
+ * </pre>
+ */
+public class SpatialHash {
+
+  /** receives candidate pairs found by {@link SpatialHash#findPairs(Collection, PairHandler)} */
+  public interface PairHandler {
+    /**
+     * @param a object of the queried group
+     * @param b inserted object whose AABB overlaps the one of a
+     */
+    void onPair(GameObject a, GameObject b);
+  }
+
+  private final double cellSize;
+  private final int cellsX;
+  private final int cellsY;
+
+  /** first entry of every cell, -1 if empty */
+  private final int[] cellHead;
+  /** singly linked lists of entries per cell: next entry and the item it refers to */
+  private int[] entryNext = new int[64];
+  private int[] entryItem = new int[64];
+  private int entries = 0;
+
+  private final ArrayList<GameObject> items = new ArrayList<GameObject>();
+  /** minX, minY, maxX, maxY of every item */
+  private double[] itemBounds = new double[4 * 64];
+  /** query stamp per item, avoids reporting items twice that span several cells */
+  private int[] visited = new int[64];
+  private int stamp = 0;
+
+  private final double[] queryBounds = new double[4];
+  private int candidates = 0;
+
+  /**
+   * @param width width of the playing field in pixels (&gt; 0)
+   * @param height height of the playing field in pixels (&gt; 0)
+   * @param cellSize edge length of a grid cell in pixels (&gt; 0), should be about the size of
+   *        the larger objects
+   */
+  public SpatialHash(double width, double height, double cellSize) {
+    this.cellSize = cellSize;
+    this.cellsX = Math.max(1, (int) Math.ceil(width / cellSize));
+    this.cellsY = Math.max(1, (int) Math.ceil(height / cellSize));
+    this.cellHead = new int[cellsX * cellsY];
+    clear();
+  }
+
+  /** removes all inserted objects */
+  public void clear() {
+    Arrays.fill(cellHead, -1);
+    items.clear();
+    entries = 0;
+  }
+
+  /** @return number of inserted objects */
+  public int size() {
+    return items.size();
+  }
+
+  /**
+   * @return number of candidate pairs reported by the last call of
+   *         {@link #findPairs(Collection, PairHandler)}
+   */
+  public int getCandidateCount() {
+    return candidates;
+  }
+
+  /**
+   * computes the AABB enclosing all colliders of an object.
+   * 
+   * @param o the object
+   * @param out array receiving minX, minY, maxX, maxY
+   * @return false if the object has no colliders (out is unchanged then)
+   */
+  public static boolean computeBounds(GameObject o, double[] out) {
+    if (o.scol == null || o.scol.isEmpty()) {
+      return false;
+    }
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (Collider c : o.scol) {
+      double x = c.getX(), y = c.getY(), ex = c.getExtentX(), ey = c.getExtentY();
+      minX = Math.min(minX, x - ex);
+      minY = Math.min(minY, y - ey);
+      maxX = Math.max(maxX, x + ex);
+      maxY = Math.max(maxY, y + ey);
+    }
+    out[0] = minX;
+    out[1] = minY;
+    out[2] = maxX;
+    out[3] = maxY;
+    return true;
+  }
+
+  private int cellX(double x) {
+    int c = (int) Math.floor(x / cellSize);
+    return c < 0 ? 0 : (c >= cellsX ? cellsX - 1 : c);
+  }
+
+  private int cellY(double y) {
+    int c = (int) Math.floor(y / cellSize);
+    return c < 0 ? 0 : (c >= cellsY ? cellsY - 1 : c);
+  }
+
+  /**
+   * inserts an object into all cells overlapped by its AABB. Objects without colliders are
+   * ignored.
+   * 
+   * @param o object to insert
+   */
+  public void insert(GameObject o) {
+    int item = items.size();
+    if (itemBounds.length < 4 * (item + 1)) {
+      itemBounds = Arrays.copyOf(itemBounds, itemBounds.length * 2);
+      visited = Arrays.copyOf(visited, visited.length * 2);
+    }
+    if (!computeBounds(o, queryBounds)) {
+      return;
+    }
+    items.add(o);
+    System.arraycopy(queryBounds, 0, itemBounds, 4 * item, 4);
+    visited[item] = 0;
+
+    int x0 = cellX(queryBounds[0]), y0 = cellY(queryBounds[1]);
+    int x1 = cellX(queryBounds[2]), y1 = cellY(queryBounds[3]);
+    for (int cy = y0; cy <= y1; cy++) {
+      for (int cx = x0; cx <= x1; cx++) {
+        if (entries == entryNext.length) {
+          entryNext = Arrays.copyOf(entryNext, entries * 2);
+          entryItem = Arrays.copyOf(entryItem, entries * 2);
+        }
+        int cell = cy * cellsX + cx;
+        entryItem[entries] = item;
+        entryNext[entries] = cellHead[cell];
+        cellHead[cell] = entries;
+        entries++;
+      }
+    }
+  }
+
+  /**
+   * inserts all objects of a collection, see {@link #insert(GameObject)}.
+   * 
+   * @param objects objects to insert
+   * @param filterInactive if true, inactive objects are skipped
+   */
+  public void insertAll(Collection<GameObject> objects, boolean filterInactive) {
+    for (GameObject o : objects) {
+      if (filterInactive == false || o.isActive()) {
+        insert(o);
+      }
+    }
+  }
+
+  /**
+   * reports all inserted objects whose AABB overlaps the AABB of the given object (touching
+   * counts as overlap). The object itself is never reported.
+   * 
+   * @param a object to query with
+   * @param handler called once for every candidate
+   * @return number of candidates reported
+   */
+  public int query(GameObject a, PairHandler handler) {
+    if (items.isEmpty() || !computeBounds(a, queryBounds)) {
+      return 0;
+    }
+    double minX = queryBounds[0], minY = queryBounds[1];
+    double maxX = queryBounds[2], maxY = queryBounds[3];
+    int found = 0;
+    if (++stamp == 0) { // wrapped around: reset stamps
+      Arrays.fill(visited, 0);
+      stamp = 1;
+    }
+
+    int x0 = cellX(minX), y0 = cellY(minY), x1 = cellX(maxX), y1 = cellY(maxY);
+    for (int cy = y0; cy <= y1; cy++) {
+      for (int cx = x0; cx <= x1; cx++) {
+        for (int e = cellHead[cy * cellsX + cx]; e != -1; e = entryNext[e]) {
+          int item = entryItem[e];
+          if (visited[item] == stamp) {
+            continue;
+          }
+          visited[item] = stamp;
+          int b = 4 * item;
+          if (itemBounds[b] > maxX || itemBounds[b + 2] < minX || itemBounds[b + 1] > maxY
+              || itemBounds[b + 3] < minY) {
+            continue;
+          }
+          GameObject o = items.get(item);
+          if (o != a) {
+            found++;
+            handler.onPair(a, o);
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * reports all pairs between the given group and the inserted objects whose AABBs overlap.
+   * 
+   * @param groupA objects to query with, inactive ones are skipped
+   * @param handler called once for every candidate pair
+   */
+  public void findPairs(Collection<GameObject> groupA, PairHandler handler) {
+    candidates = 0;
+    for (GameObject a : groupA) {
+      if (a.isActive()) {
+        candidates += query(a, handler);
+      }
+    }
+  }
+
+}
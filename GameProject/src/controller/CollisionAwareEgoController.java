@@ -9,15 +9,27 @@ import java.io.File;
 
 /**
  * An EgoController which cannot move through obstacle objects (is collission aware). Only respects
- * GameObjects that have the String 'obstacle' in their name.
+ * GameObjects that are tagged with {@link #TAG_OBSTACLE} (see {@link GameObject#addTag(String)}).
  *
  */
 public class CollisionAwareEgoController extends EgoController {
 
+  /** tag of objects the ego object cannot move through */
+  public static final String TAG_OBSTACLE = "obstacle";
+
   double savex, savey, savevx, savevy;
   double lastSpaceAt = -1;
   private File shot = null;
 
+  static {
+    Snapshot.registerController(CollisionAwareEgoController.class, (c, out) -> c.writeState(out),
+        in -> {
+          CollisionAwareEgoController c = new CollisionAwareEgoController(0);
+          c.readState(in);
+          return c;
+        });
+  }
+
 
   /**
    * 
@@ -37,6 +49,23 @@ public class CollisionAwareEgoController extends EgoController {
     this.shot = soundOnShot;
   }
 
+  @Override
+  protected void writeState(StateBuffer out) {
+    super.writeState(out);
+    out.putDouble(lastSpaceAt);
+    out.putString(shot == null ? "" : shot.getPath());
+  }
+
+
+  @Override
+  protected void readState(StateBuffer in) {
+    super.readState(in);
+    lastSpaceAt = in.getDouble();
+    String path = in.getString();
+    shot = path.isEmpty() ? null : new File(path);
+  }
+
+
   public void saveDynamicState() {
     this.savex = this.getX();
     this.savey = this.getY();
@@ -58,7 +87,7 @@ public class CollisionAwareEgoController extends EgoController {
 
     Playground pg = this.getPlayground();
 
-    LinkedList<GameObject> obstacles = pg.collectObjects("obstacle", false);
+    Collection<GameObject> obstacles = pg.getObjectsByTag(TAG_OBSTACLE);
 
     this.saveDynamicState();
     this.applySpeedVector();
@@ -73,7 +102,7 @@ public class CollisionAwareEgoController extends EgoController {
     return s;
   }
 
-  public void onSpace(KeyEvent e, GameObject ego) {
+  public void onSpace(KeyInput e, GameObject ego) {
     double cgt = ego.getGameTime();
     if ((cgt - this.lastSpaceAt) > 0.1) {
       super.onSpace(e, ego);
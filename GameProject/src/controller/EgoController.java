@@ -4,7 +4,6 @@ import java.awt.Color;
 import java.awt.event.KeyEvent;
 import playground.*;
 import gameobjects.*;
-import java.util.*;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -20,8 +19,18 @@ public class EgoController extends ObjectController {
 
   private Integer pressedKey = null;
   private Integer lastPressedKey = null;
+  /** level flag: number of shots fired so far, used to name them */
+  private static final Flag NEXT_SHOT = Flag.of("nextShot");
   private static Logger logger = LogManager.getLogger(EgoController.class);
 
+  static {
+    Snapshot.registerController(EgoController.class, (c, out) -> c.writeState(out), in -> {
+      EgoController c = new EgoController(0);
+      c.readState(in);
+      return c;
+    });
+  }
+
 
   /**
    *  constructor that gives the ego controller a radius to stop the ego object when it reaches the level boundaries.
@@ -42,27 +51,56 @@ public class EgoController extends ObjectController {
   }
 
 
-  public void onUp(KeyEvent kc, GameObject ego) {
+  /**
+   * saves the size and the pressed keys of this controller, see {@link Snapshot}. Subclasses with
+   * more state extend it and {@link #readState(StateBuffer)}.
+   * 
+   * @param out buffer to write to
+   */
+  protected void writeState(StateBuffer out) {
+    out.putDouble(rad);
+    out.putDouble(width);
+    out.putDouble(height);
+    out.putVarInt(pressedKey == null ? 0 : pressedKey + 1);
+    out.putVarInt(lastPressedKey == null ? 0 : lastPressedKey + 1);
+  }
+
+  /**
+   * restores the state saved by {@link #writeState(StateBuffer)}.
+   * 
+   * @param in buffer to read from
+   */
+  protected void readState(StateBuffer in) {
+    rad = in.getDouble();
+    width = in.getDouble();
+    height = in.getDouble();
+    int key = in.getVarInt();
+    pressedKey = key == 0 ? null : key - 1;
+    key = in.getVarInt();
+    lastPressedKey = key == 0 ? null : key - 1;
+  }
+
+  public void onUp(KeyInput kc, GameObject ego) {
     ego.setVX(0.0);
     ego.setVY(-SpaceInvadersLevel.EGOSPEED);
   }
 
-  public void onDown(KeyEvent kc, GameObject ego) {
+  public void onDown(KeyInput kc, GameObject ego) {
     ego.setVX(0.0);
     ego.setVY(SpaceInvadersLevel.EGOSPEED);
   }
 
-  public void onLeft(KeyEvent kc, GameObject ego) {
+  public void onLeft(KeyInput kc, GameObject ego) {
     ego.setVY(0.0);
     ego.setVX(-SpaceInvadersLevel.EGOSPEED);
   }
 
-  public void onRight(KeyEvent kc, GameObject ego) {
+  public void onRight(KeyInput kc, GameObject ego) {
     ego.setVY(0.0);
     ego.setVX(SpaceInvadersLevel.EGOSPEED);
   }
 
-  public void onStop(KeyEvent kc, GameObject ego) {
+  public void onStop(KeyInput kc, GameObject ego) {
     ego.setVY(0.0);
     ego.setVX(0.0);
     ego.setComponentProperty("controller", "setDummy", "NEW");
@@ -95,25 +133,32 @@ public class EgoController extends ObjectController {
 
   /** behavior for shooting on key space
    * 
-   * @param e KeyEvent of the space key
+   * @param e key input, positioned at the event of the space key
    * @param ego EgoObject instance (used to determine position of shot object's start)
    */
-  public void onSpace(KeyEvent e, GameObject ego) {
+  public void onSpace(KeyInput e, GameObject ego) {
     pressedKey = lastPressedKey;
     lastPressedKey = null;
 
     // create unique name for object
     // read Flag nextShot read (if not existing already it will be set)
     // it will be updated by 1 and saved
-    Integer nextShot =
-        (Integer) this.getPlayground().getOrCreateLevelFlag("nextShot", Integer.valueOf(0));
-    String shotName = "simpleShot" + nextShot++;
-    this.getPlayground().setLevelFlag("nextShot", nextShot);
-
-    SimpleShotController simpleshot = new SimpleShotController();
-    GameObject ss = new RectObject(shotName, this.getPlayground(), ego.getX(), ego.getY(), 0,
-        -1. * SpaceInvadersLevel.SHOTSPEED, 4, 12, Color.CYAN).addController(simpleshot);
-    ss.generateColliders();
+    int nextShot = this.getPlayground().getLevelFlags().addInt(NEXT_SHOT, 1) - 1;
+    String shotName = "simpleShot" + nextShot;
+
+    // reuse a deleted shot if possible
+    ObjectPool<GameObject> pool = this.getPlayground().getObjectPool(SpaceInvadersLevel.TAG_SHOT);
+    GameObject ss = pool.acquire();
+    if (ss == null) {
+      SimpleShotController simpleshot = new SimpleShotController();
+      ss = new RectObject(shotName, this.getPlayground(), ego.getX(), ego.getY(), 0,
+          -1. * SpaceInvadersLevel.SHOTSPEED, 4, 12, Color.CYAN).addController(simpleshot)
+              .addTag(SpaceInvadersLevel.TAG_SHOT);
+      ss.generateColliders();
+      pool.register(ss);
+    } else {
+      ss.recycle(shotName, ego.getX(), ego.getY(), 0, -1. * SpaceInvadersLevel.SHOTSPEED);
+    }
     this.getPlayground().addObject(ss);
   }
 
@@ -123,22 +168,16 @@ public class EgoController extends ObjectController {
    */
   public void updateObject() {
 
-    logger.trace("Playground inst is"+this.getPlayground()) ;
-    Stack<KeyEvent> keyEvents = this.getPlayground().getKeyEvents();
+    KeyInput e = this.getPlayground().getKeyInput();
 
     GameObject ego = this.gameObject;
 
-    while (!keyEvents.isEmpty()) {
+    // events in the order they occurred
+    while (e.next()) {
 
-      KeyEvent e = keyEvents.pop();
-      boolean pressed = false;
-      boolean released = true;
       int kc = e.getKeyCode();
-
-      if (e.paramString().indexOf("PRESSED") >= 0) {
-        pressed = true;
-        released = false;
-      }
+      boolean pressed = e.isPressed();
+      boolean released = !pressed;
 
       /**
        * Generelle Idee: Wenn eine Taste gedrückt wird wird sie gespeichert. wenn die zuvor
@@ -3,23 +3,36 @@ package controller;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
+import playground.Flag;
+import playground.Playground;
+import playground.Snapshot;
+import playground.Trace;
 
 /**
  * This class controls the space invaders.
  */
 public class EnemyController extends ObjectController {
 
+  private static final Flag POINTS = Flag.of("points");
   private static Logger logger = LogManager.getLogger(EnemyController.class);
 
+  static {
+    Snapshot.registerController(EnemyController.class, (c, out) -> {
+    }, in -> new EnemyController());
+  }
+
   @Override
   public void updateObject() {
-    logger.trace("updatre" + gameObject.getId());
     if ((gameObject.getX() > this.getPlayground().getSizeX() * 0.9) && (gameObject.getVX() > 0)) {
-      logger.trace("toleft!" + gameObject.getX());
+      if (Trace.ENABLED) {
+        logger.trace("{} turns left at {}", gameObject.getId(), gameObject.getX());
+      }
       gameObject.setVX(-this.getVX());
     }
     if ((gameObject.getX() < this.getPlayground().getSizeX() * 0.1) && (gameObject.getVX() < 0)) {
-      logger.trace("toright!" + gameObject.getX());
+      if (Trace.ENABLED) {
+        logger.trace("{} turns right at {}", gameObject.getId(), gameObject.getX());
+      }
       gameObject.setVX(-this.getVX());
     }
 
@@ -27,10 +40,16 @@ public class EnemyController extends ObjectController {
     if (gameObject.getY() >= this.getPlayground().getSizeY()) {
       this.getPlayground().deleteObject(gameObject.getId());
       // add to points counter
-      Integer pts = (Integer) this.getPlayground().getGlobalFlag("points");
-      this.getPlayground().setGlobalFlag("points", pts - 200);
+      Playground.getGlobalFlags().addInt(POINTS, -200);
     }
 
     applySpeedVector();
   }
+
+
+  /** only moves by its speed, see {@link ObjectController#movesInBulk()} */
+  @Override
+  public boolean movesInBulk() {
+    return true;
+  }
 }
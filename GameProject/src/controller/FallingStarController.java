@@ -2,6 +2,8 @@ package controller;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
+import playground.Snapshot;
+import playground.Trace;
 
 
 /**
@@ -11,14 +13,34 @@ public class FallingStarController extends ObjectController {
   int rad = 3;
   private static Logger logger = LogManager.getLogger(FallingStarController.class);
 
+  static {
+    Snapshot.registerController(FallingStarController.class, (c, out) -> {
+    }, in -> new FallingStarController());
+  }
+
 
   @Override
   public void updateObject() {
-    logger.trace(
-        "+" + this.gameObject.getId() + " HO " + this.gameObject + "/" + this.getPlayground());
+    if (Trace.ENABLED) {
+      logger.trace("+{} HO {}/{}", this.gameObject.getId(), this.gameObject, this.getPlayground());
+    }
     if (this.getY() + rad >= this.getPlayground().getSizeY()) {
       this.setY(10);
     }
     applySpeedVector();
   }
+
+
+  /** only moves by its speed, see {@link ObjectController#movesInBulk()} */
+  @Override
+  public boolean movesInBulk() {
+    return true;
+  }
+
+
+  /** only changes its own object, see {@link ObjectController#isParallelSafe()} */
+  @Override
+  public boolean isParallelSafe() {
+    return true;
+  }
 }
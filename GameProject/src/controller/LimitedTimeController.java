@@ -1,5 +1,7 @@
 package controller;
 
+import playground.Snapshot;
+
 /**
  * Controls and abject that is deleted after a lifetime specified in the constructor, and when it
  * leaves the display.
@@ -9,6 +11,13 @@ public class LimitedTimeController extends ObjectController {
   double g0 = -1;
   double duration = 0;
 
+  static {
+    Snapshot.registerController(LimitedTimeController.class, (c, out) -> {
+      out.putDouble(c.g0);
+      out.putDouble(c.duration);
+    }, in -> new LimitedTimeController(in.getDouble(), in.getDouble()));
+  }
+
   /**
    * Constructor.
    * 
@@ -20,6 +29,12 @@ public class LimitedTimeController extends ObjectController {
     this.duration = duration;
   }
 
+  /** restarts the lifetime at the current game time */
+  @Override
+  public void onRecycle() {
+    this.g0 = this.getPlayground().getGameTime();
+  }
+
   @Override
   public void updateObject() {
     double gameTime = this.getPlayground().getGameTime();
@@ -33,4 +48,10 @@ public class LimitedTimeController extends ObjectController {
     }
   }
 
+
+  /** only changes its own object, see {@link ObjectController#isParallelSafe()} */
+  @Override
+  public boolean isParallelSafe() {
+    return true;
+  }
 }
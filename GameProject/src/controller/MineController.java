@@ -5,6 +5,7 @@ import gameobjects.GameObject;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
+import playground.Snapshot;
 
 public class MineController extends ObjectController {
   int rad = 3;
@@ -13,6 +14,17 @@ public class MineController extends ObjectController {
   double lineSpeed = 0;
   private static Logger logger = LogManager.getLogger(MineController.class);
 
+  static {
+    Snapshot.registerController(MineController.class, (c, out) -> {
+      out.putDouble(c.lineSpeed);
+      out.putDouble(c.xSpeed);
+    }, in -> {
+      MineController c = new MineController(in.getDouble());
+      c.xSpeed = in.getDouble();
+      return c;
+    });
+  }
+
 
   public MineController(double lineSpeed) {
     this.lineSpeed = lineSpeed;
@@ -38,7 +50,7 @@ public class MineController extends ObjectController {
 
     }
     if (this.gameObject.getX() < 0 || (this.gameObject.getX() > this.getPlayground().getSizeX())) {
-      logger.debug("deleting" + this.gameObject.getId());
+      logger.debug("deleting {}", this.gameObject.getId());
       getPlayground().deleteObject(this.gameObject.getId());
     }
 
@@ -49,11 +49,50 @@ public abstract class ObjectController {
    */
   public abstract void updateObject();
 
+  /**
+   * Is called when the controlled object is reused from a {@link gameobjects.ObjectPool}, after its
+   * id, position and speed were reset. Controllers with internal state (e.g. a start time) reset it
+   * here. This implementation does nothing.
+   */
+  public void onRecycle() {
+  }
+
+  /**
+   * declares that this controller moves its object only by calling {@link #applySpeedVector()} at
+   * the end of {@link #updateObject()}, so that objects in an {@link gameobjects.EntityStore} can
+   * be moved in one pass for all objects after all controllers have been called.
+   * {@link #applySpeedVector()} then does nothing. Controllers that use the new position in the
+   * same update (e.g. for collisions), and controllers of objects whose position other controllers
+   * read, must not return true. This implementation returns false.
+   * 
+   * @return true if the object may be moved in bulk
+   */
+  public boolean movesInBulk() {
+    return false;
+  }
+
+  /**
+   * declares that {@link #updateObject()} may run in parallel to the updates of other objects (see
+   * {@link Playground#setUpdatePool(java.util.concurrent.ForkJoinPool)}). This is the
+   * case if it only reads and writes its own object and the controller, reads properties of the
+   * level like time and size, and adds or deletes objects with
+   * {@link Playground#addObject(GameObject)} and {@link Playground#deleteObject(String)}. Flags,
+   * other objects and the level must not be modified. This implementation returns false.
+   * 
+   * @return true if the controller is parallel-safe
+   */
+  public boolean isParallelSafe() {
+    return false;
+  }
+
   /**
    * Convenience method: simply moves the object forward one step from its present position, using
    * its present speed.
    */
   public void applySpeedVector() {
+    if (this.gameObject.isMovedInBulk()) {
+      return; // moved by EntityStore.step() after all updates
+    }
     double ts = this.getPlayground().getTimestep();
     this.setX(this.getX() + this.getVX() * ts);
     gameObject.setY(this.getY() + this.getVY() * ts);
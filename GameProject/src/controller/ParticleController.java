@@ -0,0 +1,30 @@
+package controller;
+
+import gameobjects.ParticleSystem;
+import playground.Snapshot;
+
+/**
+ * Moves all particles of a {@link ParticleSystem} once per game time step and removes the dead
+ * ones.
+ */
+public class ParticleController extends ObjectController {
+
+  static {
+    Snapshot.registerController(ParticleController.class, (c, out) -> {
+    }, in -> new ParticleController());
+  }
+
+  @Override
+  public void updateObject() {
+    ParticleSystem particles = (ParticleSystem) this.gameObject;
+    particles.updateParticles(this.getTimestep(), this.getPlayground().getGameTime(),
+        this.getPlayground().getSizeX(), this.getPlayground().getSizeY());
+  }
+
+
+  /** only changes its own object, see {@link ObjectController#isParallelSafe()} */
+  @Override
+  public boolean isParallelSafe() {
+    return true;
+  }
+}
@@ -1,8 +1,15 @@
 package controller;
 
+import playground.Snapshot;
+
 public class SimpleShotController extends ObjectController {
   int rad = 3;
 
+  static {
+    Snapshot.registerController(SimpleShotController.class, (c, out) -> {
+    }, in -> new SimpleShotController());
+  }
+
   @Override
   public void updateObject() {
     if (gameObject.getY() < 0) {
@@ -13,4 +20,18 @@ public class SimpleShotController extends ObjectController {
       applySpeedVector();
     }
   }
+
+
+  /** only moves by its speed, see {@link ObjectController#movesInBulk()} */
+  @Override
+  public boolean movesInBulk() {
+    return true;
+  }
+
+
+  /** only changes its own object, see {@link ObjectController#isParallelSafe()} */
+  @Override
+  public boolean isParallelSafe() {
+    return true;
+  }
 }
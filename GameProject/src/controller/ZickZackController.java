@@ -2,6 +2,8 @@ package controller;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
+import playground.Snapshot;
+import playground.Trace;
 
 public class ZickZackController extends EnemyController {
   protected double g0;
@@ -9,6 +11,18 @@ public class ZickZackController extends EnemyController {
   protected double lastMod = -1;
 
   private static Logger logger = LogManager.getLogger(ZickZackController.class);
+
+  static {
+    Snapshot.registerController(ZickZackController.class, (c, out) -> {
+      out.putDouble(c.g0);
+      out.putDouble(c.dt);
+      out.putDouble(c.lastMod);
+    }, in -> {
+      ZickZackController c = new ZickZackController(in.getDouble(), in.getDouble());
+      c.lastMod = in.getDouble();
+      return c;
+    });
+  }
   
   public ZickZackController(double gameTime, double dt) {
     super();
@@ -18,11 +32,12 @@ public class ZickZackController extends EnemyController {
 
   public void updateObject() {
     double gameTime = this.getPlayground().getGameTime();
-    logger.trace("current Object x: "+gameObject.getX());
     double mod = (gameTime - this.g0) % this.dt;
     if (mod < lastMod) {
       gameObject.setVX(-1.0 * gameObject.getVX());
-      logger.trace("inverting VX");
+      if (Trace.ENABLED) {
+        logger.trace("{} inverts VX at x={}", gameObject.getId(), gameObject.getX());
+      }
     }
     lastMod = mod;
 
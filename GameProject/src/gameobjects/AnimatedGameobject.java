@@ -3,6 +3,8 @@ package gameobjects;
 import java.util.LinkedList;
 import playground.Playground;
 import playground.Animation;
+import playground.AssetCache;
+import playground.Snapshot;
 import collider.Collider;
 import collider.RectCollider;
 import rendering.*;
@@ -15,22 +17,40 @@ public class AnimatedGameobject extends GameObject {
   protected AnimationArtist animArtist;
   private static Logger logger = LogManager.getLogger(AnimationArtist.class);
 
+  static {
+    Snapshot.registerObject(AnimatedGameobject.class, (o, out) -> {
+      out.putString(o.animArtist.getAnimation().getPath());
+      out.putDouble(o.animArtist.getScale());
+      out.putByte(o.animArtist.getPlaymode().ordinal());
+      out.putVarInt(o.animArtist.getFrame());
+      out.putDouble(o.animArtist.getT0());
+    }, (in, id, pg) -> {
+      Animation anim = AssetCache.getInstance().getAnimation(in.getString());
+      double scale = in.getDouble();
+      Animation.PlayMode mode = Animation.PlayMode.values()[in.getByte()];
+      AnimatedGameobject o = new AnimatedGameobject(id, pg, 0, 0, 0, 0, scale, anim, 0, mode);
+      int frame = in.getVarInt();
+      o.animArtist.setFrame(frame, in.getDouble());
+      return o;
+    });
+  }
+
 
   // auto-generates collider according to box width/height
   public GameObject generateColliders() {
-    logger.debug("Created animated Obj "+ this.animArtist.getW()+" "+this.animArtist.getH()) ;
+    logger.debug("Created animated Obj {} {}", this.animArtist.getW(), this.animArtist.getH());
     double w = this.animArtist.getW() ;
     double h = this.animArtist.getH() ;
     this.addCollider(new RectCollider("RectColl_" + this.id, this, w,
         h)) ;
         
-    logger.info("ANIMGO-COLL ID="+this.getId()+" WH= "+w+"/"+h) ;
+    logger.info("ANIMGO-COLL ID={} WH= {}/{}", this.getId(), w, h);
     return this ;
   }
 
 
   public AnimatedGameobject(String id, Playground pg, double x, double y, double vx, double vy,
-      double scale, Animation anim, double t0, String abspielmodus) {
+      double scale, Animation anim, double t0, Animation.PlayMode abspielmodus) {
     super(id, pg, x, y, vx, vy); // Konstruktor-Aufruf GameObject
 
     this.artist = new AnimationArtist(this, anim, t0, abspielmodus, scale);
@@ -39,4 +59,24 @@ public class AnimatedGameobject extends GameObject {
   }
 
 
+  /**
+   * @param abspielmodus "loop", "forward" or "backward", see {@link Animation.PlayMode#of(String)}
+   */
+  public AnimatedGameobject(String id, Playground pg, double x, double y, double vx, double vy,
+      double scale, Animation anim, double t0, String abspielmodus) {
+    this(id, pg, x, y, vx, vy, scale, anim, t0, Animation.PlayMode.of(abspielmodus));
+  }
+
+
+  /**
+   * updates the object by its controller, then selects the frame to show. Selecting the frame only
+   * changes this object, so {@link #isParallelSafe()} still depends on the controller alone.
+   */
+  @Override
+  public void updateObject() {
+    super.updateObject();
+    this.animArtist.update(this.getGameTime());
+  }
+
+
 }
@@ -12,12 +12,18 @@ import javax.imageio.ImageIO;
 import collider.Collider;
 import controller.ObjectController;
 import playground.Playground;
+import playground.Snapshot;
 import rendering.*;
 
 public class EgoObject extends GameObject {
 
   double egoRad = 0;
 
+  static {
+    Snapshot.registerObject(EgoObject.class, (o, out) -> out.putDouble(o.egoRad),
+        (in, id, pg) -> new EgoObject(id, pg, 0, 0, 0, 0, in.getDouble()));
+  }
+
   public EgoObject(String id, Playground pg, double x, double y, double vx, double vy,
       double egoRad) {
     super(id, pg, x, y, vx, vy);
@@ -0,0 +1,137 @@
+package gameobjects;
+
+import java.util.Arrays;
+import playground.Playground;
+
+/**
+ * Optional structure-of-arrays storage for position, previous position, speed and active flag of
+ * all {@link GameObject}s in a level. While an object is in a level that uses a store (see
+ * {@link Playground#setEntityStore(EntityStore)}) it owns one slot, and its getters and setters
+ * read and write the arrays of that slot instead of its own fields. The slot is taken when the
+ * object is added to the level and given back when it is deleted.
+ * 
+ * <p>
+ * Objects whose controller declares {@link controller.ObjectController#movesInBulk()} are moved by
+ * {@link #step(double)} in one pass over the arrays at the end of
+ * {@link Playground#updateObjects()}, after all controllers have checked and changed them; their
+ * {@link controller.ObjectController#applySpeedVector()} then does nothing. The result is the same
+ * as moving each object at the end of its own update, and with tens of thousands of simple moving
+ * objects this is much faster.
+ * </p>
+ */
+public class EntityStore {
+
+  double[] x;
+  double[] y;
+  double[] vx;
+  double[] vy;
+  double[] prevX;
+  double[] prevY;
+  boolean[] active;
+  /** true for slots moved by {@link #step(double)} */
+  boolean[] bulk;
+
+  /** stack of free slots below {@link #highWater} */
+  private int[] freeSlots;
+  private int freeCount = 0;
+  /** slots at and above this index have never been used */
+  private int highWater = 0;
+
+  /**
+   * @param capacity number of objects to reserve memory for (grows if needed)
+   */
+  public EntityStore(int capacity) {
+    capacity = Math.max(capacity, 16);
+    x = new double[capacity];
+    y = new double[capacity];
+    vx = new double[capacity];
+    vy = new double[capacity];
+    prevX = new double[capacity];
+    prevY = new double[capacity];
+    active = new boolean[capacity];
+    bulk = new boolean[capacity];
+    freeSlots = new int[capacity];
+  }
+
+
+  private void grow() {
+    int capacity = 2 * x.length;
+    x = Arrays.copyOf(x, capacity);
+    y = Arrays.copyOf(y, capacity);
+    vx = Arrays.copyOf(vx, capacity);
+    vy = Arrays.copyOf(vy, capacity);
+    prevX = Arrays.copyOf(prevX, capacity);
+    prevY = Arrays.copyOf(prevY, capacity);
+    active = Arrays.copyOf(active, capacity);
+    bulk = Arrays.copyOf(bulk, capacity);
+    freeSlots = Arrays.copyOf(freeSlots, capacity);
+  }
+
+
+  /** takes a free slot, called by {@link GameObject#attachTo(EntityStore)} */
+  int allocate() {
+    if (freeCount > 0) {
+      return freeSlots[--freeCount];
+    }
+    if (highWater == x.length) {
+      grow();
+    }
+    return highWater++;
+  }
+
+
+  /** gives a slot back, called by {@link GameObject#detach()} */
+  void release(int slot) {
+    active[slot] = false;
+    bulk[slot] = false;
+    freeSlots[freeCount++] = slot;
+  }
+
+
+  /**
+   * remembers the current position of every slot as previous position (see
+   * {@link GameObject#storePreviousPosition()}). Called by {@link Playground#updateObjects()}
+   * before the objects are updated.
+   */
+  public void storePreviousPositions() {
+    System.arraycopy(x, 0, prevX, 0, highWater);
+    System.arraycopy(y, 0, prevY, 0, highWater);
+  }
+
+
+  /**
+   * moves all active objects of bulk slots by their speed. Called by
+   * {@link Playground#updateObjects()} after the objects have been updated, so the controllers see
+   * and change position and speed before the move, like in their own
+   * {@link controller.ObjectController#applySpeedVector()}.
+   * 
+   * @param timeStep duration of the simulation step in seconds
+   */
+  public void step(double timeStep) {
+    double[] x = this.x, y = this.y, vx = this.vx, vy = this.vy;
+    boolean[] active = this.active, bulk = this.bulk;
+    for (int i = 0; i < highWater; i++) {
+      if (bulk[i] && active[i]) {
+        x[i] += vx[i] * timeStep;
+        y[i] += vy[i] * timeStep;
+      }
+    }
+  }
+
+
+  /**
+   * @return number of slots in use
+   */
+  public int getLiveCount() {
+    return highWater - freeCount;
+  }
+
+
+  /**
+   * @return number of slots memory is reserved for
+   */
+  public int getCapacity() {
+    return x.length;
+  }
+
+}
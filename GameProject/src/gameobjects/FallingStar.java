@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.util.LinkedList;
 import collider.*;
 import playground.Playground;
+import playground.Snapshot;
 import rendering.*;
 
 public class FallingStar extends GameObject {
@@ -12,6 +13,13 @@ public class FallingStar extends GameObject {
 
   protected double rad = -1;
 
+  static {
+    Snapshot.registerObject(FallingStar.class, (o, out) -> {
+      out.putColor(o.color);
+      out.putDouble(o.rad);
+    }, (in, id, pg) -> new FallingStar(id, pg, 0, 0, 0, 0, in.getColor(), in.getDouble()));
+  }
+
 
   public FallingStar(String id, Playground playground, double x, double y, double vx, double vy,
       Color color, double rad) {
@@ -2,12 +2,16 @@ package gameobjects;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.lang.reflect.*;
 import rendering.*;
 import collider.Collider;
 import controller.ObjectController;
+import playground.Flag;
+import playground.FlagTable;
 import playground.Playground;
+import playground.Trace;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -43,6 +47,8 @@ public abstract class GameObject {
   protected double vx = 0;
   protected double y = 0;
   protected double vy = 0;
+  protected double prevX = 0;
+  protected double prevY = 0;
   protected BufferedImage mask = null; // UNDONE implement usage of mask
   protected boolean active = true;
   // public int collisionMode = GameObject.RADIUS;
@@ -50,6 +56,16 @@ public abstract class GameObject {
 
   private ObjectController controller = null;
   public LinkedList<Collider> scol;
+  private ArrayList<String> tags = new ArrayList<String>(1);
+  private ObjectPool<?> pool = null;
+  /**
+   * while not null, position, speed and active flag are kept in this store at {@link #slot}
+   * instead of the fields above
+   */
+  private EntityStore store = null;
+  private int slot = -1;
+  /** flags of this object, created on first use, see {@link #getObjectFlags()} */
+  private FlagTable flags = null;
 
   private static Logger logger = LogManager.getLogger(GameObject.class);
 
@@ -69,6 +85,8 @@ public abstract class GameObject {
     setY(y);
     setVX(vx);
     setVY(vy);
+    this.prevX = x;
+    this.prevY = y;
     this.id = id;
     this.controller = null;
     this.scol = new LinkedList<Collider>();
@@ -126,6 +144,7 @@ public abstract class GameObject {
     this.controller = c;
     this.controller.setObject(this);
     this.controller.setPlayground(playground);
+    updateBulkFlag();
     return this;
   }
 
@@ -152,6 +171,149 @@ public abstract class GameObject {
     this.scol.add(c);
   }
 
+  /**
+   * adds this object to a group of objects, e.g. "enemy". The {@link Playground} indexes objects by
+   * their tags when they are added, see {@link Playground#getObjectsByTag(String)}. Tags therefore
+   * have to be set before the object is added to the playground.
+   * 
+   * @param tag name of the group
+   * @return the current instance (this).
+   */
+  public GameObject addTag(String tag) {
+    if (!this.tags.contains(tag)) {
+      this.tags.add(tag);
+    }
+    return this;
+  }
+
+  /**
+   * checks for a tag set by {@link #addTag(String)}.
+   * 
+   * @param tag name of the group
+   * @return true if this object has the tag
+   */
+  public boolean hasTag(String tag) {
+    return this.tags.contains(tag);
+  }
+
+  /**
+   * @return all tags of this object (do not modify)
+   */
+  public ArrayList<String> getTags() {
+    return this.tags;
+  }
+
+  /**
+   * re-initializes an object handed out by an {@link ObjectPool} for its next use: sets a new id,
+   * position and speed, activates it and notifies its controller (see
+   * {@link ObjectController#onRecycle()}). Tags, artist and colliders are kept.
+   * 
+   * @param id new unique ID
+   * @param x new screen position in direction horizontal
+   * @param y new screen position in direction vertical
+   * @param vx new speed in direction horizontal
+   * @param vy new speed in direction vertical
+   * @return the current instance (this).
+   */
+  public GameObject recycle(String id, double x, double y, double vx, double vy) {
+    this.id = id;
+    this.flags = null;
+    setActive(true);
+    setX(x);
+    setY(y);
+    setVX(vx);
+    setVY(vy);
+    storePreviousPosition();
+    if (this.controller != null) {
+      this.controller.onRecycle();
+    }
+    return this;
+  }
+
+  /**
+   * @return the pool this object is given back to when deleted, or null
+   */
+  public ObjectPool<?> getPool() {
+    return this.pool;
+  }
+
+  /**
+   * sets the pool this object is given back to when deleted, see
+   * {@link ObjectPool#register(GameObject)}.
+   * 
+   * @param pool the pool or null
+   */
+  public void setPool(ObjectPool<?> pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * moves position, speed and active flag of this object into a free slot of the given store.
+   * Called by {@link Playground#addObjectNow(GameObject)} if the level uses an
+   * {@link EntityStore}.
+   * 
+   * @param entityStore the store, not null
+   */
+  public void attachTo(EntityStore entityStore) {
+    if (this.store == entityStore) {
+      return;
+    }
+    detach();
+    int s = entityStore.allocate();
+    entityStore.x[s] = this.x;
+    entityStore.y[s] = this.y;
+    entityStore.vx[s] = this.vx;
+    entityStore.vy[s] = this.vy;
+    entityStore.prevX[s] = this.prevX;
+    entityStore.prevY[s] = this.prevY;
+    entityStore.active[s] = this.active;
+    this.store = entityStore;
+    this.slot = s;
+    updateBulkFlag();
+  }
+
+  /**
+   * copies position, speed and active flag back from the {@link EntityStore} (if any) and gives the
+   * slot free. Called when the object is deleted from the level.
+   */
+  public void detach() {
+    if (this.store == null) {
+      return;
+    }
+    EntityStore s = this.store;
+    this.x = s.x[slot];
+    this.y = s.y[slot];
+    this.vx = s.vx[slot];
+    this.vy = s.vy[slot];
+    this.prevX = s.prevX[slot];
+    this.prevY = s.prevY[slot];
+    this.active = s.active[slot];
+    s.release(slot);
+    this.store = null;
+    this.slot = -1;
+  }
+
+  /**
+   * @return true if position and speed are kept in an {@link EntityStore}
+   */
+  public boolean isInEntityStore() {
+    return this.store != null;
+  }
+
+  /**
+   * @return true if this object is moved by {@link EntityStore#step(double)}, see
+   *         {@link ObjectController#movesInBulk()}
+   */
+  public boolean isMovedInBulk() {
+    return this.store != null && this.store.bulk[slot];
+  }
+
+  private void updateBulkFlag() {
+    if (this.store != null) {
+      this.store.bulk[slot] = this.controller != null && this.controller.movesInBulk();
+    }
+  }
+
   public Playground getPlayground() {
     return playground;
   }
@@ -174,7 +336,7 @@ public abstract class GameObject {
       Class<? extends Object> clO = this.controller.getClass();
       for (Method m : clO.getMethods()) {
         if (m.getName().indexOf(property) != -1) {
-          logger.debug("Method " + property + " found!!");
+          logger.debug("Method {} found!!", property);
           try {
             m.invoke(this.getObjectController(), value);
           } catch (Exception e) {
@@ -185,29 +347,61 @@ public abstract class GameObject {
     }
   }
 
+  /**
+   * returns the flags of this object, e.g. a hit counter. They are removed together with the level
+   * flags (see {@link Playground#resetFlags(int)}) and when the object is recycled.
+   * 
+   * @return the table of object flags, created on first call
+   */
+  public FlagTable getObjectFlags() {
+    if (this.flags == null) {
+      this.flags = Playground.createObjectFlags();
+    }
+    return this.flags;
+  }
+
+
+  /**
+   * @return true if this object has a table of flags, i.e. {@link #getObjectFlags()} was called
+   *         since it was created or recycled
+   */
+  public boolean hasObjectFlags() {
+    return this.flags != null;
+  }
+
+
   public void setObjectFlag(String flag, Object value) {
-    this.playground.setLevelFlag(this.id + "/" + flag, value);
+    getObjectFlags().set(Flag.of(flag), value);
   }
 
 
   public Object getObjectFlag(String flag) {
-    return this.playground.getLevelFlag(this.id + "/" + flag);
+    return getObjectFlags().get(Flag.of(flag));
   }
 
 
   public Object getOrCreateObjectFlag(String flag, Object createValue) {
-    return this.playground.getOrCreateLevelFlag(this.id + "/" + flag, createValue);
+    Object value = getObjectFlag(flag);
+    if (value == null) {
+      setObjectFlag(flag, createValue);
+      return createValue;
+    }
+    return value;
   }
 
 
 
   public boolean isActive() {
-    return active;
+    return store == null ? active : store.active[slot];
   }
 
 
   public GameObject setActive(boolean flag) {
-    this.active = flag;
+    if (store == null) {
+      this.active = flag;
+    } else {
+      store.active[slot] = flag;
+    }
     return this;
   }
 
@@ -226,7 +420,7 @@ public abstract class GameObject {
    * @return screen x position
    */
   public double getX() {
-    return x;
+    return store == null ? x : store.x[slot];
   }
 
   /**
@@ -235,7 +429,43 @@ public abstract class GameObject {
    * @return screen Y position
    */
   public double getY() {
-    return y;
+    return store == null ? y : store.y[slot];
+  }
+
+  /**
+   * remembers the current position as position of the previous simulation step. Called by
+   * {@link Playground#updateObjects()} before the object is updated.
+   */
+  public void storePreviousPosition() {
+    if (store == null) {
+      this.prevX = this.x;
+      this.prevY = this.y;
+    } else {
+      store.prevX[slot] = store.x[slot];
+      store.prevY[slot] = store.y[slot];
+    }
+  }
+
+  /**
+   * gets the screen X position to draw at, interpolated between the previous and the current
+   * simulation step by {@link Playground#getRenderAlpha()}.
+   * 
+   * @return interpolated screen x position
+   */
+  public double getRenderX() {
+    double px = store == null ? prevX : store.prevX[slot];
+    return px + (getX() - px) * this.playground.getRenderAlpha();
+  }
+
+  /**
+   * gets the screen Y position to draw at, interpolated between the previous and the current
+   * simulation step by {@link Playground#getRenderAlpha()}.
+   * 
+   * @return interpolated screen y position
+   */
+  public double getRenderY() {
+    double py = store == null ? prevY : store.prevY[slot];
+    return py + (getY() - py) * this.playground.getRenderAlpha();
   }
 
   /**
@@ -244,7 +474,7 @@ public abstract class GameObject {
    * @return screen x speed
    */
   public double getVX() {
-    return vx;
+    return store == null ? vx : store.vx[slot];
   }
 
   /**
@@ -253,7 +483,7 @@ public abstract class GameObject {
    * @return screen y speed
    */
   public double getVY() {
-    return vy;
+    return store == null ? vy : store.vy[slot];
   }
 
   /**
@@ -262,7 +492,11 @@ public abstract class GameObject {
    * @param x new position
    */
   public void setX(double x) {
-    if (this.active == true) {
+    if (store != null) {
+      if (store.active[slot]) {
+        store.x[slot] = x;
+      }
+    } else if (this.active == true) {
       this.x = x;
     }
   }
@@ -273,7 +507,11 @@ public abstract class GameObject {
    * @param y new position
    */
   public void setY(double y) {
-    if (this.active == true) {
+    if (store != null) {
+      if (store.active[slot]) {
+        store.y[slot] = y;
+      }
+    } else if (this.active == true) {
       this.y = y;
     }
   }
@@ -284,7 +522,11 @@ public abstract class GameObject {
    * @param vx new x speed
    */
   public void setVX(double vx) {
-    if (this.active == true) {
+    if (store != null) {
+      if (store.active[slot]) {
+        store.vx[slot] = vx;
+      }
+    } else if (this.active == true) {
       this.vx = vx;
     }
   }
@@ -295,7 +537,11 @@ public abstract class GameObject {
    * @param vy new y speed.
    */
   public void setVY(double vy) {
-    if (this.active == true) {
+    if (store != null) {
+      if (store.active[slot]) {
+        store.vy[slot] = vy;
+      }
+    } else if (this.active == true) {
       this.vy = vy;
     }
   }
@@ -307,6 +553,7 @@ public abstract class GameObject {
    */
   public void setObjectController(ObjectController controller) {
     this.controller = controller;
+    updateBulkFlag();
   }
 
 
@@ -339,10 +586,11 @@ public abstract class GameObject {
       return false;
     }
     for (Collider c : this.scol) {
-      logger.trace(other.id);
       for (Collider o : other.scol) {
         if (c.collidesWith(o)) {
-          logger.trace(c.id + " " + o.id);
+          if (Trace.ENABLED) {
+            logger.trace("collision of {} and {}", c.id, o.id);
+          }
           return true;
         }
       }
@@ -351,6 +599,17 @@ public abstract class GameObject {
 
   }
 
+  /**
+   * tells whether {@link #updateObject()} may run in parallel to the updates of other objects, see
+   * {@link ObjectController#isParallelSafe()}. Subclasses that redefine {@link #updateObject()}
+   * have to redefine this method, too.
+   * 
+   * @return true if the object has a parallel-safe controller
+   */
+  public boolean isParallelSafe() {
+    return this.controller != null && this.controller.isParallelSafe();
+  }
+
   /**
    * triggers this GameObjects own controller (if set) to update the object.
    * 
@@ -0,0 +1,130 @@
+package gameobjects;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps deleted {@link GameObject} instances of one kind (e.g. shots) for reuse, so that frequently
+ * created short-lived objects do not need new objects, controllers, artists and colliders every
+ * time. Usage:
+ * 
+ * <pre>
+ * GameObject shot = pool.acquire();
+ * if (shot == null) {
+ *   shot = new RectObject(...).addController(...);  // pool empty: create as usual
+ *   pool.register(shot);
+ * } else {
+ *   shot.recycle(newId, x, y, vx, vy);              // reuse a deleted instance
+ * }
+ * playground.addObject(shot);
+ * </pre>
+ * 
+ * Registered objects are given back automatically when they are removed from the
+ * {@link playground.Playground}, see {@link playground.Playground#deleteObjectNow(String)}. The pool
+ * counts requests and hits and the maximum number of its objects in use at the same time.
+ *
+ * @param <T> type of the pooled objects
+ */
+public class ObjectPool<T extends GameObject> {
+
+  private final String name;
+  private final int maxFree;
+  private final ArrayList<T> free = new ArrayList<T>();
+
+  private long acquires = 0;
+  private long hits = 0;
+  private int inUse = 0;
+  private int highWater = 0;
+
+  /**
+   * @param name name used in {@link #toString()}
+   * @param maxFree maximum number of unused instances kept, further released ones are dropped
+   */
+  public ObjectPool(String name, int maxFree) {
+    this.name = name;
+    this.maxFree = maxFree;
+  }
+
+  /**
+   * hands out an unused instance. It still has the state it had when it was deleted and must be
+   * re-initialized with {@link GameObject#recycle(String, double, double, double, double)}.
+   * 
+   * @return an unused instance, or null if there is none (then create a new one and
+   *         {@link #register(GameObject)} it)
+   */
+  public T acquire() {
+    acquires++;
+    if (free.isEmpty()) {
+      return null;
+    }
+    hits++;
+    T o = free.remove(free.size() - 1);
+    markInUse();
+    return o;
+  }
+
+  /**
+   * makes a newly created instance part of this pool, so it is given back when deleted.
+   * 
+   * @param o new instance
+   * @return the same instance
+   */
+  public T register(T o) {
+    o.setPool(this);
+    markInUse();
+    return o;
+  }
+
+  private void markInUse() {
+    inUse++;
+    if (inUse > highWater) {
+      highWater = inUse;
+    }
+  }
+
+  /**
+   * gives back an instance that is no longer part of the level. Called by the Playground, never
+   * call directly for objects that are still in the level.
+   * 
+   * @param o instance that was registered with this pool
+   */
+  @SuppressWarnings("unchecked")
+  public void release(GameObject o) {
+    inUse--;
+    if (free.size() < maxFree) {
+      free.add((T) o);
+    } else {
+      o.setPool(null);
+    }
+  }
+
+  /** @return name of the pool, see {@link playground.Playground#getObjectPool(String)} */
+  public String getName() {
+    return name;
+  }
+
+  /** @return fraction of {@link #acquire()} calls that returned an instance (0 to 1) */
+  public double getHitRate() {
+    return acquires == 0 ? 0 : (double) hits / acquires;
+  }
+
+  /** @return maximum number of instances of this pool in use at the same time */
+  public int getHighWater() {
+    return highWater;
+  }
+
+  /** @return number of instances currently in use */
+  public int getInUse() {
+    return inUse;
+  }
+
+  /** @return number of unused instances ready to be handed out */
+  public int getFreeCount() {
+    return free.size();
+  }
+
+  public String toString() {
+    return "pool " + name + ": requests=" + acquires + " hitRate=" + getHitRate() + " inUse="
+        + inUse + " highWater=" + highWater + " free=" + free.size();
+  }
+
+}
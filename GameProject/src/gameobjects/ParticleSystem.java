@@ -0,0 +1,328 @@
+package gameobjects;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+import controller.ParticleController;
+import playground.Playground;
+import playground.Snapshot;
+import playground.StateBuffer;
+import rendering.ParticleArtist;
+
+/**
+ * A single {@link GameObject} managing many small round particles, e.g. explosion shards or
+ * background stars, instead of one GameObject with its own controller, artist and collider per
+ * particle. Particle state is kept in primitive arrays (one array per property, indexed by slot),
+ * updated in one loop by a {@link ParticleController} and drawn in one pass by a
+ * {@link ParticleArtist}. Slots of dead particles are reused by later ones, the arrays only grow if
+ * more particles are alive at the same time than ever before. Particles have no colliders.
+ * 
+ * <p>
+ * Particles move according to their speed and behave according to their mode:
+ * </p>
+ * <ul>
+ * <li>{@link #MODE_EXPIRE}: removed when their lifetime is over or they leave the playground (like
+ * {@link controller.LimitedTimeController})
+ * <li>{@link #MODE_WRAP}: re-appear at the top when they reach the bottom (like
+ * {@link controller.FallingStarController})
+ * </ul>
+ */
+public class ParticleSystem extends GameObject {
+
+  /** particle dies after its lifetime or when leaving the playground */
+  public static final byte MODE_EXPIRE = 0;
+  /** particle wraps around from bottom to top and never dies */
+  public static final byte MODE_WRAP = 1;
+
+  /** distance from the bottom at which wrapping particles re-appear at the top */
+  protected static final int WRAP_MARGIN = 3;
+  /** y position at which wrapping particles re-appear */
+  protected static final double WRAP_Y = 10;
+
+  protected double[] px, py, pvx, pvy;
+  protected double[] prevX, prevY;
+  protected double[] birth, lifetime, radius;
+  protected Color[] color;
+  protected byte[] mode;
+  protected boolean[] alive;
+
+  /** stack of free slots below {@link #highWater} */
+  protected int[] freeSlots;
+  protected int freeCount = 0;
+  /** all slots at or above this index have never been used since the last {@link #clear()} */
+  protected int highWater = 0;
+  protected int liveCount = 0;
+
+  static {
+    Snapshot.registerObject(ParticleSystem.class, (o, out) -> o.writeParticles(out),
+        (in, id, pg) -> {
+          ParticleSystem o = new ParticleSystem(id, pg, in.getVarInt());
+          o.readParticles(in);
+          return o;
+        });
+  }
+
+  /**
+   * @param id unique ID for this GameObject
+   * @param playground the Playground the particles belong to
+   * @param capacity number of particles to reserve memory for (grows if needed)
+   */
+  public ParticleSystem(String id, Playground playground, int capacity) {
+    super(id, playground, 0, 0, 0, 0);
+    allocate(Math.max(capacity, 16));
+    this.artist = new ParticleArtist(this);
+    this.addController(new ParticleController());
+  }
+
+  private void allocate(int capacity) {
+    px = new double[capacity];
+    py = new double[capacity];
+    pvx = new double[capacity];
+    pvy = new double[capacity];
+    prevX = new double[capacity];
+    prevY = new double[capacity];
+    birth = new double[capacity];
+    lifetime = new double[capacity];
+    radius = new double[capacity];
+    color = new Color[capacity];
+    mode = new byte[capacity];
+    alive = new boolean[capacity];
+    freeSlots = new int[capacity];
+  }
+
+  private void grow() {
+    int capacity = 2 * px.length;
+    px = Arrays.copyOf(px, capacity);
+    py = Arrays.copyOf(py, capacity);
+    pvx = Arrays.copyOf(pvx, capacity);
+    pvy = Arrays.copyOf(pvy, capacity);
+    prevX = Arrays.copyOf(prevX, capacity);
+    prevY = Arrays.copyOf(prevY, capacity);
+    birth = Arrays.copyOf(birth, capacity);
+    lifetime = Arrays.copyOf(lifetime, capacity);
+    radius = Arrays.copyOf(radius, capacity);
+    color = Arrays.copyOf(color, capacity);
+    mode = Arrays.copyOf(mode, capacity);
+    alive = Arrays.copyOf(alive, capacity);
+    freeSlots = Arrays.copyOf(freeSlots, capacity);
+  }
+
+  /** saves capacity, free slots and all live particles, see {@link Snapshot} */
+  private void writeParticles(StateBuffer out) {
+    out.putVarInt(px.length);
+    out.putVarInt(highWater);
+    out.putVarInt(freeCount);
+    for (int i = 0; i < freeCount; i++) {
+      out.putVarInt(freeSlots[i]);
+    }
+    for (int i = 0; i < highWater; i++) {
+      out.putBoolean(alive[i]);
+      if (alive[i]) {
+        out.putDouble(px[i]);
+        out.putDouble(py[i]);
+        out.putDouble(pvx[i]);
+        out.putDouble(pvy[i]);
+        out.putDouble(prevX[i]);
+        out.putDouble(prevY[i]);
+        out.putDouble(birth[i]);
+        out.putDouble(lifetime[i]);
+        out.putDouble(radius[i]);
+        out.putColor(color[i]);
+        out.putByte(mode[i]);
+      }
+    }
+  }
+
+  /** restores the particles saved by {@link #writeParticles(StateBuffer)} after the capacity */
+  private void readParticles(StateBuffer in) {
+    highWater = in.getVarInt();
+    freeCount = in.getVarInt();
+    for (int i = 0; i < freeCount; i++) {
+      freeSlots[i] = in.getVarInt();
+    }
+    liveCount = 0;
+    for (int i = 0; i < highWater; i++) {
+      alive[i] = in.getBoolean();
+      if (alive[i]) {
+        px[i] = in.getDouble();
+        py[i] = in.getDouble();
+        pvx[i] = in.getDouble();
+        pvy[i] = in.getDouble();
+        prevX[i] = in.getDouble();
+        prevY[i] = in.getDouble();
+        birth[i] = in.getDouble();
+        lifetime[i] = in.getDouble();
+        radius[i] = in.getDouble();
+        color[i] = in.getColor();
+        mode[i] = (byte) in.getByte();
+        liveCount++;
+      }
+    }
+  }
+
+  /** removes all particles */
+  public void clear() {
+    Arrays.fill(alive, false);
+    Arrays.fill(color, null);
+    freeCount = 0;
+    highWater = 0;
+    liveCount = 0;
+  }
+
+  /**
+   * adds a single particle.
+   * 
+   * @param x start position x
+   * @param y start position y
+   * @param vx speed x in pixels per second
+   * @param vy speed y in pixels per second
+   * @param gameTime current game time in seconds
+   * @param lifetime seconds until the particle dies ({@link #MODE_EXPIRE} only)
+   * @param radius radius in pixels
+   * @param color color to draw the particle with
+   * @param mode {@link #MODE_EXPIRE} or {@link #MODE_WRAP}
+   * @return slot index of the new particle
+   */
+  public int emit(double x, double y, double vx, double vy, double gameTime, double lifetime,
+      double radius, Color color, byte mode) {
+    int slot;
+    if (freeCount > 0) {
+      slot = freeSlots[--freeCount];
+    } else {
+      if (highWater == px.length) {
+        grow();
+      }
+      slot = highWater++;
+    }
+    px[slot] = x;
+    py[slot] = y;
+    prevX[slot] = x;
+    prevY[slot] = y;
+    pvx[slot] = vx;
+    pvy[slot] = vy;
+    birth[slot] = gameTime;
+    this.lifetime[slot] = lifetime;
+    this.radius[slot] = radius;
+    this.color[slot] = color;
+    this.mode[slot] = mode;
+    alive[slot] = true;
+    liveCount++;
+    return slot;
+  }
+
+  /**
+   * adds a cloud of expiring particles with random speeds around a base speed, e.g. for an
+   * explosion.
+   * 
+   * @param x start position x of all particles
+   * @param y start position y of all particles
+   * @param vx base speed x added to all particles
+   * @param vy base speed y added to all particles
+   * @param count number of particles
+   * @param spread maximum random speed in pixels per second in x and y
+   * @param gameTime current game time in seconds
+   * @param lifetime seconds until the particles die
+   * @param radius radius in pixels
+   * @param color color of all particles
+   */
+  public void burst(double x, double y, double vx, double vy, int count, double spread,
+      double gameTime, double lifetime, double radius, Color color) {
+    Random rng = Playground.getRandom();
+    for (int i = 0; i < count; i++) {
+      double pvx = 2 * (rng.nextDouble() - 0.5) * spread + vx;
+      double pvy = 2 * (rng.nextDouble() - 0.5) * spread + vy;
+      emit(x, y, pvx, pvy, gameTime, lifetime, radius, color, MODE_EXPIRE);
+    }
+  }
+
+  private void kill(int slot) {
+    alive[slot] = false;
+    color[slot] = null;
+    freeSlots[freeCount++] = slot;
+    liveCount--;
+  }
+
+  /**
+   * moves all particles by one time step and removes the dead ones. Called by
+   * {@link ParticleController}.
+   * 
+   * @param ts time step in seconds
+   * @param gameTime current game time in seconds
+   * @param sizeX width of the playground
+   * @param sizeY height of the playground
+   */
+  public void updateParticles(double ts, double gameTime, int sizeX, int sizeY) {
+    for (int i = 0; i < highWater; i++) {
+      if (!alive[i]) {
+        continue;
+      }
+      if (mode[i] == MODE_WRAP && py[i] + WRAP_MARGIN >= sizeY) {
+        py[i] = WRAP_Y;
+        prevY[i] = WRAP_Y;
+      } else {
+        prevY[i] = py[i];
+      }
+      prevX[i] = px[i];
+      px[i] += pvx[i] * ts;
+      py[i] += pvy[i] * ts;
+
+      if (mode[i] == MODE_EXPIRE && (py[i] >= sizeY || py[i] < 0 || px[i] >= sizeX || px[i] < 0
+          || (gameTime - birth[i]) > lifetime[i])) {
+        kill(i);
+      }
+    }
+  }
+
+  /** @return number of particles currently alive */
+  public int getLiveCount() {
+    return liveCount;
+  }
+
+  /** @return upper bound (exclusive) of the slots that may hold live particles */
+  public int getHighWater() {
+    return highWater;
+  }
+
+  /**
+   * @param slot slot index below {@link #getHighWater()}
+   * @return true if the slot holds a live particle
+   */
+  public boolean isAlive(int slot) {
+    return alive[slot];
+  }
+
+  /**
+   * @param slot slot index of a live particle
+   * @param alpha interpolation factor between previous (0) and current (1) time step
+   * @return x position to draw the particle at
+   */
+  public double getParticleX(int slot, double alpha) {
+    return prevX[slot] + (px[slot] - prevX[slot]) * alpha;
+  }
+
+  /**
+   * @param slot slot index of a live particle
+   * @param alpha interpolation factor between previous (0) and current (1) time step
+   * @return y position to draw the particle at
+   */
+  public double getParticleY(int slot, double alpha) {
+    return prevY[slot] + (py[slot] - prevY[slot]) * alpha;
+  }
+
+  /**
+   * @param slot slot index of a live particle
+   * @return radius in pixels
+   */
+  public double getParticleRadius(int slot) {
+    return radius[slot];
+  }
+
+  /**
+   * @param slot slot index of a live particle
+   * @return color of the particle
+   */
+  public Color getParticleColor(int slot) {
+    return color[slot];
+  }
+
+}
@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.io.File;
 import collider.RectCollider;
 import playground.Playground;
+import playground.Snapshot;
 import playground.SpaceInvadersLevel;
 import rendering.RectArtist;
 
@@ -20,6 +21,15 @@ public class RectObject extends GameObject {
   /** height in pixels of the RectObject (&gt; 0) */
   protected double height;
 
+  static {
+    Snapshot.registerObject(RectObject.class, (o, out) -> {
+      out.putDouble(o.width);
+      out.putDouble(o.height);
+      out.putColor(((RectArtist) o.artist).getColor());
+    }, (in, id, pg) -> new RectObject(id, pg, 0, 0, 0, 0, in.getDouble(), in.getDouble(),
+        in.getColor()));
+  }
+
   /**
    * Initializes the RectObject with a suitable RectArtist for drawing the RectObject.
    * 
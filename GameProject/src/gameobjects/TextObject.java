@@ -10,6 +10,7 @@ import java.util.LinkedList;
 import collider.*;
 import controller.ObjectController;
 import playground.Playground;
+import playground.Snapshot;
 import rendering.*;
 
 /**
@@ -24,6 +25,23 @@ public class TextObject extends GameObject {
   private String text = null;
   protected double rx, ry;
 
+  static {
+    Snapshot.registerObject(TextObject.class, (o, out) -> {
+      TextArtist artist = (TextArtist) o.artist;
+      out.putString(artist.getText());
+      out.putVarInt(artist.getSize());
+      out.putColor(artist.getColor());
+      out.putBoolean(o.text != null);
+    }, (in, id, pg) -> {
+      String text = in.getString();
+      TextObject o = new TextObject(id, pg, 0, 0, 0, 0, text, in.getVarInt(), in.getColor());
+      if (in.getBoolean()) {
+        o.setText(text);
+      }
+      return o;
+    });
+  }
+
   public String getText() {
     return this.text;
   }
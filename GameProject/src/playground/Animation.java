@@ -7,7 +7,10 @@ import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.*;
 import java.io.FileNotFoundException;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Scanner;
 import java.nio.file.Path;
@@ -16,69 +19,198 @@ import java.nio.file.Paths;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
+/**
+ * Frames of an animation and how long each of them is shown, read from a description file. The
+ * file lists image files, each followed by its showtime in seconds (German number format, e.g.
+ * <code>alien0.png 0,5</code>); image paths are relative to the description file.
+ *
+ * <p>
+ * Frames and showtimes are kept in arrays together with the time each frame ends, counted from the
+ * start of the animation, so {@link #frameAt(double, PlayMode)} finds the frame shown at a given
+ * time by binary search. An animation does not change after it has been read and is shared by all
+ * objects using it, see {@link AssetCache}.
+ * </p>
+ */
 public class Animation {
 
-  public LinkedList<String> fileList = null;
-  public LinkedList<Double> showtimeList = null;
-  public LinkedList<BufferedImage> imageList = null;
-
-  private static Logger logger = LogManager.getLogger(Animation.class);
+  /** how an animation is played, see {@link Animation#frameAt(double, PlayMode)} */
+  public enum PlayMode {
+    /** first to last frame, then again from the first */
+    LOOP,
+    /** first to last frame, then the last frame stays */
+    FORWARD,
+    /** last to first frame, then the first frame stays */
+    BACKWARD;
+
+    /**
+     * @param name "loop", "forward" or "backward", in any case
+     * @return the play mode
+     * @throws IllegalArgumentException if there is no play mode of this name
+     */
+    public static PlayMode of(String name) {
+      return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+  }
 
-  public Animation(String datName) {
+  /** showtime of frames the description file gives no time for */
+  public static final double DEFAULT_SHOWTIME = 0.1;
 
-    Scanner scanner;
-    this.fileList = new LinkedList<String>();
-    this.showtimeList = new LinkedList<Double>();
-    this.imageList = new LinkedList<BufferedImage>();
+  private final String path;
+  private final String[] files;
+  private final BufferedImage[] images;
+  private final double[] showtimes;
+  /** time each frame ends, from the start of the animation; ascending */
+  private final double[] ends;
+  private final double duration;
+  private final int width, height;
 
-    try {
-      scanner = new Scanner(new File(datName), "UTF-8");
+  private static Logger logger = LogManager.getLogger(Animation.class);
 
+  public Animation(String datName) {
+    this.path = datName;
+    ArrayList<String> fileList = new ArrayList<String>();
+    ArrayList<BufferedImage> imageList = new ArrayList<BufferedImage>();
+    ArrayList<Double> showtimeList = new ArrayList<Double>();
+    // frame waiting for its showtime, -1 after a missing image, whose showtime is skipped
+    int pending = -1;
+
+    try (Scanner scanner = new Scanner(new File(datName), "UTF-8")) {
       scanner.useLocale(Locale.GERMANY);
 
-      String zeile;
-      double zeit;
-      int it = 0;
-
       while (scanner.hasNext()) {
         if (scanner.hasNextDouble()) {
-          zeit = scanner.nextDouble();
-          showtimeList.add(zeit);
+          double zeit = scanner.nextDouble();
+          if (pending >= 0) {
+            showtimeList.set(pending, zeit);
+          }
+          pending = -1;
         } else {
-          zeile = scanner.next();
+          String zeile = scanner.next();
           Path basePath = Paths.get(datName);
           String file = basePath.getParent().toString() + "/" + zeile;
-          fileList.add(file);
           try {
-            this.imageList.add(ImageIO.read(new File(file)));
-            logger.info("img added " + file);
-
+            BufferedImage img = ImageIO.read(new File(file));
+            if (img == null) {
+              throw new IOException("unknown image format");
+            }
+            fileList.add(file);
+            imageList.add(img);
+            showtimeList.add(DEFAULT_SHOWTIME);
+            pending = imageList.size() - 1;
+            logger.info("img added {}", file);
           } catch (IOException e) {
-            logger.warn(file + " not found!!");
+            logger.warn("{} not found!!", file);
+            pending = -1;
           }
-
-          it++;
-          logger.trace(basePath.getParent().toString() + "/" + zeile);
+          logger.trace("{}/{}", basePath.getParent(), zeile);
         }
       }
-
-      scanner.close();
-
     } catch (FileNotFoundException e) {
       e.printStackTrace();
     }
+
+    int n = imageList.size();
+    this.files = fileList.toArray(new String[n]);
+    this.images = imageList.toArray(new BufferedImage[n]);
+    this.showtimes = new double[n];
+    this.ends = new double[n];
+    double t = 0;
+    int w = 0, h = 0;
+    for (int i = 0; i < n; i++) {
+      showtimes[i] = Math.max(0, showtimeList.get(i));
+      t += showtimes[i];
+      ends[i] = t;
+      w = Math.max(w, images[i].getWidth());
+      h = Math.max(h, images[i].getHeight());
+    }
+    this.duration = t;
+    this.width = w;
+    this.height = h;
+  }
+
+  /** @return number of frames */
+  public int getFrameCount() {
+    return this.images.length;
   }
 
-  public LinkedList<String> getFileList() {
-    return this.fileList;
+  /** @return image of a frame */
+  public BufferedImage getImage(int frame) {
+    return this.images[frame];
   }
 
-  public LinkedList<Double> getShowtimeList() {
-    return this.showtimeList;
+  /** @return time a frame is shown, in seconds */
+  public double getShowtime(int frame) {
+    return this.showtimes[frame];
+  }
+
+  /** @return time all frames are shown once, in seconds */
+  public double getDuration() {
+    return this.duration;
+  }
+
+  /** @return width of the widest frame */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /** @return height of the highest frame */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /** @return image files of the frames */
+  public List<String> getFileList() {
+    return Collections.unmodifiableList(Arrays.asList(this.files));
+  }
+
+  /**
+   * finds the frame shown at a time after the animation has started.
+   *
+   * @param elapsed seconds since the animation started
+   * @param mode how the animation is played
+   * @return index of the frame, 0 if there are no frames
+   */
+  public int frameAt(double elapsed, PlayMode mode) {
+    int n = ends.length;
+    if (n == 0 || duration <= 0) {
+      return mode == PlayMode.BACKWARD ? Math.max(0, n - 1) : 0;
+    }
+    if (elapsed < 0) {
+      elapsed = 0;
+    }
+    switch (mode) {
+      case LOOP:
+        return firstEndingAfter(elapsed % duration);
+      case FORWARD:
+        return elapsed >= duration ? n - 1 : firstEndingAfter(elapsed);
+      default:
+        // played backward, frame i is shown while the time left is in (ends[i-1], ends[i]]
+        double left = duration - elapsed;
+        if (left <= 0) {
+          return 0;
+        }
+        int i = firstEndingAfter(left);
+        return i > 0 && ends[i - 1] == left ? i - 1 : i;
+    }
+  }
+
+  /** @return index of the first frame ending after t, the last frame if there is none */
+  private int firstEndingAfter(double t) {
+    int lo = 0, hi = ends.length - 1;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (ends[mid] > t) {
+        hi = mid;
+      } else {
+        lo = mid + 1;
+      }
+    }
+    return lo;
   }
 
-  public LinkedList<BufferedImage> getImageList() {
-    return this.imageList;
+  /** @return the description file this animation was read from */
+  public String getPath() {
+    return this.path;
   }
 
 }
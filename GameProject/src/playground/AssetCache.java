@@ -0,0 +1,126 @@
+package playground;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Loads assets once for all levels, in the background. Every {@link Animation} is read by one of
+ * {@link #LOADER_THREADS} worker threads on its first request and then shared by all levels that
+ * use the same file, so preparing a level does not parse description files and decode images on
+ * the game thread again. The game loop preloads the assets a level lists in
+ * {@link Playground#getAssetManifest()} before the level starts, e.g. while the level before it is
+ * played; {@link #getAnimation(String)} only waits if loading has not finished yet.
+ *
+ * <p>
+ * Sound files (<code>.wav</code>) in a manifest are decoded by the {@link AudioEngine} on the
+ * worker threads, see {@link Music#preload(File)}.
+ * </p>
+ */
+public class AssetCache {
+
+  /** number of threads loading assets */
+  public static final int LOADER_THREADS = 2;
+
+  private static AssetCache instance = null;
+  private static Logger logger = LogManager.getLogger(AssetCache.class);
+
+  private final ExecutorService loader;
+  /** animations by normalized path, completed when loaded */
+  private final ConcurrentHashMap<String, CompletableFuture<Animation>> animations =
+      new ConcurrentHashMap<String, CompletableFuture<Animation>>();
+
+  private AssetCache() {
+    AtomicInteger threads = new AtomicInteger();
+    this.loader = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+      Thread t = new Thread(r, "asset-loader-" + threads.incrementAndGet());
+      t.setDaemon(true);
+      t.setPriority(Thread.NORM_PRIORITY - 1);
+      return t;
+    });
+  }
+
+  /** @return the cache of this application, created on first call */
+  public static synchronized AssetCache getInstance() {
+    if (instance == null) {
+      instance = new AssetCache();
+    }
+    return instance;
+  }
+
+  /** paths naming the same file, like "./video/a.txt" and "video/a.txt", give the same key */
+  private static String key(String path) {
+    return Paths.get(path).normalize().toString();
+  }
+
+  /**
+   * starts loading an animation in the background, unless it was requested before.
+   *
+   * @param path animation description file, see {@link Animation#Animation(String)}
+   * @return the animation, completed when loaded
+   */
+  public CompletableFuture<Animation> loadAnimation(String path) {
+    return animations.computeIfAbsent(key(path),
+        k -> CompletableFuture.supplyAsync(() -> readAnimation(path), loader));
+  }
+
+  private static Animation readAnimation(String path) {
+    long start = System.nanoTime();
+    Animation anim = new Animation(path);
+    logger.info("animation " + path + " loaded in " + (System.nanoTime() - start) / 1000000
+        + " ms on " + Thread.currentThread().getName());
+    return anim;
+  }
+
+  /**
+   * returns a shared animation, loading it if needed. Blocks until it is loaded.
+   *
+   * @param path animation description file, see {@link Animation#Animation(String)}
+   * @return the animation, the same instance for all requests of the same file
+   */
+  public Animation getAnimation(String path) {
+    CompletableFuture<Animation> anim = loadAnimation(path);
+    if (!anim.isDone()) {
+      logger.debug("waiting for animation {}", path);
+    }
+    return anim.join();
+  }
+
+  /**
+   * @param path animation description file
+   * @return true if the animation has been loaded completely
+   */
+  public boolean isLoaded(String path) {
+    CompletableFuture<Animation> anim = animations.get(key(path));
+    return anim != null && anim.isDone();
+  }
+
+  /**
+   * starts loading all assets of a manifest in the background and returns immediately. Entries
+   * ending with <code>.wav</code> are sounds, all others animations.
+   *
+   * @param manifest paths of the assets, see {@link Playground#getAssetManifest()}
+   */
+  public void preload(Collection<String> manifest) {
+    for (String path : manifest) {
+      if (path.endsWith(".wav")) {
+        loader.execute(() -> Music.preload(new File(path)));
+      } else {
+        loadAnimation(path);
+      }
+    }
+  }
+
+  /** forgets all animations, e.g. after the files have changed. Animations in use stay valid. */
+  public void clear() {
+    animations.clear();
+  }
+
+}
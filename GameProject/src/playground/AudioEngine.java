@@ -0,0 +1,250 @@
+package playground;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Plays short sound effects with a single mixer thread. Every WAV file is decoded once by
+ * {@link #load(File)} into 16 bit stereo PCM samples at {@link #SAMPLE_RATE} and kept in memory.
+ * {@link #play(int)} only queues a request and returns immediately; the mixer thread adds up to
+ * {@link #MAX_VOICES} sounds playing at the same time and writes them to one
+ * {@link SourceDataLine}. If all voices are busy, the voice that has played longest is stopped for
+ * the new sound. If no audio device is available, all calls are silently ignored.
+ */
+public class AudioEngine implements Runnable {
+
+  /** maximum number of sounds played at the same time */
+  public static final int MAX_VOICES = 8;
+  /** sample rate of the output line, all sounds are converted to it when loaded */
+  public static final float SAMPLE_RATE = 44100f;
+  /** default volume: 0 silence, 1 unchanged (linear) */
+  public static final float DEFAULT_VOLUME = 0.02f;
+
+  private static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+  /** frames mixed per block, about 12 ms */
+  private static final int BLOCK_FRAMES = 512;
+
+  private static AudioEngine instance = null;
+  private static Logger logger = LogManager.getLogger(AudioEngine.class);
+
+  /** decoded samples (interleaved stereo) by sound id, replaced as a whole when a sound is added */
+  private volatile short[][] sounds = new short[0][];
+  private final HashMap<String, Integer> soundIds = new HashMap<String, Integer>();
+  private final ArrayBlockingQueue<Integer> requests = new ArrayBlockingQueue<Integer>(64);
+
+  // voices, only accessed by the mixer thread
+  private final short[][] voiceData = new short[MAX_VOICES][];
+  private final int[] voicePos = new int[MAX_VOICES];
+  private final long[] voiceStart = new long[MAX_VOICES];
+  private long voiceCounter = 0;
+  private volatile int activeVoices = 0;
+
+  private volatile float volume = DEFAULT_VOLUME;
+  private volatile boolean available = true;
+  private volatile boolean running = false;
+  private Thread mixer = null;
+
+  private AudioEngine() {}
+
+  /** @return the engine of this application, created on first call */
+  public static synchronized AudioEngine getInstance() {
+    if (instance == null) {
+      instance = new AudioEngine();
+    }
+    return instance;
+  }
+
+  /**
+   * decodes a WAV file into memory, unless it was loaded before.
+   * 
+   * @param file the WAV file
+   * @return id to pass to {@link #play(int)}, or -1 if the file cannot be read
+   */
+  public synchronized int load(File file) {
+    String key = file.getPath();
+    Integer id = soundIds.get(key);
+    if (id != null) {
+      return id;
+    }
+    short[] samples = decode(file);
+    if (samples == null) {
+      soundIds.put(key, -1);
+      return -1;
+    }
+    short[][] table = Arrays.copyOf(sounds, sounds.length + 1);
+    table[sounds.length] = samples;
+    sounds = table;
+    soundIds.put(key, sounds.length - 1);
+    logger.info("sound " + key + " loaded as id " + (sounds.length - 1));
+    return sounds.length - 1;
+  }
+
+  /**
+   * reads a WAV file and converts it to interleaved 16 bit stereo samples at
+   * {@link #SAMPLE_RATE}.
+   */
+  private static short[] decode(File file) {
+    try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+      AudioFormat src = in.getFormat();
+      int channels = Math.min(src.getChannels(), 2);
+      AudioFormat pcm = new AudioFormat(src.getSampleRate(), 16, src.getChannels(), true, false);
+      byte[] bytes;
+      try (AudioInputStream pcmIn = AudioSystem.getAudioInputStream(pcm, in)) {
+        bytes = pcmIn.readAllBytes();
+      }
+      int srcFrames = bytes.length / (2 * src.getChannels());
+      double step = src.getSampleRate() / SAMPLE_RATE;
+      int frames = (int) (srcFrames / step);
+      short[] out = new short[2 * frames];
+      for (int f = 0; f < frames; f++) {
+        int sf = Math.min((int) (f * step), srcFrames - 1);
+        for (int c = 0; c < 2; c++) {
+          int sc = Math.min(c, channels - 1);
+          int b = 2 * (sf * src.getChannels() + sc);
+          out[2 * f + c] = (short) ((bytes[b] & 0xff) | (bytes[b + 1] << 8));
+        }
+      }
+      return out;
+    } catch (Exception e) {
+      logger.warn("sound " + file + " cannot be loaded: " + e);
+      return null;
+    }
+  }
+
+  /**
+   * requests to play a loaded sound. Never blocks: if too many requests are pending or no audio
+   * device is available, the request is dropped.
+   * 
+   * @param soundId id returned by {@link #load(File)}
+   * @return true if the request was queued
+   */
+  public boolean play(int soundId) {
+    if (soundId < 0 || soundId >= sounds.length || !available) {
+      return false;
+    }
+    if (!running) {
+      start();
+    }
+    return requests.offer(soundId);
+  }
+
+  /**
+   * sets the volume of all sounds.
+   * 
+   * @param volume 0 silence, 1 unchanged (linear)
+   */
+  public void setVolume(float volume) {
+    this.volume = volume;
+  }
+
+  /** @return number of sounds that were playing at the end of the last mixed block */
+  public int getActiveVoices() {
+    return activeVoices;
+  }
+
+  private synchronized void start() {
+    if (running || !available) {
+      return;
+    }
+    running = true;
+    mixer = new Thread(this, "audio mixer");
+    mixer.setDaemon(true);
+    mixer.start();
+  }
+
+  /** stops the mixer thread, a later {@link #play(int)} starts it again */
+  public synchronized void shutdown() {
+    running = false;
+    if (mixer != null) {
+      mixer.interrupt();
+      mixer = null;
+    }
+  }
+
+  /** mixer thread: mixes all voices block by block and writes them to the output line */
+  @Override
+  public void run() {
+    SourceDataLine line;
+    try {
+      line = AudioSystem.getSourceDataLine(FORMAT);
+      line.open(FORMAT, 4 * BLOCK_FRAMES * FORMAT.getFrameSize());
+      line.start();
+    } catch (Exception e) {
+      logger.warn("no audio output available, sound is switched off: " + e);
+      available = false;
+      running = false;
+      return;
+    }
+
+    int[] mix = new int[2 * BLOCK_FRAMES];
+    byte[] out = new byte[4 * BLOCK_FRAMES];
+    try {
+      while (running) {
+        Integer request;
+        while ((request = requests.poll()) != null) {
+          startVoice(sounds[request]);
+        }
+
+        Arrays.fill(mix, 0);
+        int active = 0;
+        for (int v = 0; v < MAX_VOICES; v++) {
+          short[] data = voiceData[v];
+          if (data == null) {
+            continue;
+          }
+          int pos = voicePos[v];
+          int n = Math.min(mix.length, data.length - pos);
+          for (int i = 0; i < n; i++) {
+            mix[i] += data[pos + i];
+          }
+          voicePos[v] = pos + n;
+          if (voicePos[v] >= data.length) {
+            voiceData[v] = null;
+          } else {
+            active++;
+          }
+        }
+        activeVoices = active;
+
+        float gain = volume;
+        for (int i = 0; i < mix.length; i++) {
+          int s = (int) (mix[i] * gain);
+          s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, s));
+          out[2 * i] = (byte) s;
+          out[2 * i + 1] = (byte) (s >> 8);
+        }
+        // blocks until the line has room, which paces this thread
+        line.write(out, 0, out.length);
+      }
+    } finally {
+      line.drain();
+      line.close();
+    }
+  }
+
+  /** puts a sound into a free voice, or into the one that has played longest */
+  private void startVoice(short[] data) {
+    int target = 0;
+    for (int v = 0; v < MAX_VOICES; v++) {
+      if (voiceData[v] == null) {
+        target = v;
+        break;
+      }
+      if (voiceStart[v] < voiceStart[target]) {
+        target = v;
+      }
+    }
+    voiceData[target] = data;
+    voicePos[target] = 0;
+    voiceStart[target] = voiceCounter++;
+  }
+
+}
@@ -0,0 +1,77 @@
+package playground;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Handle of a named flag, see {@link FlagTable}. Each name is interned once into a handle with a
+ * small index, so reading and writing a flag through its handle needs neither String operations
+ * nor hashing. Handles are meant to be kept in constants:
+ *
+ * <pre>
+ * private static final Flag POINTS = Flag.of("points");
+ * ...
+ * int points = Playground.getGlobalFlags().getInt(POINTS, 0);
+ * </pre>
+ *
+ * The same name always gives the same handle, so classes can intern the flags they share
+ * independently.
+ */
+public final class Flag {
+
+  private static HashMap<String, Flag> byName = new HashMap<String, Flag>();
+  private static ArrayList<Flag> byIndex = new ArrayList<Flag>();
+
+  private final String name;
+  private final int index;
+
+  private Flag(String name, int index) {
+    this.name = name;
+    this.index = index;
+  }
+
+  /**
+   * returns the handle of a flag name, created on first request.
+   *
+   * @param name flag name, e.g. "points"
+   * @return the handle, the same instance for equal names
+   */
+  public static synchronized Flag of(String name) {
+    Flag flag = byName.get(name);
+    if (flag == null) {
+      flag = new Flag(name, byIndex.size());
+      byName.put(name, flag);
+      byIndex.add(flag);
+    }
+    return flag;
+  }
+
+  /**
+   * @return number of flag names interned so far, all handles have smaller indices
+   */
+  static synchronized int count() {
+    return byIndex.size();
+  }
+
+  /**
+   * @param index index of a handle, 0 &lt;= index &lt; {@link #count()}
+   * @return the handle
+   */
+  static synchronized Flag byIndex(int index) {
+    return byIndex.get(index);
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  int getIndex() {
+    return this.index;
+  }
+
+  @Override
+  public String toString() {
+    return this.name;
+  }
+
+}
@@ -0,0 +1,324 @@
+package playground;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Values of flags, addressed by {@link Flag} handles. Each flag has a slot holding an int, a double
+ * or an Object, so int and double flags (like points or times) are stored without boxing. A flag
+ * keeps the type it was last set with; reading it as another type throws a
+ * {@link ClassCastException}, as casting its old boxed value did.
+ *
+ * <p>
+ * Tables belong to a scope: the global flags, or the flags of the levels together with the flags of
+ * all objects (see {@link Playground#resetFlags(int)}). Resetting a scope removes the flags of all
+ * its tables at once in O(1): every slot is stamped with the generation of its scope when it is set,
+ * and a reset only starts a new generation. Object values of older generations are dropped by the
+ * first access of a table after a reset, so a reset table does not keep them reachable.
+ * </p>
+ */
+public final class FlagTable {
+
+  /** group of tables that are reset together */
+  static final class Scope {
+    private int generation = 1;
+
+    /** removes all flags of all tables of this scope */
+    void reset() {
+      generation++;
+    }
+  }
+
+  private static final byte INT = 1;
+  private static final byte DOUBLE = 2;
+  private static final byte OBJECT = 3;
+  /** kinds of Object values in a {@link Snapshot} */
+  private static final byte STRING = 4;
+  private static final byte STRING_LIST = 5;
+
+  private final Scope scope;
+  /** generation of {@link #scope} in which a slot was set, older stamps mean unset */
+  private int[] stamps = new int[0];
+  private byte[] kinds = new byte[0];
+  private int[] ints = new int[0];
+  private double[] doubles = new double[0];
+  private Object[] objects = new Object[0];
+  /** generation of {@link #scope} whose older Object values have been dropped */
+  private int swept;
+
+  FlagTable(Scope scope) {
+    this.scope = scope;
+    this.swept = scope.generation;
+  }
+
+  /** drops the Object values of older generations, once after each reset of the scope */
+  private void sweep() {
+    int generation = scope.generation;
+    if (swept != generation) {
+      swept = generation;
+      for (int i = 0; i < stamps.length; i++) {
+        if (stamps[i] != generation) {
+          objects[i] = null;
+        }
+      }
+    }
+  }
+
+  private void ensureCapacity(int index) {
+    if (index >= stamps.length) {
+      int size = Math.max(Math.max(index + 1, 2 * stamps.length), Flag.count());
+      stamps = Arrays.copyOf(stamps, size);
+      kinds = Arrays.copyOf(kinds, size);
+      ints = Arrays.copyOf(ints, size);
+      doubles = Arrays.copyOf(doubles, size);
+      objects = Arrays.copyOf(objects, size);
+    }
+  }
+
+  /**
+   * @param flag the flag
+   * @return true if the flag has a value in the current generation of this table's scope
+   */
+  public boolean isSet(Flag flag) {
+    sweep();
+    int i = flag.getIndex();
+    return i < stamps.length && stamps[i] == scope.generation;
+  }
+
+  private void checkKind(Flag flag, byte kind, String type) {
+    if (kinds[flag.getIndex()] != kind) {
+      throw new ClassCastException("flag " + flag + " is not of type " + type);
+    }
+  }
+
+  /**
+   * @param flag the flag
+   * @param defaultValue returned if the flag is not set
+   * @return the value of the int flag
+   * @throws ClassCastException if the flag is set but holds no int
+   */
+  public int getInt(Flag flag, int defaultValue) {
+    if (!isSet(flag)) {
+      return defaultValue;
+    }
+    checkKind(flag, INT, "int");
+    return ints[flag.getIndex()];
+  }
+
+  /**
+   * sets an int flag.
+   *
+   * @param flag the flag
+   * @param value the new value
+   */
+  public void setInt(Flag flag, int value) {
+    int i = stamp(flag, INT);
+    ints[i] = value;
+  }
+
+  /**
+   * adds to an int flag, starting from 0 if it is not set.
+   *
+   * @param flag the flag
+   * @param delta value to add
+   * @return the new value
+   * @throws ClassCastException if the flag is set but holds no int
+   */
+  public int addInt(Flag flag, int delta) {
+    int value = getInt(flag, 0) + delta;
+    setInt(flag, value);
+    return value;
+  }
+
+  /**
+   * @param flag the flag
+   * @param defaultValue returned if the flag is not set
+   * @return the value of the double flag
+   * @throws ClassCastException if the flag is set but holds no double
+   */
+  public double getDouble(Flag flag, double defaultValue) {
+    if (!isSet(flag)) {
+      return defaultValue;
+    }
+    checkKind(flag, DOUBLE, "double");
+    return doubles[flag.getIndex()];
+  }
+
+  /**
+   * sets a double flag.
+   *
+   * @param flag the flag
+   * @param value the new value
+   */
+  public void setDouble(Flag flag, double value) {
+    int i = stamp(flag, DOUBLE);
+    doubles[i] = value;
+  }
+
+  /**
+   * returns the value of a flag as an Object, int and double values boxed.
+   *
+   * @param flag the flag
+   * @return the value, or null if the flag is not set
+   */
+  public Object get(Flag flag) {
+    if (!isSet(flag)) {
+      return null;
+    }
+    int i = flag.getIndex();
+    switch (kinds[i]) {
+      case INT:
+        return Integer.valueOf(ints[i]);
+      case DOUBLE:
+        return Double.valueOf(doubles[i]);
+      default:
+        return objects[i];
+    }
+  }
+
+  /**
+   * sets a flag to an arbitrary value. Integer and Double values are stored unboxed, as by
+   * {@link #setInt(Flag, int)} and {@link #setDouble(Flag, double)}.
+   *
+   * @param flag the flag
+   * @param value the new value, null removes the flag
+   */
+  public void set(Flag flag, Object value) {
+    if (value == null) {
+      remove(flag);
+    } else if (value instanceof Integer) {
+      setInt(flag, (Integer) value);
+    } else if (value instanceof Double) {
+      setDouble(flag, (Double) value);
+    } else {
+      int i = stamp(flag, OBJECT);
+      objects[i] = value;
+    }
+  }
+
+  /**
+   * removes a flag from this table.
+   *
+   * @param flag the flag
+   */
+  public void remove(Flag flag) {
+    int i = flag.getIndex();
+    if (i < stamps.length) {
+      stamps[i] = 0;
+      objects[i] = null;
+    }
+  }
+
+  /** marks the slot of the flag as set in the current generation and returns its index */
+  private int stamp(Flag flag, byte kind) {
+    int i = flag.getIndex();
+    ensureCapacity(i);
+    sweep();
+    if (kinds[i] != kind || stamps[i] != scope.generation) {
+      kinds[i] = kind;
+      objects[i] = null;
+    }
+    stamps[i] = scope.generation;
+    return i;
+  }
+
+  /** @return the kind to save an Object value as, 0 if it cannot be saved */
+  private static byte objectKind(Object value) {
+    if (value instanceof String) {
+      return STRING;
+    }
+    if (value instanceof List) {
+      for (Object e : (List<?>) value) {
+        if (!(e instanceof String)) {
+          return 0;
+        }
+      }
+      return STRING_LIST;
+    }
+    return 0;
+  }
+
+  /**
+   * writes all flags holding ints, doubles, Strings or lists of Strings. Other values, like the
+   * inputs of a level, cannot be saved and are left out.
+   */
+  void writeTo(StateBuffer out) {
+    int count = 0;
+    for (int i = 0; i < stamps.length; i++) {
+      if (stamps[i] == scope.generation && (kinds[i] != OBJECT || objectKind(objects[i]) != 0)) {
+        count++;
+      }
+    }
+    out.putVarInt(count);
+    for (int i = 0; i < stamps.length; i++) {
+      if (stamps[i] != scope.generation) {
+        continue;
+      }
+      byte kind = kinds[i] == OBJECT ? objectKind(objects[i]) : kinds[i];
+      if (kind == 0) {
+        continue;
+      }
+      out.putString(Flag.byIndex(i).getName());
+      out.putByte(kind);
+      switch (kind) {
+        case INT:
+          out.putInt(ints[i]);
+          break;
+        case DOUBLE:
+          out.putDouble(doubles[i]);
+          break;
+        case STRING:
+          out.putString((String) objects[i]);
+          break;
+        default:
+          List<?> list = (List<?>) objects[i];
+          out.putVarInt(list.size());
+          for (Object e : list) {
+            out.putString((String) e);
+          }
+      }
+    }
+  }
+
+  /** sets the flags written by {@link #writeTo(StateBuffer)}, lists become LinkedLists */
+  void readFrom(StateBuffer in) {
+    for (int count = in.getVarInt(); count > 0; count--) {
+      Flag flag = Flag.of(in.getString());
+      int kind = in.getByte();
+      switch (kind) {
+        case INT:
+          setInt(flag, in.getInt());
+          break;
+        case DOUBLE:
+          setDouble(flag, in.getDouble());
+          break;
+        case STRING:
+          set(flag, in.getString());
+          break;
+        default:
+          LinkedList<String> list = new LinkedList<String>();
+          for (int n = in.getVarInt(); n > 0; n--) {
+            list.add(in.getString());
+          }
+          set(flag, list);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < stamps.length; i++) {
+      if (stamps[i] == scope.generation) {
+        Flag flag = Flag.byIndex(i);
+        if (sb.length() > 1) {
+          sb.append(", ");
+        }
+        sb.append(flag).append('=').append(get(flag));
+      }
+    }
+    return sb.append('}').toString();
+  }
+
+}
@@ -0,0 +1,27 @@
+package playground;
+
+import java.awt.Graphics2D;
+
+/**
+ * Receives the duration of every {@link Playground#redraw(Graphics2D, double)} and draws on top of
+ * the level afterwards, e.g. debug or profiling information. Set with
+ * {@link Playground#setFrameOverlay(FrameOverlay)}; redraw is not measured while no overlay is set.
+ */
+public interface FrameOverlay {
+
+  /**
+   * called after the level and all objects have been drawn.
+   * 
+   * @param nanos duration of drawing level and objects in nanoseconds
+   */
+  void redrawFinished(long nanos);
+
+  /**
+   * draws the overlay, called after {@link #redrawFinished(long)}.
+   * 
+   * @param g2 graphics context of the redraw
+   * @param playground the level being drawn
+   */
+  void drawOverlay(Graphics2D g2, Playground playground);
+
+}
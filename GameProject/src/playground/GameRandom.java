@@ -0,0 +1,64 @@
+package playground;
+
+import java.util.Random;
+
+/**
+ * Random numbers of the game whose state can be saved and restored, see {@link Snapshot}. Uses the
+ * same generator as {@link Random}, so a seed gives the same numbers as with
+ * <code>new Random(seed)</code>. Unlike {@link Random} it is not thread-safe; the game draws random
+ * numbers on the game thread only.
+ */
+public class GameRandom extends Random {
+
+  private static final long serialVersionUID = 1L;
+  private static final long MULTIPLIER = 0x5DEECE66DL;
+  private static final long ADDEND = 0xBL;
+  private static final long MASK = (1L << 48) - 1;
+
+  private long state;
+
+  /** creates a generator with an arbitrary seed */
+  public GameRandom() {
+    this(System.nanoTime());
+  }
+
+  /**
+   * creates a generator with the given seed.
+   *
+   * @param seed the seed
+   */
+  public GameRandom(long seed) {
+    super(seed);
+    this.state = (seed ^ MULTIPLIER) & MASK;
+  }
+
+  @Override
+  public void setSeed(long seed) {
+    super.setSeed(seed);
+    this.state = (seed ^ MULTIPLIER) & MASK;
+  }
+
+  @Override
+  protected int next(int bits) {
+    state = (state * MULTIPLIER + ADDEND) & MASK;
+    return (int) (state >>> (48 - bits));
+  }
+
+  /**
+   * @return the current state, the next numbers only depend on it (the second Gaussian of a pair
+   *         computed by {@link #nextGaussian()} is not part of it)
+   */
+  public long getState() {
+    return this.state;
+  }
+
+  /**
+   * continues with the numbers following a state returned by {@link #getState()}.
+   *
+   * @param state the state
+   */
+  public void setState(long state) {
+    this.state = state & MASK;
+  }
+
+}
@@ -1,55 +1,350 @@
 package playground;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
-
-// Klasse um Highscore umzusetzen
+/**
+ * Table of the best {@link #TOP_N} scores (name, score, level and time). The table is read from
+ * disk once and then kept in memory, so reading the highscore never touches the disk. New scores
+ * are appended to a journal file on a background thread, one line per score, so the game thread
+ * never waits for the disk and an interrupted write loses at most the line being written. When the
+ * journal has grown to {@link #COMPACT_AFTER} lines it is replaced by the current table: written
+ * under a temporary name and renamed, so it is never left half written.
+ *
+ * <p>
+ * A journal line is <code>score TAB level TAB time TAB name</code>; lines that are incomplete or
+ * cannot be parsed are ignored when the journal is read.
+ * </p>
+ */
 public class HighscoreManager {
-  Scanner s;
+
+  /** number of scores kept */
+  public static final int TOP_N = 10;
+  /** number of journal lines after which the journal is compacted */
+  public static final int COMPACT_AFTER = 4 * TOP_N;
+  /** journal used by the game */
+  public static final Path DEFAULT_FILE = Paths.get("highscore.journal");
+  /** single highscore written by former versions, imported if there is no journal yet */
+  static final Path LEGACY_FILE = Paths.get("highscore.txt");
+
+  /** a score in the table */
+  public static final class Entry {
+    private final String name;
+    private final int score;
+    private final String level;
+    private final long time;
+    /** order in which entries were added to the table */
+    private long seq = 0;
+
+    Entry(String name, int score, String level, long time) {
+      this.name = name;
+      this.score = score;
+      this.level = level;
+      this.time = time;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public int getScore() {
+      return this.score;
+    }
+
+    /** @return level the game ended in */
+    public String getLevel() {
+      return this.level;
+    }
+
+    /** @return time the score was made, in milliseconds since 1970 */
+    public long getTime() {
+      return this.time;
+    }
+
+    String toLine() {
+      return score + "\t" + level + "\t" + time + "\t" + name + "\n";
+    }
+
+    static Entry parse(String line) {
+      String[] parts = line.split("\t", 4);
+      if (parts.length != 4) {
+        return null;
+      }
+      try {
+        return new Entry(parts[3], Integer.parseInt(parts[0]), parts[1], Long.parseLong(parts[2]));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return name + " " + score + " (" + level + ")";
+    }
+  }
+
+  private static HighscoreManager instance = null;
   private static Logger logger = LogManager.getLogger(HighscoreManager.class);
 
-  public HighscoreManager() {
-    try {
-      File f = new File("./highscore.txt");
-      if (!f.exists()) {
-        logger.warn("WARNING: Highscore file was not found and reset");
-        writeHSToFile(0, -1);
+  private final Path journal;
+  /** best scores first, at most {@link #TOP_N}; guarded by this */
+  private final ArrayList<Entry> table = new ArrayList<Entry>(TOP_N + 1);
+  /** number of entries submitted so far; guarded by this */
+  private long submitted = 0;
+  /** entries up to this number are contained in the journal since the last compaction */
+  private long compacted = 0;
+  /** lines in the journal file, only used by the writer thread */
+  private int journalLines = 0;
+  /** journal opened for appending by the writer thread, null if closed */
+  private FileChannel channel = null;
+  private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "highscore-writer");
+    t.setDaemon(true);
+    return t;
+  });
+
+  /**
+   * reads the table from a journal.
+   *
+   * @param journal journal file, created on the first new score
+   */
+  public HighscoreManager(Path journal) {
+    this.journal = journal;
+    read();
+  }
+
+  /** @return the table of the game, read from {@link #DEFAULT_FILE} on first call */
+  public static synchronized HighscoreManager getInstance() {
+    if (instance == null) {
+      instance = new HighscoreManager(DEFAULT_FILE);
+      Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "highscore-flush"));
+    }
+    return instance;
+  }
+
+  /** fills the table from the journal, cutting off an incomplete last line */
+  private void read() {
+    if (!Files.exists(journal)) {
+      importLegacy();
+      return;
+    }
+    String text;
+    try (FileChannel in = FileChannel.open(journal, StandardOpenOption.READ)) {
+      ByteBuffer bytes = ByteBuffer.allocate((int) in.size());
+      while (bytes.hasRemaining() && in.read(bytes) >= 0) {
+        // read until full
+      }
+      text = new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      logger.error("cannot read highscores from " + journal + ": " + e.getMessage());
+      return;
+    }
+    int end = text.lastIndexOf('\n') + 1;
+    if (end < text.length()) {
+      truncate(text.substring(0, end).getBytes(StandardCharsets.UTF_8).length);
+    }
+    for (String line : text.substring(0, end).split("\n")) {
+      Entry e = Entry.parse(line);
+      if (e != null) {
+        insert(e);
+        journalLines++;
+      } else if (!line.isEmpty()) {
+        logger.warn("ignoring damaged highscore line: " + line);
       }
-      s = new Scanner(f);
-    } catch (FileNotFoundException e) {
-      e.printStackTrace();
     }
   }
 
-  public int readHSFromFile() {
-    if (s.hasNext()) {
-      int highscore = s.nextInt();
-      return highscore;
+  /**
+   * cuts an incomplete last line off the journal, so the next score starts on a new line. Only
+   * this opens the journal for writing while it is read; if that fails, the scores read are kept.
+   */
+  private void truncate(long size) {
+    try (FileChannel out = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+      out.truncate(size);
+      logger.warn("highscore journal " + journal + " ends with an incomplete line, removed");
+    } catch (IOException e) {
+      logger.warn("cannot remove incomplete last line of " + journal + ": " + e.getMessage());
     }
-    return 0;
   }
 
-  public static void writeHSToFile(Integer pts, Integer highscore) {
-    String highscore2 = String.valueOf(pts);
-    BufferedWriter bw;
-    try {
-      if (pts > highscore) {
-        FileWriter fw = new FileWriter("./highscore.txt");
-        bw = new BufferedWriter(fw);
-        bw.write(highscore2);
-        bw.close();
-        logger.info("Highscore file was opened and saved score: " + highscore2);
+  /** takes over the single score of a former highscore.txt */
+  private void importLegacy() {
+    File legacy = LEGACY_FILE.toFile();
+    if (!journal.equals(DEFAULT_FILE) || !legacy.exists()) {
+      return;
+    }
+    try (Scanner s = new Scanner(legacy)) {
+      if (s.hasNextInt()) {
+        int score = s.nextInt();
+        if (score > 0) {
+          submit("unknown", score, "", legacy.lastModified());
+          logger.info("imported highscore " + score + " from " + LEGACY_FILE);
+        }
       }
     } catch (IOException e) {
-      logger.error("File for Highscore not writeable! Score lost.");
+      logger.warn("cannot import " + LEGACY_FILE + ": " + e.getMessage());
     }
   }
 
-  public void closeFile() {
-    s.close();
+  /** adds an entry to the table, in order; returns false if it is not good enough */
+  private synchronized boolean insert(Entry e) {
+    e.seq = ++submitted;
+    int i = table.size();
+    while (i > 0 && table.get(i - 1).score < e.score) {
+      i--;
+    }
+    if (i >= TOP_N) {
+      return false;
+    }
+    table.add(i, e);
+    if (table.size() > TOP_N) {
+      table.remove(TOP_N);
+    }
+    return true;
+  }
+
+  /** @return best score so far, 0 if there is none */
+  public synchronized int getHighscore() {
+    return table.isEmpty() ? 0 : table.get(0).score;
+  }
+
+  /** @return copy of the table, best score first */
+  public synchronized List<Entry> getTopScores() {
+    return Collections.unmodifiableList(new ArrayList<Entry>(table));
+  }
+
+  /**
+   * enters a score into the table if it is among the best {@link #TOP_N}. The table changes at
+   * once, the journal is written in the background.
+   *
+   * @param name name of the player
+   * @param score the score
+   * @param level level the game ended in
+   * @return completes when the score has been written, or at once if it was not good enough
+   */
+  public CompletableFuture<Void> submit(String name, int score, String level) {
+    return submit(name, score, level, System.currentTimeMillis());
+  }
+
+  private CompletableFuture<Void> submit(String name, int score, String level, long time) {
+    Entry e = new Entry(clean(name), score, clean(level), time);
+    if (!insert(e)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    logger.info("new highscore entry " + e);
+    return CompletableFuture.runAsync(() -> append(e), writer);
+  }
+
+  /** journal lines must not contain tabs or line breaks */
+  private static String clean(String s) {
+    return s == null ? "" : s.replaceAll("[\t\r\n]", " ");
+  }
+
+  /** runs on the writer thread */
+  private void append(Entry e) {
+    try {
+      if (e.seq <= compacted) {
+        return; // already written by a compaction
+      }
+      if (journalLines + 1 >= COMPACT_AFTER) {
+        compact();
+        return;
+      }
+      if (channel == null) {
+        channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+      }
+      ByteBuffer line = ByteBuffer.wrap(e.toLine().getBytes(StandardCharsets.UTF_8));
+      while (line.hasRemaining()) {
+        channel.write(line);
+      }
+      channel.force(false);
+      journalLines++;
+    } catch (IOException ex) {
+      logger.error("cannot write highscore " + e + " to " + journal + ": " + ex.getMessage());
+    }
   }
+
+  /** replaces the journal by the current table, runs on the writer thread */
+  private void compact() throws IOException {
+    closeChannel();
+    StringBuilder text = new StringBuilder();
+    List<Entry> entries;
+    synchronized (this) {
+      entries = getTopScores();
+      compacted = submitted;
+    }
+    for (Entry e : entries) {
+      text.append(e.toLine());
+    }
+    Path tmp = journal.resolveSibling(journal.getFileName() + ".tmp");
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+      while (bytes.hasRemaining()) {
+        out.write(bytes);
+      }
+      out.force(true);
+    }
+    try {
+      Files.move(tmp, journal, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, journal, StandardCopyOption.REPLACE_EXISTING);
+    }
+    journalLines = entries.size();
+    logger.debug("compacted highscore journal to {} lines", journalLines);
+  }
+
+  private void closeChannel() throws IOException {
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  /**
+   * waits until all scores submitted so far have been written.
+   *
+   * @param timeoutMillis maximum time to wait
+   */
+  public void flush(long timeoutMillis) {
+    try {
+      CompletableFuture.runAsync(() -> {
+      }, writer).get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (Exception e) {
+      logger.warn("highscores not written within " + timeoutMillis + " ms");
+    }
+  }
+
+  /** writes the remaining scores and closes the journal */
+  public void close() {
+    writer.shutdown();
+    try {
+      writer.awaitTermination(2, TimeUnit.SECONDS);
+      closeChannel();
+    } catch (InterruptedException | IOException e) {
+      logger.warn("closing highscore journal: " + e.getMessage());
+    }
+  }
+
 }
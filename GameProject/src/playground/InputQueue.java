@@ -0,0 +1,100 @@
+package playground;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free queue of key events from exactly one producer (the Swing event thread) to exactly one
+ * consumer (the game thread). Events are stored as primitives (type, key code, time stamp) in ring
+ * buffers, so neither side allocates or blocks. Events are delivered in the order they were
+ * offered; if the consumer does not keep up and the queue is full, new events are dropped and
+ * counted (see {@link #getDroppedCount()}).
+ */
+public class InputQueue {
+
+  /** event type of a key press (including auto-repeat while the key is held) */
+  public static final byte KEY_PRESSED = 1;
+  /** event type of a key release */
+  public static final byte KEY_RELEASED = 2;
+
+  /** default capacity, far more than can be typed within one frame */
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private final byte[] types;
+  private final int[] keyCodes;
+  private final long[] times;
+  private final int mask;
+
+  /** next position to read, written by the consumer only */
+  private final AtomicLong head = new AtomicLong();
+  /** next position to write, written by the producer only */
+  private final AtomicLong tail = new AtomicLong();
+  /** last value of {@link #head} seen by the producer */
+  private long producerHead = 0;
+  private volatile int dropped = 0;
+
+  public InputQueue() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity maximum number of events not yet consumed, rounded up to a power of 2
+   */
+  public InputQueue(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    this.types = new byte[size];
+    this.keyCodes = new int[size];
+    this.times = new long[size];
+    this.mask = size - 1;
+  }
+
+  /**
+   * adds an event. Call from the producer thread only.
+   * 
+   * @param type {@link #KEY_PRESSED} or {@link #KEY_RELEASED}
+   * @param keyCode key code as defined in {@link java.awt.event.KeyEvent}
+   * @param timeNanos time stamp of the event, as by {@link System#nanoTime()}
+   * @return false if the queue was full and the event was dropped
+   */
+  public boolean offer(byte type, int keyCode, long timeNanos) {
+    long t = tail.get();
+    if (t - producerHead > mask) {
+      producerHead = head.get();
+      if (t - producerHead > mask) {
+        dropped++;
+        return false;
+      }
+    }
+    int i = (int) (t & mask);
+    types[i] = type;
+    keyCodes[i] = keyCode;
+    times[i] = timeNanos;
+    tail.lazySet(t + 1); // publishes the event
+    return true;
+  }
+
+  /**
+   * moves all queued events to the given key input, in the order they were offered. Call from the
+   * consumer thread only.
+   * 
+   * @param target receives the events
+   * @return number of events moved
+   */
+  public int drainTo(KeyInput target) {
+    long h = head.get();
+    long t = tail.get();
+    for (long n = h; n < t; n++) {
+      int i = (int) (n & mask);
+      target.add(types[i], keyCodes[i], times[i]);
+    }
+    head.lazySet(t); // frees the slots for the producer
+    return (int) (t - h);
+  }
+
+  /**
+   * @return number of events dropped so far because the queue was full
+   */
+  public int getDroppedCount() {
+    return dropped;
+  }
+
+}
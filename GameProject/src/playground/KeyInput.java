@@ -0,0 +1,138 @@
+package playground;
+
+import java.util.Arrays;
+
+/**
+ * Key input of a level on the game thread: the key events of the current frame, read one after
+ * another with {@link #next()} in the order they occurred, and which keys are currently held down.
+ * Events stay until they have been read, like the events of a queue; reading an event also
+ * consumes it for all later readers. The key state is updated when events arrive, independent of
+ * reading them.
+ * 
+ * <pre>
+ * KeyInput input = getPlayground().getKeyInput();
+ * while (input.next()) {
+ *   if (input.isPressed() &amp;&amp; input.getKeyCode() == KeyEvent.VK_SPACE) {
+ *     shoot();
+ *   }
+ * }
+ * </pre>
+ */
+public class KeyInput {
+
+  /** key codes below this value are tracked in the key state */
+  public static final int MAX_TRACKED_KEY_CODE = 1024;
+
+  private byte[] types = new byte[64];
+  private int[] keyCodes = new int[64];
+  private long[] times = new long[64];
+  private int count = 0;
+  /** index of the current event, -1 before the first call of {@link #next()} */
+  private int cursor = -1;
+
+  /** bit set of keys held down */
+  private final long[] down = new long[MAX_TRACKED_KEY_CODE / 64];
+
+  /**
+   * appends an event and updates the key state, called by
+   * {@link InputQueue#drainTo(KeyInput)}.
+   * 
+   * @param type {@link InputQueue#KEY_PRESSED} or {@link InputQueue#KEY_RELEASED}
+   * @param keyCode key code as defined in {@link java.awt.event.KeyEvent}
+   * @param timeNanos time stamp of the event
+   */
+  public void add(byte type, int keyCode, long timeNanos) {
+    if (cursor >= 0) {
+      compact();
+    }
+    if (count == types.length) {
+      types = Arrays.copyOf(types, 2 * count);
+      keyCodes = Arrays.copyOf(keyCodes, 2 * count);
+      times = Arrays.copyOf(times, 2 * count);
+    }
+    types[count] = type;
+    keyCodes[count] = keyCode;
+    times[count] = timeNanos;
+    count++;
+    if (keyCode >= 0 && keyCode < MAX_TRACKED_KEY_CODE) {
+      if (type == InputQueue.KEY_PRESSED) {
+        down[keyCode >> 6] |= 1L << keyCode;
+      } else {
+        down[keyCode >> 6] &= ~(1L << keyCode);
+      }
+    }
+  }
+
+  /** removes the events already read */
+  private void compact() {
+    int read = Math.min(cursor + 1, count);
+    System.arraycopy(types, read, types, 0, count - read);
+    System.arraycopy(keyCodes, read, keyCodes, 0, count - read);
+    System.arraycopy(times, read, times, 0, count - read);
+    count -= read;
+    cursor = -1;
+  }
+
+  /**
+   * moves to the next unread event.
+   * 
+   * @return false if there is none
+   */
+  public boolean next() {
+    if (cursor + 1 >= count) {
+      cursor = count - 1;
+      return false;
+    }
+    cursor++;
+    return true;
+  }
+
+  /**
+   * @return key code of the current event
+   */
+  public int getKeyCode() {
+    return keyCodes[cursor];
+  }
+
+  /**
+   * @return true if the current event is a key press, false for a release
+   */
+  public boolean isPressed() {
+    return types[cursor] == InputQueue.KEY_PRESSED;
+  }
+
+  /**
+   * @return time stamp of the current event in nanoseconds
+   */
+  public long getTime() {
+    return times[cursor];
+  }
+
+  /**
+   * @return number of events not yet read
+   */
+  public int getPendingCount() {
+    return count - cursor - 1;
+  }
+
+  /**
+   * tells whether a key is held down, according to all events received so far.
+   * 
+   * @param keyCode key code as defined in {@link java.awt.event.KeyEvent}
+   * @return true if the last event of the key was a press
+   */
+  public boolean isKeyDown(int keyCode) {
+    if (keyCode < 0 || keyCode >= MAX_TRACKED_KEY_CODE) {
+      return false;
+    }
+    return (down[keyCode >> 6] & (1L << keyCode)) != 0;
+  }
+
+  /** removes all events and releases all keys */
+  public void clear() {
+    count = 0;
+    cursor = -1;
+    Arrays.fill(down, 0);
+  }
+
+}
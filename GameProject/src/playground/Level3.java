@@ -26,11 +26,11 @@ public class Level3 extends SpaceInvadersLevel {
   @Override
   protected GameObject createSingleEnemy(String name, double x_enemy, double y_enemy,
       double vx_enemy, double vy_enemy, ObjectController enemyController, double gameTime) {
-    logger.trace("creating enemy [" + name + "] with ZickZackController ");
+    logger.trace("creating enemy [{}] with ZickZackController", name);
     ObjectController zzController = new ZickZackController(gameTime, 0.5);
     GameObject go = new AnimatedGameobject(name, this, x_enemy, y_enemy, vx_enemy, vy_enemy,
-        ENEMYSCALE, this.enemyAnim, this.getGameTime(), "loop").addController(zzController)
-            .generateColliders();
+        ENEMYSCALE, this.enemyAnim, this.getGameTime(), Animation.PlayMode.LOOP)
+            .addController(zzController).generateColliders();
 
     return go.generateColliders();
   }
@@ -32,21 +32,18 @@ public class Level4 extends SpaceInvadersLevel {
   void actionIfEnemyIsHit(GameObject e, GameObject shot) {
     double gameTime = this.getGameTime();
 
-    Object counterFlag = e.getOrCreateObjectFlag("counter", Integer.valueOf(1));
-
-    int counter = (Integer) counterFlag;
+    int counter = e.getObjectFlags().getInt(FLAG_COUNTER, 1);
 
     if (counter >= MAX_HITS) {
-      logger.trace("enemy was hit before for " + counter + " times, which is above "
-          + LevelHitTwice.MAX_HITS);
+      logger.trace("enemy was hit before for {} times, which is above {}", counter, MAX_HITS);
       super.actionIfEnemyIsHit(e, shot);
     } else {
-      logger.trace("enemy was hit before for "+counter+" times, which is below "+LevelHitTwice.MAX_HITS);
-      e.setObjectFlag("counter", Integer.valueOf(counter + 1));
+      logger.trace("enemy was hit before for {} times, which is below {}", counter, MAX_HITS);
+      e.getObjectFlags().setInt(FLAG_COUNTER, counter + 1);
       // spawn a bonus points object
-      double vx = 2 * (Math.random() - 0.5) * SHARDSPEED + e.getVX();
-      double vy = 2 * (Math.random() - 0.5) * SHARDSPEED + e.getVY();
-      logger.trace("creating new TextObject bonus" + e.getId());
+      double vx = 2 * (getRandom().nextDouble() - 0.5) * SHARDSPEED + e.getVX();
+      double vy = 2 * (getRandom().nextDouble() - 0.5) * SHARDSPEED + e.getVY();
+      logger.trace("creating new TextObject bonus{}", e.getId());
       LimitedTimeController bonusTextController =
           new LimitedTimeController(gameTime, SpaceInvadersLevel.EXPL_DURATION);
       GameObject bonusText = new TextObject("bonus" + e.getId(), this, e.getX(), e.getY(), vx, vy,
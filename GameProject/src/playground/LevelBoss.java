@@ -18,7 +18,7 @@ import gameobjects.TextObject;
  * {@link EgoObject}. Functions performed by this class are:
  * <ul>
  * <li>initially set up the level, spawn all object etc., in method {@link #prepareLevel}
- * <li>React to keyboard commands in method {@link #processKeyEvents(java.util.Stack)}
+ * <li>React to keyboard commands in method {@link #processKeyEvents(InputQueue)}
  * <li>define basic object movement rules for all objects in the level in the various
  * ObjectController subclasses: {@link EgoController} and {@link FallingStarController}.
  * </ul>
@@ -31,18 +31,16 @@ public class LevelBoss extends SpaceInvadersLevel {
   @Override
   void actionIfEnemyIsHit(GameObject e, GameObject shot) {
 
-    Object counterFlag = e.getOrCreateObjectFlag("counter", Integer.valueOf(1));
-
-    int counter = (Integer) counterFlag;
+    int counter = e.getObjectFlags().getInt(FLAG_COUNTER, 1);
 
     if (counter >= LevelBoss.MAX_SHOTS) {
-      logger.trace("enemy was hit before for " + counter + " times, which is equal or above "
-          + LevelHitTwice.MAX_HITS);
+      logger.trace("enemy was hit before for {} times, which is equal or above {}", counter,
+          LevelBoss.MAX_SHOTS);
       super.actionIfEnemyIsHit(e, shot);
     } else {
-      logger.trace("enemy was hit before for " + counter + " times, which is below "
-          + LevelHitTwice.MAX_HITS);
-      e.setObjectFlag("counter", Integer.valueOf(counter + 1));
+      logger.trace("enemy was hit before for {} times, which is below {}", counter,
+          LevelBoss.MAX_SHOTS);
+      e.getObjectFlags().setInt(FLAG_COUNTER, counter + 1);
     }
     deleteObject(shot.getId());
   }
@@ -72,6 +70,17 @@ public class LevelBoss extends SpaceInvadersLevel {
   @Override
   protected GameObject createEnemyShotObject(GameObject parentObject, String name,
       ObjectController limitedTimeController) {
+    logger.trace("Creating EnemyShot as TextObject [{}] towards ego", name);
+    GameObject to = new TextObject(name, this, parentObject.getX(), parentObject.getY(), 0, 0,
+        "*", 20, Color.GREEN).generateColliders().addController(limitedTimeController);
+    aimEnemyShot(to, parentObject);
+    return to;
+
+  }
+
+
+  @Override
+  protected void aimEnemyShot(GameObject shot, GameObject parentObject) {
     GameObject ego = this.getObject("ego");
 
     double deltax = parentObject.getX() - ego.getX();
@@ -81,12 +90,11 @@ public class LevelBoss extends SpaceInvadersLevel {
     deltax *= -ENEMYSHOTSPEED / norm;
     deltay *= -ENEMYSHOTSPEED / norm;
 
-    logger.trace("Creating EnemyShot as TextObject [" + name + "] in direction " + deltax + "/"
-        + deltay + " towards ego");
-    GameObject to = new TextObject(name, this, parentObject.getX(), parentObject.getY(), deltax,
-        deltay, "*", 20, Color.GREEN).generateColliders().addController(limitedTimeController);
-    return to;
-
+    if (Trace.ENABLED) {
+      logger.trace("EnemyShot [{}] in direction {}/{}", shot.getId(), deltax, deltay);
+    }
+    shot.setVX(deltax);
+    shot.setVY(deltay);
   }
 
 
@@ -95,8 +103,8 @@ public class LevelBoss extends SpaceInvadersLevel {
       double vx_enemy, double vy_enemy, ObjectController enemyController, double gameTime) {
 
     GameObject go = new AnimatedGameobject(name, this, this.canvasX / 2, 10, vx_enemy, 50,
-        ENEMYSCALE * 3, this.enemyAnim, this.getGameTime(), "loop").generateColliders()
-            .addController(enemyController);
+        ENEMYSCALE * 3, this.enemyAnim, this.getGameTime(), Animation.PlayMode.LOOP)
+            .generateColliders().addController(enemyController);
 
     return go;
   }
@@ -45,17 +45,14 @@ public class LevelHitTwice extends SpaceInvadersLevel {
 
   @Override
   void actionIfEnemyIsHit(GameObject e, GameObject shot) {    
-    Object counterFlag = e.getOrCreateObjectFlag("counter", Integer.valueOf(1));
-
-    int counter = (Integer) counterFlag;
+    int counter = e.getObjectFlags().getInt(FLAG_COUNTER, 1);
 
     if (counter >= MAX_HITS) {
-      logger.trace("enemy was hit before for " + counter + " times, which is above "
-          + LevelHitTwice.MAX_HITS);
+      logger.trace("enemy was hit before for {} times, which is above {}", counter, MAX_HITS);
       super.actionIfEnemyIsHit(e, shot);
     } else {
-      logger.trace("enemy was hit before for "+counter+" times, which is below "+LevelHitTwice.MAX_HITS);
-      e.setObjectFlag("counter", Integer.valueOf(counter + 1));
+      logger.trace("enemy was hit before for {} times, which is below {}", counter, MAX_HITS);
+      e.getObjectFlags().setInt(FLAG_COUNTER, counter + 1);
     }
     deleteObject(shot.getId());
   }
@@ -1,48 +1,46 @@
 package playground;
 
 import java.io.File;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.FloatControl;
 
+/**
+ * Plays sound effects, see {@link AudioEngine}.
+ */
 public class Music {
-  private static final float volume = 0.02f; // scale 0 silence, 1 no change, 2 double. (linear).
-
-  public static synchronized void music(File track) {
-
-    final File trackname = track;
-
-    new Thread(new Runnable() {
-
-      @Override
-      public void run() {
-        while (true) {
-
-          try {
-
-            Clip clip = AudioSystem.getClip();
-            AudioInputStream inputstream = AudioSystem.getAudioInputStream(trackname);
-            clip.open(inputstream);
-            FloatControl volumeControl =
-                (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            if (volumeControl != null) {
-              volumeControl.setValue(20f * (float) Math.log10(volume));
-            }
-            clip.start();
-
-            Thread.sleep(clip.getMicrosecondLength() / 1);
-
-          } catch (Exception e) {
-            e.printStackTrace();
-          }
-
-        }
-
-      }
+  private static volatile boolean enabled = true;
+
+  /**
+   * enables or disables all sound output, e.g. for headless simulation without audio device.
+   * 
+   * @param on false to silently ignore all calls of {@link #music(File)}
+   */
+  public static void setEnabled(boolean on) {
+    enabled = on;
+  }
 
-    }).start();
+  /**
+   * decodes a sound file in advance, so that the first {@link #music(File)} does not need to read
+   * it. Should be called when a level is prepared.
+   * 
+   * @param track WAV file
+   */
+  public static void preload(File track) {
+    if (!enabled || track == null) {
+      return;
+    }
+    AudioEngine.getInstance().load(track);
+  }
 
+  /**
+   * plays a sound file once. Returns immediately, the file is only read on its first use.
+   * 
+   * @param track WAV file
+   */
+  public static void music(File track) {
+    if (!enabled || track == null) {
+      return;
+    }
+    AudioEngine engine = AudioEngine.getInstance();
+    engine.play(engine.load(track));
   }
 
 }
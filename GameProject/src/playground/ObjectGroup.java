@@ -0,0 +1,52 @@
+package playground;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import gameobjects.GameObject;
+
+/**
+ * All objects of a {@link Playground} registered under the same tag (see
+ * {@link GameObject#addTag(String)}). Members are kept in insertion order and can be added and
+ * removed in constant time. Maintained by {@link Playground#addObjectNow(GameObject)} and
+ * {@link Playground#deleteObjectNow(String)}, never changed directly by levels.
+ */
+class ObjectGroup {
+
+  private final LinkedHashMap<String, GameObject> members = new LinkedHashMap<String, GameObject>();
+  private final Collection<GameObject> view = Collections.unmodifiableCollection(members.values());
+
+  void add(GameObject o) {
+    members.put(o.getId(), o);
+  }
+
+  void remove(GameObject o) {
+    // only remove if it is still the same instance (ids can be reused)
+    if (members.get(o.getId()) == o) {
+      members.remove(o.getId());
+    }
+  }
+
+  /**
+   * moves the members with the given ids to the front, in this order. Ids that are no members are
+   * ignored, members that are not listed keep their order behind them.
+   */
+  void reorder(List<String> ids) {
+    LinkedHashMap<String, GameObject> rest = new LinkedHashMap<String, GameObject>(members);
+    members.clear();
+    for (String id : ids) {
+      GameObject o = rest.remove(id);
+      if (o != null) {
+        members.put(id, o);
+      }
+    }
+    members.putAll(rest);
+  }
+
+  /** @return read-only live view of all members */
+  Collection<GameObject> members() {
+    return view;
+  }
+
+}
@@ -1,12 +1,21 @@
 package playground;
 
 import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.awt.event.*;
+import gameobjects.EntityStore;
 import gameobjects.GameObject;
+import gameobjects.ObjectPool;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -16,13 +25,16 @@ import org.apache.logging.log4j.LogManager;
  * <ul>
  * <li>manages the different moving or static objects in a level (e.g., collisions, adding objects,
  * removing objects). This is mainly done by the methods {@link #addObject}, {@link #deleteObject}.
- * <li>processes keyboard inputs provided by GameLoop in {@link #processKeyEvents(Stack)} and
+ * Objects can be grouped by tags (see {@link GameObject#addTag(String)}) and retrieved per group
+ * with {@link #getObjectsByTag(String)}.
+ * <li>processes keyboard inputs provided by GameLoop in {@link #processKeyEvents(InputQueue)} and
  * {@link #processMouseEvents(Stack)}
  * <li>represents the state of a level represented by <b>flags</b>. Each flag has a name (a String)
  * and an arbitrary value of any type. Methods: {@link #setLevelFlag(String, Object)},
  * {@link #getLevelFlag(String)}. As an example, the current score is a flag usually named "points",
  * with an Integer as a value. This value can be retrieved and manipulated using the above mentioned
- * methods.
+ * methods, or without boxing through a {@link Flag} handle and the tables returned by
+ * {@link #getGlobalFlags()} and {@link #getLevelFlags()}.
  * </ul>
  */
 public abstract class Playground {
@@ -30,26 +42,72 @@ public abstract class Playground {
   public static final int FLAGS_GLOBAL = 1;
   public static final int FLAGS_LEVEL = 2;
   public static final int FLAGS_ALL = 3;
+  /** global flag set to the input of the current frame */
+  public static final Flag FLAG_INPUTS = Flag.of("inputs");
   protected int canvasX = -1;
   protected int canvasY = -1;
 
   /** only one set of objects exists concurrently so this can be static */
   protected static HashMap<String, GameObject> gameObjects = new HashMap<String, GameObject>();
 
-  /** only one set of objects exists concurrently so this can be static */
-  protected static HashMap<String, Object> flags = new HashMap<String, Object>();
+  /** index of {@link #gameObjects} by tag, kept in sync on every add and delete */
+  private static HashMap<String, ObjectGroup> groups = new HashMap<String, ObjectGroup>();
+
+  /** maximum number of unused objects kept per pool, see {@link #getObjectPool(String)} */
+  public static final int POOL_SIZE = 256;
+
+  /** pools of reusable objects of this level by name */
+  private HashMap<String, ObjectPool<?>> pools = new HashMap<String, ObjectPool<?>>();
+
+  /** optional array storage of the objects' positions, see {@link #setEntityStore(EntityStore)} */
+  private static EntityStore entityStore = null;
+
+  /**
+   * source of all random numbers of the levels, see {@link #setRandomSeed(long)}. Levels and
+   * objects must not use {@link Math#random()}, otherwise sessions cannot be replayed.
+   */
+  private static Random random = new GameRandom();
+
+  /** flags of all levels, see {@link #getGlobalFlags()} */
+  private static final FlagTable.Scope globalScope = new FlagTable.Scope();
+  private static final FlagTable.Scope levelScope = new FlagTable.Scope();
+  private static final FlagTable globalFlags = new FlagTable(globalScope);
+  /** flags of each level by level name, see {@link #getLevelFlags()} */
+  private static HashMap<String, FlagTable> levelFlags = new HashMap<String, FlagTable>();
+  /** table of {@link #level} looked up last, to avoid the lookup while the name is unchanged */
+  private FlagTable levelFlagsTable = null;
+  private String levelFlagsName = null;
 
   protected String level = "";
   protected double timeStep = 0;
   protected double gameTime = 0;
+  protected double renderAlpha = 1.;
+  /**
+   * pool updating the objects with parallel-safe controllers in {@link #updateObjects()}, null for
+   * updating all objects one after another (default)
+   */
+  private static ForkJoinPool updatePool = null;
+  /** minimum number of objects updated by one task of a parallel update */
+  public static final int MIN_UPDATE_CHUNK = 256;
+  /** objects of the current parallel update in update order */
+  private final ArrayList<GameObject> updateOrder = new ArrayList<GameObject>();
+  private final ArrayList<UpdateBuffer> chunkBuffers = new ArrayList<UpdateBuffer>();
+  private final UpdateBuffer sequentialBuffer = new UpdateBuffer();
+  /** buffer for adds and deletes of the calling thread while it updates objects in parallel mode */
+  private final ThreadLocal<UpdateBuffer> currentBuffer = new ThreadLocal<UpdateBuffer>();
+
   LinkedList<GameObject> addables = new LinkedList<GameObject>();
   LinkedList<String> removables = new LinkedList<String>();
   // HashMap<Integer,Integer> keys ;
-  Stack<KeyEvent> keyEvents;
+  /** key events and key state, filled by {@link #processKeyEvents(InputQueue)} */
+  private final KeyInput keyInput = new KeyInput();
   Stack<MouseEvent> mouseEvents;
 
   protected boolean pausedFlag = false;
 
+  /** drawn on top of every level if not null, see {@link #setFrameOverlay(FrameOverlay)} */
+  private static volatile FrameOverlay overlay = null;
+
   private static Logger logger = LogManager.getLogger(Playground.class);
 
   public Playground() {
@@ -70,7 +128,12 @@ public abstract class Playground {
    */
   public void addObject(GameObject o) {
     // gameObjects.put(o.getId(), o);
-    addables.addLast(o);
+    UpdateBuffer buffer = updatePool != null ? currentBuffer.get() : null;
+    if (buffer != null) {
+      buffer.add(o);
+    } else {
+      addables.addLast(o);
+    }
   }
 
   /**
@@ -79,7 +142,107 @@ public abstract class Playground {
    * @param o GameObject The object to be added
    */
   public void addObjectNow(GameObject o) {
-    gameObjects.put(o.getId(), o);
+    GameObject old = gameObjects.put(o.getId(), o);
+    if (old != null && old != o) {
+      removeFromGroups(old);
+      old.detach();
+    }
+    if (entityStore != null) {
+      o.attachTo(entityStore);
+    }
+    for (String tag : o.getTags()) {
+      ObjectGroup group = groups.get(tag);
+      if (group == null) {
+        group = new ObjectGroup();
+        groups.put(tag, group);
+      }
+      group.add(o);
+    }
+  }
+
+
+  private static void removeFromGroups(GameObject o) {
+    for (String tag : o.getTags()) {
+      ObjectGroup group = groups.get(tag);
+      if (group != null) {
+        group.remove(o);
+      }
+    }
+  }
+
+
+  /**
+   * writes the ids of the members of all groups in iteration order, see {@link Snapshot}.
+   */
+  static void writeGroupOrder(StateBuffer out) {
+    out.putVarInt(groups.size());
+    for (Map.Entry<String, ObjectGroup> group : groups.entrySet()) {
+      out.putString(group.getKey());
+      out.putVarInt(group.getValue().members().size());
+      for (GameObject o : group.getValue().members()) {
+        out.putString(o.getId());
+      }
+    }
+  }
+
+
+  /**
+   * puts the members of the groups back into the order written by
+   * {@link #writeGroupOrder(StateBuffer)}, so that levels iterating over a group visit its objects
+   * in the same order as before the snapshot.
+   */
+  static void readGroupOrder(StateBuffer in) {
+    int nrGroups = in.getVarInt();
+    for (int g = 0; g < nrGroups; g++) {
+      ObjectGroup group = groups.get(in.getString());
+      ArrayList<String> ids = new ArrayList<String>();
+      for (int n = in.getVarInt(); n > 0; n--) {
+        ids.add(in.getString());
+      }
+      if (group != null) {
+        group.reorder(ids);
+      }
+    }
+  }
+
+
+  /**
+   * Returns all objects currently in the level that were tagged with the given tag before they
+   * were added (see {@link GameObject#addTag(String)}). In contrast to
+   * {@link #collectObjects(String, boolean)} this does not scan all objects and does not copy.
+   * The returned collection is a read-only live view: objects added or deleted with
+   * {@link #addObject(GameObject)} and {@link #deleteObject(String)} appear or disappear after the
+   * next {@link #updateObjects()}. Do not call {@link #addObjectNow(GameObject)} or
+   * {@link #deleteObjectNow(String)} while iterating over it.
+   * 
+   * @param tag name of the group
+   * @return all objects with this tag (inactive ones included), empty if there are none
+   */
+  public Collection<GameObject> getObjectsByTag(String tag) {
+    ObjectGroup group = groups.get(tag);
+    if (group == null) {
+      return Collections.emptyList();
+    }
+    return group.members();
+  }
+
+
+  /**
+   * Like {@link #getObjectsByTag(String)}, but returns a copy that can be modified and optionally
+   * filters inactive objects.
+   * 
+   * @param tag name of the group
+   * @param filterInactive if set true only active objects are considered.
+   * @return a new LinkedList filled with all objects with this tag
+   */
+  public LinkedList<GameObject> collectObjectsByTag(String tag, boolean filterInactive) {
+    LinkedList<GameObject> l = new LinkedList<GameObject>();
+    for (GameObject obj : getObjectsByTag(tag)) {
+      if (filterInactive == false || obj.isActive()) {
+        l.add(obj);
+      }
+    }
+    return l;
   }
 
 
@@ -118,7 +281,12 @@ public abstract class Playground {
    */
   public void deleteObject(String id) {
     // gameObjects.remove(id);
-    removables.addLast(id);
+    UpdateBuffer buffer = updatePool != null ? currentBuffer.get() : null;
+    if (buffer != null) {
+      buffer.remove(id);
+    } else {
+      removables.addLast(id);
+    }
   }
 
   /**
@@ -127,7 +295,33 @@ public abstract class Playground {
    * @param id String The unique identifier of the object
    */
   public void deleteObjectNow(String id) {
-    gameObjects.remove(id);
+    GameObject o = gameObjects.remove(id);
+    if (o != null) {
+      removeFromGroups(o);
+      o.detach();
+      if (o.getPool() != null) {
+        o.getPool().release(o);
+      }
+    }
+  }
+
+
+  /**
+   * returns the pool of reusable objects with the given name, creates it if needed. Objects
+   * registered with a pool are given back to it when they are deleted from the level.
+   * 
+   * @param <T> type of the pooled objects
+   * @param name name of the pool, e.g. the tag of the objects
+   * @return the pool (never null)
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends GameObject> ObjectPool<T> getObjectPool(String name) {
+    ObjectPool<?> pool = pools.get(name);
+    if (pool == null) {
+      pool = new ObjectPool<T>(name, POOL_SIZE);
+      pools.put(name, pool);
+    }
+    return (ObjectPool<T>) pool;
   }
 
 
@@ -142,58 +336,95 @@ public abstract class Playground {
   }
 
   /**
-   * Sets a level-wide permanent flag.
+   * returns the global flags, kept over all levels until {@link #resetFlags(int)} is called with
+   * {@link #FLAGS_GLOBAL} or {@link #FLAGS_ALL}.
    * 
-   * @param flag String Q unique name in this level. If it exists value is overwritten.
-   * @param value Object Any Object can be the value of a flag!
+   * @return the table of global flags
    */
+  public static FlagTable getGlobalFlags() {
+    return globalFlags;
+  }
+
+  /**
+   * returns the flags of this level (of its name {@link #level}), removed by
+   * {@link #resetFlags(int)} with {@link #FLAGS_LEVEL} or {@link #FLAGS_ALL}.
+   * 
+   * @return the table of level flags
+   */
+  public FlagTable getLevelFlags() {
+    if (this.levelFlagsName != this.level) {
+      FlagTable table = levelFlags.get(this.level);
+      if (table == null) {
+        table = new FlagTable(levelScope);
+        levelFlags.put(this.level, table);
+      }
+      this.levelFlagsTable = table;
+      this.levelFlagsName = this.level;
+    }
+    return this.levelFlagsTable;
+  }
+
+  /**
+   * creates an empty table for the flags of a single object, see
+   * {@link GameObject#getObjectFlags()}. Object flags belong to the level scope, they are removed
+   * together with the level flags.
+   * 
+   * @return a new table
+   */
+  public static FlagTable createObjectFlags() {
+    return new FlagTable(levelScope);
+  }
 
+  /**
+   * Sets a global flag. Prefer {@link #getGlobalFlags()} with a {@link Flag} handle in code run
+   * every frame, this method looks up the handle by name.
+   * 
+   * @param flag String unique name. If it exists value is overwritten.
+   * @param value Object Any Object can be the value of a flag!
+   */
   public static void setGlobalFlag(String flag, Object value) {
-    flags.put("/global/" + flag, value);
+    globalFlags.set(Flag.of(flag), value);
   }
 
+  /**
+   * Sets a level-wide flag, see {@link #getLevelFlags()}.
+   * 
+   * @param flag String unique name in this level. If it exists value is overwritten.
+   * @param value Object Any Object can be the value of a flag!
+   * @return the value
+   */
   public Object setLevelFlag(String flag, Object value) {
-    flags.put("/" + this.level + "/" + flag, value);
+    getLevelFlags().set(Flag.of(flag), value);
     return value;
   }
 
   /**
-   * mode can be: FLAGS_ALL (all), FLAGS_GLOBAL(global), FLAGs_LEVEL(level)
+   * mode can be: FLAGS_ALL (all), FLAGS_GLOBAL(global), FLAGs_LEVEL(level, including the flags of
+   * all objects). Takes constant time, independent of the number of flags.
    * 
    * @param mode can be only one of {@link #FLAGS_GLOBAL} {@link #FLAGS_ALL} or
    *        {@link #FLAGS_LEVEL }
    */
   public void resetFlags(int mode) {
-    LinkedList<String> delKeys = new LinkedList<String>();
-    for (Map.Entry<String, Object> entry : Playground.flags.entrySet()) {
-      logger.trace(entry.getKey() + " IndexofGlobal = " + entry.getKey().indexOf("/global/"));
-      if ((mode == FLAGS_GLOBAL) && (entry.getKey().indexOf("/global/") != -1)) {
-        logger.debug("GLOBAL: scheduling for removal: " + entry.getKey());
-        delKeys.add(entry.getKey());
-      } else if ((mode == FLAGS_LEVEL) && (entry.getKey().indexOf("/global/") == -1)) {
-        logger.debug("LEVEL: scheduling for removal: " + entry.getKey());
-        delKeys.add(entry.getKey());
-      } else if (mode == FLAGS_ALL) {
-        logger.debug("ALL: scheduling for removal: " + entry.getKey());
-        delKeys.add(entry.getKey());
-      }
+    if ((mode & FLAGS_GLOBAL) != 0) {
+      logger.debug("removing global flags");
+      globalScope.reset();
     }
-
-    for (String str : delKeys) {
-      logger.trace("removing key " + str);
-      flags.remove(str);
+    if ((mode & FLAGS_LEVEL) != 0) {
+      logger.debug("removing level flags");
+      levelScope.reset();
     }
   }
 
 
   /**
-   * Retrieves a level-wide flag by name.
+   * Retrieves a global flag by name.
    * 
    * @param flag String Unique flag id
    * @return the value associated with <b>flag</b>, or <b>null</b> if the flag does not exist.
    */
   public static Object getGlobalFlag(String flag) {
-    return flags.get("/global/" + flag);
+    return globalFlags.get(Flag.of(flag));
   }
 
   /** checks for existence and if not creates the new global flag with the given initial value. Returns the value.
@@ -215,7 +446,7 @@ public abstract class Playground {
 
 
   public Object getLevelFlag(String flag) {
-    return flags.get("/" + this.level + "/" + flag);
+    return getLevelFlags().get(Flag.of(flag));
   }
 
   public Object getOrCreateLevelFlag(String flag, Object createValue) {
@@ -232,7 +463,17 @@ public abstract class Playground {
    * Reinitializes the level.
    */
   public void reset() {
+    for (GameObject o : gameObjects.values()) {
+      o.detach();
+      if (o.getPool() != null) {
+        o.getPool().release(o);
+      }
+    }
+    for (ObjectPool<?> pool : pools.values()) {
+      logger.info(pool);
+    }
     gameObjects.clear();
+    groups.clear();
   }
 
   public boolean isPaused() {
@@ -250,25 +491,28 @@ public abstract class Playground {
 
 
   /**
-   * Method meant to be filled with own code, processes Keyboard inputs.
+   * Method meant to be filled with own code, processes Keyboard inputs. This implementation moves
+   * all queued events to {@link #getKeyInput()}, where controllers read them.
    * 
-   * @param keyEvents all collected {@link KeyEvent}s collected since last game loop.
+   * @param keyEvents queue of all key events collected since last game loop.
    */
-
-  public void processKeyEvents(Stack<KeyEvent> keyEvents) {
-    this.keyEvents = keyEvents;
-    Playground.setGlobalFlag("inputs", keyEvents);
+  public void processKeyEvents(InputQueue keyEvents) {
+    keyEvents.drainTo(this.keyInput);
+    globalFlags.set(FLAG_INPUTS, this.keyInput);
   }
 
 
   public void processMouseEvents(Stack<MouseEvent> mouseEvents) {
     this.mouseEvents = mouseEvents;
-    Playground.setGlobalFlag("inputs", mouseEvents);
+    globalFlags.set(FLAG_INPUTS, mouseEvents);
   }
 
 
-  public Stack<KeyEvent> getKeyEvents() {
-    return this.keyEvents;
+  /**
+   * @return key events not yet read and the current key state of this level
+   */
+  public KeyInput getKeyInput() {
+    return this.keyInput;
   }
 
   public Stack<MouseEvent> getMouseEvents() {
@@ -290,6 +534,37 @@ public abstract class Playground {
    */
   public abstract void prepareLevel(String level);
 
+  /**
+   * lists the files this level loads in {@link #prepareLevel(String)}, so that they can be loaded
+   * in the background before, see {@link AssetCache#preload(Collection)}. Levels should get these
+   * assets from the {@link AssetCache}.
+   * 
+   * @return paths of animation description files and sounds, empty by default
+   */
+  public List<String> getAssetManifest() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * saves the state of this level that is not kept in objects and flags, e.g. fields set by
+   * {@link #prepareLevel(String)}. Called by {@link Snapshot#capture(Playground, int)} after the
+   * objects were saved. This implementation saves nothing.
+   * 
+   * @param out buffer to write to
+   */
+  protected void writeLevelState(StateBuffer out) {
+  }
+
+  /**
+   * restores the state saved by {@link #writeLevelState(StateBuffer)}, instead of
+   * {@link #prepareLevel(String)}. Called by {@link Snapshot#restore(Playground)} after the objects
+   * and flags were restored, so it can also look up objects the level keeps references to.
+   * 
+   * @param in buffer to read from
+   */
+  protected void readLevelState(StateBuffer in) {
+  }
+
   public abstract boolean gameOver();
 
   public abstract boolean levelFinished();
@@ -307,12 +582,29 @@ public abstract class Playground {
    * 
    */
   public void updateObjects() {
-    for (GameObject gameObject : gameObjects.values()) { // Iterator usage
-      if (gameObject.isActive() == true) {
-        gameObject.updateObject();
-        logger.trace("updated object " + gameObject.scol);
+    EntityStore store = entityStore;
+    if (store != null) {
+      store.storePreviousPositions();
+    }
+    ForkJoinPool pool = updatePool;
+    if (pool != null) {
+      updateObjectsParallel(pool);
+    } else {
+      for (GameObject gameObject : gameObjects.values()) { // Iterator usage
+        if (!gameObject.isInEntityStore()) {
+          gameObject.storePreviousPosition();
+        }
+        if (gameObject.isActive() == true) {
+          gameObject.updateObject();
+          if (Trace.ENABLED) {
+            logger.trace("updated object {}", gameObject.scol);
+          }
+        }
       }
     }
+    if (store != null) {
+      store.step(timeStep); // moves the objects whose controllers move in bulk
+    }
 
     for (GameObject o : addables) { // Iterator usage
       addObjectNow(o);
@@ -325,6 +617,142 @@ public abstract class Playground {
     addables.clear();
   }
 
+  /**
+   * updates the objects in two phases: first all objects that are
+   * {@link GameObject#isParallelSafe()}, in chunks on the given pool, then all others one after
+   * another on the calling thread. Adds and deletes are collected per chunk and merged in update
+   * order, so the result does not depend on the number of threads or their timing.
+   */
+  private void updateObjectsParallel(ForkJoinPool pool) {
+    ArrayList<GameObject> order = this.updateOrder;
+    order.clear();
+    for (GameObject gameObject : gameObjects.values()) {
+      if (!gameObject.isInEntityStore()) {
+        gameObject.storePreviousPosition();
+      }
+      order.add(gameObject);
+    }
+    int n = order.size();
+    int chunkSize = Math.max(MIN_UPDATE_CHUNK, n / (4 * pool.getParallelism()) + 1);
+    int nrChunks = (n + chunkSize - 1) / chunkSize;
+    while (chunkBuffers.size() < nrChunks) {
+      chunkBuffers.add(new UpdateBuffer());
+    }
+
+    // phase 1: parallel-safe objects
+    if (nrChunks == 1) {
+      updateChunk(0, n, true, chunkBuffers.get(0));
+    } else if (nrChunks > 1) {
+      ArrayList<RecursiveAction> tasks = new ArrayList<RecursiveAction>(nrChunks);
+      for (int c = 0; c < nrChunks; c++) {
+        final int from = c * chunkSize;
+        final int to = Math.min(n, from + chunkSize);
+        final UpdateBuffer buffer = chunkBuffers.get(c);
+        tasks.add(new RecursiveAction() {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected void compute() {
+            updateChunk(from, to, true, buffer);
+          }
+        });
+      }
+      pool.invoke(new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+          invokeAll(tasks);
+        }
+      });
+    }
+
+    // phase 2: all other objects on this thread
+    updateChunk(0, n, false, sequentialBuffer);
+
+    // merge requests of both phases in update order
+    int c = 0, i = 0, s = 0;
+    while (true) {
+      while (c < nrChunks && i >= chunkBuffers.get(c).adds.size()) {
+        c++;
+        i = 0;
+      }
+      boolean chunk = c < nrChunks;
+      boolean seq = s < sequentialBuffer.adds.size();
+      if (chunk && (!seq || chunkBuffers.get(c).addOrder[i] < sequentialBuffer.addOrder[s])) {
+        addables.addLast(chunkBuffers.get(c).adds.get(i++));
+      } else if (seq) {
+        addables.addLast(sequentialBuffer.adds.get(s++));
+      } else {
+        break;
+      }
+    }
+    c = 0;
+    i = 0;
+    s = 0;
+    while (true) {
+      while (c < nrChunks && i >= chunkBuffers.get(c).removes.size()) {
+        c++;
+        i = 0;
+      }
+      boolean chunk = c < nrChunks;
+      boolean seq = s < sequentialBuffer.removes.size();
+      if (chunk && (!seq || chunkBuffers.get(c).removeOrder[i] < sequentialBuffer.removeOrder[s])) {
+        removables.addLast(chunkBuffers.get(c).removes.get(i++));
+      } else if (seq) {
+        removables.addLast(sequentialBuffer.removes.get(s++));
+      } else {
+        break;
+      }
+    }
+    for (int k = 0; k < nrChunks; k++) {
+      chunkBuffers.get(k).clear();
+    }
+    sequentialBuffer.clear();
+    order.clear();
+  }
+
+
+  /** updates the active objects of the given range of {@link #updateOrder} that are (not) parallel-safe */
+  private void updateChunk(int from, int to, boolean parallelSafe, UpdateBuffer buffer) {
+    currentBuffer.set(buffer);
+    try {
+      for (int i = from; i < to; i++) {
+        GameObject gameObject = updateOrder.get(i);
+        if (gameObject.isParallelSafe() == parallelSafe && gameObject.isActive()) {
+          buffer.current = i;
+          gameObject.updateObject();
+        }
+      }
+    } finally {
+      currentBuffer.remove();
+    }
+  }
+
+
+  /**
+   * switches parallel updates of objects on or off. With a pool, {@link #updateObjects()} first
+   * updates all objects whose controllers are parallel-safe (see
+   * {@link controller.ObjectController#isParallelSafe()}) in chunks on the pool, then all other
+   * objects one after another. Objects added or deleted during the update are still added or
+   * deleted in the order of the objects' updates, the result is deterministic.
+   * 
+   * @param pool the pool to use, e.g. {@link ForkJoinPool#commonPool()}, or null to update all
+   *        objects one after another on the game thread (default)
+   */
+  public static void setUpdatePool(ForkJoinPool pool) {
+    updatePool = pool;
+  }
+
+
+  /**
+   * @return the pool set by {@link #setUpdatePool(ForkJoinPool)}, or null
+   */
+  public static ForkJoinPool getUpdatePool() {
+    return updatePool;
+  }
+
+
   public void setTimestep(double s) {
     timeStep = s;
   }
@@ -347,6 +775,16 @@ public abstract class Playground {
   }
 
 
+  /**
+   * returns the interpolation factor of the current redraw, see {@link #redraw(Graphics2D, double)}.
+   *
+   * @return value between 0 (previous simulation step) and 1 (current simulation step)
+   */
+  public double getRenderAlpha() {
+    return this.renderAlpha;
+  }
+
+
   /**
    * To be redefined!! Draws mainly h level background and global information like points etc.
    * 
@@ -362,12 +800,102 @@ public abstract class Playground {
    *        operations.
    */
   public void redraw(Graphics2D g2) {
+    redraw(g2, 1.);
+  }
+
+  /**
+   * Internal, do not call directly. Draws the level with object positions interpolated between
+   * the last and the current simulation step (see {@link GameObject#getRenderX()}).
+   * 
+   * @param g2 Graphics2D abstract drawing object of java Swing, used to carry out all drawing
+   *        operations.
+   * @param alpha interpolation factor between 0 (previous step) and 1 (current step)
+   */
+  public void redraw(Graphics2D g2, double alpha) {
+    FrameOverlay o = overlay;
+    long start = o != null ? System.nanoTime() : 0;
+    this.renderAlpha = alpha;
     redrawLevel(g2);
     for (GameObject gameObject : gameObjects.values()) {
       if (gameObject.isActive()) {
         gameObject.draw(g2);
       }
     }
+    if (o != null) {
+      o.redrawFinished(System.nanoTime() - start);
+      o.drawOverlay(g2, this);
+    }
+  }
+
+
+  /**
+   * sets the overlay drawn on top of all levels after each redraw, which is also told how long the
+   * redraw took.
+   * 
+   * @param frameOverlay the overlay, or null to draw none (default)
+   */
+  public static void setFrameOverlay(FrameOverlay frameOverlay) {
+    overlay = frameOverlay;
+  }
+
+
+  /**
+   * makes all levels keep position, speed and active flag of their objects in the given
+   * {@link EntityStore}, or in the objects themselves if null (default). Has to be called before
+   * any objects are added, e.g. before the game starts.
+   * 
+   * @param store the store or null
+   */
+  public static void setEntityStore(EntityStore store) {
+    entityStore = store;
+  }
+
+
+  /**
+   * returns the random number generator to be used by all levels, objects and controllers. With
+   * the same seed (see {@link #setRandomSeed(long)}) and the same input a game plays exactly the
+   * same way.
+   * 
+   * @return the generator, never null
+   */
+  public static Random getRandom() {
+    return random;
+  }
+
+
+  /**
+   * replaces the random number generator, e.g. by one with a known seed.
+   * 
+   * @param rng the new generator, not null
+   */
+  public static void setRandom(Random rng) {
+    random = rng;
+  }
+
+
+  /**
+   * restarts the random numbers with the given seed.
+   * 
+   * @param seed the seed
+   */
+  public static void setRandomSeed(long seed) {
+    random = new GameRandom(seed);
+  }
+
+
+  /**
+   * @return the store set by {@link #setEntityStore(EntityStore)}, or null
+   */
+  public static EntityStore getEntityStore() {
+    return entityStore;
+  }
+
+
+  /**
+   * @return number of objects currently in the level, active or not
+   */
+  public int getObjectCount() {
+    return gameObjects.size();
   }
 
 
@@ -1,62 +1,78 @@
 package playground;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
+/**
+ * Saves the running game to a file and loads it again, see {@link Snapshot}. Saving captures the
+ * level on the calling (game) thread, which takes well below a millisecond; the snapshot is written
+ * to the file on a background thread, so the game does not stall on disk I/O. Saves are written one
+ * after another in the order they were requested.
+ */
 public class SaveGame {
 
-  private static String datnam = "aktuellerSpielzustand.ser";
+  /** file used by the game loop for save and load */
+  public static final Path DEFAULT_FILE = Paths.get("aktuellerSpielzustand.snap");
+
   private static Logger logger = LogManager.getLogger(SaveGame.class);
 
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "savegame-writer");
+    t.setDaemon(true);
+    return t;
+  });
 
-  @SuppressWarnings("unchecked")
-  public static void save() {
-
-    // gameobjects.AnimatedGameobject
-    ArrayList<String> objArrList = null;
-    ObjectInputStream in = null;
-    try {
-      in = new ObjectInputStream(new FileInputStream(datnam));
-      objArrList = (ArrayList<String>) in.readObject();
-    } catch (FileNotFoundException ex) {
-      logger.warn("Savegame file not (yet) existing!");
-    } catch (Exception ex) {
-      logger.error(ex);
-    } finally {
-      try {
-        if (in != null)
-          in.close();
-      } catch (IOException e) {
-      }
-    }
-    if (objArrList == null)
-      objArrList = new ArrayList<String>();
-
-    objArrList.add(new String("ArrayListgroesse: " + objArrList.size()));
-    logger.debug(objArrList);
-
-    ObjectOutputStream aus = null;
-    try {
-      aus = new ObjectOutputStream(new FileOutputStream(datnam));
-      aus.writeObject(objArrList);
-    } catch (IOException ex) {
-      logger.error(ex);
-    } finally {
+
+  /**
+   * saves a level to {@link #DEFAULT_FILE}. Call on the game thread between two frames.
+   *
+   * @param pg the level
+   * @param levelIndex index of the level in the game
+   * @return completes with the file when it has been written
+   */
+  public static CompletableFuture<Path> save(Playground pg, int levelIndex) {
+    return save(Snapshot.capture(pg, levelIndex), DEFAULT_FILE);
+  }
+
+
+  /**
+   * writes a snapshot to a file in the background.
+   *
+   * @param snapshot the snapshot
+   * @param file the file, replaced when the snapshot has been written completely
+   * @return completes with the file when it has been written
+   */
+  public static CompletableFuture<Path> save(Snapshot snapshot, Path file) {
+    return CompletableFuture.supplyAsync(() -> {
+      long start = System.nanoTime();
       try {
-        if (aus != null) {
-          aus.flush();
-          aus.close();
-        }
+        snapshot.writeTo(file);
       } catch (IOException e) {
+        logger.error("cannot save game to " + file, e);
+        throw new UncheckedIOException(e);
       }
-    }
+      logger.info("saved " + snapshot.size() + " bytes to " + file + " in "
+          + (System.nanoTime() - start) / 1000 + " us");
+      return file;
+    }, writer);
+  }
+
+
+  /**
+   * reads the game saved last to {@link #DEFAULT_FILE}, see {@link Snapshot#restore(Playground)}.
+   *
+   * @return the snapshot
+   * @throws IOException if there is no saved game or it cannot be read
+   */
+  public static Snapshot load() throws IOException {
+    return Snapshot.readFrom(DEFAULT_FILE);
   }
 
 }
@@ -0,0 +1,412 @@
+package playground;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import controller.ObjectController;
+import gameobjects.GameObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Binary copy of the state of a running level: its objects with their controllers, the global and
+ * level flags, game time and random numbers, and what the level keeps itself (see
+ * {@link Playground#writeLevelState(StateBuffer)}). A snapshot is captured between two frames on
+ * the game thread, which only copies the state into a compact buffer; writing it to a file can
+ * then be done on any thread. Restoring it into the same level continues the game exactly where it
+ * was captured.
+ *
+ * <p>
+ * Every object and controller class saves its own state with a codec, usually registered in a
+ * static initializer of the class:
+ * </p>
+ *
+ * <pre>
+ * static {
+ *   Snapshot.registerObject(MyObject.class, (o, out) -&gt; out.putDouble(o.size),
+ *       (in, id, pg) -&gt; new MyObject(id, pg, in.getDouble()));
+ * }
+ * </pre>
+ *
+ * Position, speed, tags, pool, colliders and flags of objects are saved for all objects. Objects
+ * whose class or controller class has no codec are left out of the snapshot.
+ *
+ * <p>
+ * Files start with a header (magic number, format {@link #VERSION}, payload length and CRC32 of
+ * the payload); snapshots of other versions are rejected.
+ * </p>
+ */
+public final class Snapshot {
+
+  /**
+   * saves the state of an object or controller.
+   *
+   * @param <T> class of the saved values
+   */
+  public interface Writer<T> {
+    /**
+     * @param value the object or controller
+     * @param out buffer to write to
+     */
+    void write(T value, StateBuffer out);
+  }
+
+  /**
+   * creates an object with the state saved by its {@link Writer}.
+   *
+   * @param <T> class of the object
+   */
+  public interface ObjectReader<T extends GameObject> {
+    /**
+     * @param in buffer to read from
+     * @param id id of the object
+     * @param pg level the object belongs to
+     * @return the new object, without controller
+     */
+    T read(StateBuffer in, String id, Playground pg);
+  }
+
+  /**
+   * creates a controller with the state saved by its {@link Writer}.
+   *
+   * @param <T> class of the controller
+   */
+  public interface ControllerReader<T extends ObjectController> {
+    /**
+     * @param in buffer to read from
+     * @return the new controller, not attached to an object
+     */
+    T read(StateBuffer in);
+  }
+
+  private static final class Codec<T> {
+    final Writer<T> writer;
+    final Object reader;
+
+    Codec(Writer<T> writer, Object reader) {
+      this.writer = writer;
+      this.reader = reader;
+    }
+
+    @SuppressWarnings("unchecked")
+    void write(Object value, StateBuffer out) {
+      writer.write((T) value, out);
+    }
+  }
+
+  /** file format, increase when the layout of any codec changes */
+  public static final short VERSION = 2;
+  /** "GSNP" */
+  static final int MAGIC = 0x47534E50;
+  static final int HEADER_SIZE = 4 + 2 + 4 + 8;
+
+  /** codecs by class name, so restoring can load the classes registering them */
+  private static final ConcurrentHashMap<String, Codec<?>> codecs =
+      new ConcurrentHashMap<String, Codec<?>>();
+  private static final HashSet<Class<?>> warned = new HashSet<Class<?>>();
+  /** size of the last capture, as initial capacity of the next */
+  private static int lastSize = 4096;
+
+  private static Logger logger = LogManager.getLogger(Snapshot.class);
+
+  /** read-only state, position 0 */
+  private final ByteBuffer payload;
+  private final int levelIndex;
+  private final double gameTime;
+
+  private Snapshot(ByteBuffer payload) {
+    this.payload = payload.asReadOnlyBuffer();
+    StateBuffer in = new StateBuffer(this.payload.duplicate());
+    this.levelIndex = in.getVarInt();
+    in.getString(); // level name
+    this.gameTime = in.getDouble();
+  }
+
+  /**
+   * registers the codec of an object class. Subclasses need their own codec.
+   *
+   * @param <T> object class
+   * @param type object class
+   * @param writer saves the data needed to create the object, e.g. its size
+   * @param reader creates the object from this data
+   */
+  public static <T extends GameObject> void registerObject(Class<T> type, Writer<T> writer,
+      ObjectReader<T> reader) {
+    codecs.put(type.getName(), new Codec<T>(writer, reader));
+  }
+
+  /**
+   * registers the codec of a controller class. Subclasses need their own codec.
+   *
+   * @param <T> controller class
+   * @param type controller class
+   * @param writer saves the state of the controller
+   * @param reader creates the controller from its state
+   */
+  public static <T extends ObjectController> void registerController(Class<T> type,
+      Writer<T> writer, ControllerReader<T> reader) {
+    codecs.put(type.getName(), new Codec<T>(writer, reader));
+  }
+
+  private static boolean hasCodec(Object value) {
+    if (value == null || codecs.containsKey(value.getClass().getName())) {
+      return true;
+    }
+    synchronized (warned) {
+      if (warned.add(value.getClass())) {
+        logger.warn("no snapshot codec for " + value.getClass().getName() + ", not saved");
+      }
+    }
+    return false;
+  }
+
+  /** returns the codec of a class, loading the class if it has not registered a codec yet */
+  private static Codec<?> codec(String className) {
+    Codec<?> codec = codecs.get(className);
+    if (codec == null) {
+      try {
+        Class.forName(className);
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException("snapshot contains unknown class " + className, e);
+      }
+      codec = codecs.get(className);
+      if (codec == null) {
+        throw new IllegalStateException("no snapshot codec for " + className);
+      }
+    }
+    return codec;
+  }
+
+  /**
+   * copies the state of a level. Call on the game thread between two frames.
+   *
+   * @param pg the level
+   * @param levelIndex index of the level in the game, see {@link #getLevelIndex()}
+   * @return the snapshot
+   */
+  public static Snapshot capture(Playground pg, int levelIndex) {
+    StateBuffer out = new StateBuffer(lastSize);
+    out.putVarInt(levelIndex);
+    out.putString(pg.level);
+    out.putDouble(pg.getGameTime());
+    out.putDouble(pg.getTimestep());
+    out.putBoolean(pg.isPaused());
+    Random rng = Playground.getRandom();
+    out.putBoolean(rng instanceof GameRandom);
+    if (rng instanceof GameRandom) {
+      out.putLong(((GameRandom) rng).getState());
+    } else {
+      logger.warn("random numbers of " + rng.getClass().getName() + " cannot be saved");
+    }
+    Playground.getGlobalFlags().writeTo(out);
+    pg.getLevelFlags().writeTo(out);
+
+    ArrayList<GameObject> objects = new ArrayList<GameObject>(Playground.gameObjects.size());
+    for (GameObject o : Playground.gameObjects.values()) {
+      if (hasCodec(o) && hasCodec(o.getObjectController())) {
+        objects.add(o);
+      }
+    }
+    out.putVarInt(objects.size());
+    for (GameObject o : objects) {
+      writeObject(o, out);
+    }
+    Playground.writeGroupOrder(out);
+    pg.writeLevelState(out);
+
+    ByteBuffer data = out.data();
+    lastSize = Math.max(lastSize, data.remaining());
+    return new Snapshot(data);
+  }
+
+  private static void writeObject(GameObject o, StateBuffer out) {
+    out.putString(o.getClass().getName());
+    out.putString(o.getId());
+    codecs.get(o.getClass().getName()).write(o, out);
+    out.putDouble(o.getX());
+    out.putDouble(o.getY());
+    out.putDouble(o.getVX());
+    out.putDouble(o.getVY());
+    out.putBoolean(o.isActive());
+    out.putVarInt(o.getTags().size());
+    for (String tag : o.getTags()) {
+      out.putString(tag);
+    }
+    out.putString(o.getPool() == null ? "" : o.getPool().getName());
+    ObjectController c = o.getObjectController();
+    out.putString(c == null ? "" : c.getClass().getName());
+    if (c != null) {
+      codecs.get(c.getClass().getName()).write(c, out);
+    }
+    out.putBoolean(o.scol != null && !o.scol.isEmpty());
+    out.putBoolean(o.hasObjectFlags());
+    if (o.hasObjectFlags()) {
+      o.getObjectFlags().writeTo(out);
+    }
+  }
+
+  private static GameObject readObject(StateBuffer in, Playground pg) {
+    Codec<?> codec = codec(in.getString());
+    String id = in.getString();
+    GameObject o = ((ObjectReader<?>) codec.reader).read(in, id, pg);
+    o.setX(in.getDouble());
+    o.setY(in.getDouble());
+    o.setVX(in.getDouble());
+    o.setVY(in.getDouble());
+    o.storePreviousPosition();
+    o.setActive(in.getBoolean());
+    for (int n = in.getVarInt(); n > 0; n--) {
+      o.addTag(in.getString());
+    }
+    String pool = in.getString();
+    if (!pool.isEmpty()) {
+      pg.getObjectPool(pool).register(o);
+    }
+    String controller = in.getString();
+    if (!controller.isEmpty()) {
+      o.addController(((ControllerReader<?>) codec(controller).reader).read(in));
+    }
+    boolean colliders = in.getBoolean();
+    if (colliders && (o.scol == null || o.scol.isEmpty())) {
+      o.generateColliders();
+    }
+    if (in.getBoolean()) {
+      o.getObjectFlags().readFrom(in);
+    }
+    return o;
+  }
+
+  /**
+   * replaces the objects and flags of a level by the ones of this snapshot and continues at its
+   * game time. The level has to be the one captured, see {@link #getLevelIndex()}. Call on the
+   * game thread between two frames.
+   *
+   * @param pg the level
+   */
+  public void restore(Playground pg) {
+    StateBuffer in = new StateBuffer(this.payload.duplicate());
+    in.getVarInt(); // level index
+    String level = in.getString();
+    pg.reset();
+    pg.getKeyInput().clear();
+    pg.level = level;
+    pg.setGameTime(in.getDouble());
+    pg.setTimestep(in.getDouble());
+    pg.setPaused(in.getBoolean());
+    if (in.getBoolean()) {
+      GameRandom rng = new GameRandom();
+      rng.setState(in.getLong());
+      Playground.setRandom(rng);
+    }
+    pg.resetFlags(Playground.FLAGS_ALL);
+    Playground.getGlobalFlags().readFrom(in);
+    pg.getLevelFlags().readFrom(in);
+
+    for (int n = in.getVarInt(); n > 0; n--) {
+      pg.addObjectNow(readObject(in, pg));
+    }
+    Playground.readGroupOrder(in);
+    pg.readLevelState(in);
+    logger.info("restored " + pg.getObjectCount() + " objects of level " + level + " at "
+        + gameTime);
+  }
+
+  /** @return index of the captured level in the game */
+  public int getLevelIndex() {
+    return this.levelIndex;
+  }
+
+  /** @return game time of the captured level */
+  public double getGameTime() {
+    return this.gameTime;
+  }
+
+  /** @return size of the state in bytes, without header */
+  public int size() {
+    return this.payload.limit();
+  }
+
+  /**
+   * writes this snapshot to a file. The file is written under a temporary name first and then
+   * renamed, so a crash while writing leaves an older snapshot intact. May be called on any thread.
+   *
+   * @param file the file, replaced if it exists
+   * @throws IOException if writing fails
+   */
+  public void writeTo(Path file) throws IOException {
+    ByteBuffer data = this.payload.duplicate();
+    CRC32 crc = new CRC32();
+    crc.update(data.duplicate());
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putShort(VERSION).putInt(data.remaining()).putLong(crc.getValue());
+    header.flip();
+
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer[] buffers = {header, data};
+      while (data.hasRemaining()) {
+        channel.write(buffers);
+      }
+      channel.force(true);
+    }
+    try {
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * reads a snapshot written by {@link #writeTo(Path)}.
+   *
+   * @param file the file
+   * @return the snapshot
+   * @throws IOException if the file cannot be read, is no snapshot of this {@link #VERSION} or is
+   *         damaged
+   */
+  public static Snapshot readFrom(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE || size - HEADER_SIZE > Integer.MAX_VALUE) {
+        throw new IOException("not a snapshot: " + file);
+      }
+      ByteBuffer all = ByteBuffer.allocate((int) size);
+      while (all.hasRemaining() && channel.read(all) >= 0) {
+        // read until full
+      }
+      all.flip();
+      if (all.remaining() < HEADER_SIZE || all.getInt() != MAGIC) {
+        throw new IOException("not a snapshot: " + file);
+      }
+      short version = all.getShort();
+      if (version != VERSION) {
+        throw new IOException("snapshot " + file + " has version " + version + ", expected "
+            + VERSION);
+      }
+      int length = all.getInt();
+      long checksum = all.getLong();
+      if (length != all.remaining()) {
+        throw new IOException("snapshot " + file + " is truncated");
+      }
+      ByteBuffer data = all.slice();
+      CRC32 crc = new CRC32();
+      crc.update(data.duplicate());
+      if (crc.getValue() != checksum) {
+        throw new IOException("snapshot " + file + " is damaged");
+      }
+      return new Snapshot(data);
+    }
+  }
+
+}
@@ -4,24 +4,29 @@ package playground;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
 import java.awt.RenderingHints;
-import java.awt.font.TextAttribute;
 import java.awt.image.BufferedImage;
 import java.io.*;
-import java.text.AttributedString;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import controller.EnemyController;
 import controller.FallingStarController;
 import controller.LimitedTimeController;
 import controller.ObjectController;
 import controller.EgoController;
 import controller.CollisionAwareEgoController;
+import collider.SpatialHash;
 import gameobjects.AnimatedGameobject;
 import gameobjects.FallingStar;
 import gameobjects.GameObject;
 import gameobjects.EgoObject;
+import gameobjects.ObjectPool;
+import gameobjects.ParticleSystem;
 import gameobjects.TextObject;
+import rendering.CachedText;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
@@ -62,11 +67,47 @@ public class SpaceInvadersLevel extends Playground {
   protected static final double EGORAD = 15;
   protected static final double LEVEL_INIT_TIME = 1.0;
 
+  /** tag of enemy objects, see {@link GameObject#addTag(String)} */
+  public static final String TAG_ENEMY = "enemy";
+  /** tag of the player's shots */
+  public static final String TAG_SHOT = "simpleShot";
+  /** tag of collectable objects (hearts) */
+  public static final String TAG_COLLECT = "collect";
+  /** tag of the enemies' shots */
+  public static final String TAG_ENEMY_SHOT = "enmyShot";
+  /** global flag: points of the player (int) */
+  public static final Flag FLAG_POINTS = Flag.of("points");
+  /** global flag: remaining lives of the player (int) */
+  public static final Flag FLAG_EGO_LIVES = Flag.of("egoLives");
+  /** global flag: highscore read at the start of the level (int) */
+  public static final Flag FLAG_HIGHSCORE = Flag.of("highscore");
+  /** level flag: state of the level, "start", "starting", "init" or "playing" */
+  static final Flag FLAG_GAME_STATUS = Flag.of("gameStatus");
+  /** level flag: state while playing, "std" or "dying" */
+  static final Flag FLAG_DETAILED_STATUS = Flag.of("detailedStatus");
+  /** level flag: number of enemy shots so far (int) */
+  static final Flag FLAG_ENEMY_SHOT_COUNTER = Flag.of("enemyShotCounter");
+  /** level flag: game time the ego was hit (double) */
+  static final Flag FLAG_T0 = Flag.of("t0");
+  /** object flag: number of hits of an enemy (int) */
+  static final Flag FLAG_COUNTER = Flag.of("counter");
+  /** cell size in pixels of the grid used to find shot/enemy collision candidates */
+  protected static final double COLLISION_CELLSIZE = 64;
+
   protected int nextShot = 0;
 
   protected boolean lost = false;
   protected boolean doneLevel = false;
   protected double starttime = 0;
+  /** enemy animation, see {@link #getAssetManifest()} */
+  public static final String ENEMY_ANIMATION = "./video/sweetAlien.txt";
+  /** animation of collectable hearts */
+  public static final String HEART_ANIMATION = "./video/heart.txt";
+  public static final String SMASH_SOUND = "./audio/smash.wav";
+  public static final String LASER_SOUND = "./audio/laser.wav";
+  private static final List<String> ASSETS = Collections.unmodifiableList(
+      Arrays.asList(ENEMY_ANIMATION, HEART_ANIMATION, SMASH_SOUND, LASER_SOUND));
+
   protected File smash = null;
   protected File laser = null;
 
@@ -79,15 +120,33 @@ public class SpaceInvadersLevel extends Playground {
   protected Animation enemyAnim = null;
   protected Animation heartAnim = null;
 
+  /** broad-phase grid of the player's shots, rebuilt every time step */
+  protected SpatialHash shotGrid = null;
+
+  /** background stars and explosion shards, re-added on every {@link #prepareLevel(String)} */
+  protected ParticleSystem particles = null;
+
+  /** texts of the scoreboard, laid out again only when their values change */
+  protected CachedText hudPoints = null;
+  protected CachedText hudLives = null;
+  protected CachedText hudHighscore = null;
+  protected CachedText hudPaused = null;
+
   private static Logger logger = LogManager.getLogger(SpaceInvadersLevel.class);
 
   public SpaceInvadersLevel() {
     super();
     this.canvasX = this.preferredSizeX();
     this.canvasY = this.preferredSizeY();
+    this.particles = new ParticleSystem("particles", this, LEVEL2STARS + 4 * NRSHARDS);
   }
 
 
+  @Override
+  public List<String> getAssetManifest() {
+    return ASSETS;
+  }
+
   /**
    * initially sets up the level. Not called by user interaction, but called every time a layer is
    * restarted from scratch. So make sure that this is possible. Here, resources are loaded only
@@ -107,40 +166,79 @@ public class SpaceInvadersLevel extends Playground {
     setLevelFlag("delete", new LinkedList<String>());
     setLevelFlag("replace", new LinkedList<String>());
     getOrCreateGlobalFlag("points", Integer.valueOf(0));
-    setLevelFlag("enemyShotCounter", Integer.valueOf(0));
-    setLevelFlag("gameStatus", "start");
-    setLevelFlag("detailedStatus", "std");
+    getLevelFlags().setInt(FLAG_ENEMY_SHOT_COUNTER, 0);
+    getLevelFlags().set(FLAG_GAME_STATUS, "start");
+    getLevelFlags().set(FLAG_DETAILED_STATUS, "std");
     getOrCreateGlobalFlag("egoLives", Integer.valueOf(5));
     setLevelFlag("dying", Double.valueOf(-1));
 
+    this.particles.clear();
+    addObject(this.particles);
+
     // start time measure
     this.starttime = this.getGameTime();
 
+    loadResources();
+
+    // highscore, read from disk only once for all levels
+    int alltimeHighscore = HighscoreManager.getInstance().getHighscore();
+    getGlobalFlags().setInt(FLAG_HIGHSCORE, alltimeHighscore);
+    logger.info("HIGHSCORE" + alltimeHighscore);
+  }
+
+
+  /**
+   * loads sounds and animations and creates the collision grid, only once even if called several
+   * times. Called by {@link #prepareLevel(String)} and when a saved game is restored.
+   */
+  protected void loadResources() {
     // music load
     if (this.smash == null) {
-      this.smash = new File("./audio/smash.wav");
+      this.smash = new File(SMASH_SOUND);
     }
     if (this.laser == null) {
-      this.laser = new File("./audio/laser.wav");
+      this.laser = new File(LASER_SOUND);
     }
+    Music.preload(this.smash);
+    Music.preload(this.laser);
 
     // ----- Alien
+    // shared by all levels, usually preloaded while the level before was played
     if (this.enemyAnim == null) {
-      String dateiName = "./video/sweetAlien.txt";
-      this.enemyAnim = new Animation(dateiName);
+      this.enemyAnim = AssetCache.getInstance().getAnimation(ENEMY_ANIMATION);
+    }
+
+    if (this.shotGrid == null) {
+      this.shotGrid = new SpatialHash(canvasX, canvasY, COLLISION_CELLSIZE);
     }
 
     // -----Heart
     if (this.heartAnim == null) {
-      String heartName = "./video/heart.txt";
-      this.heartAnim = new Animation(heartName);
+      this.heartAnim = AssetCache.getInstance().getAnimation(HEART_ANIMATION);
     }
+  }
 
-    // load highscore and update
-    HighscoreManager dh = new HighscoreManager();
-    int alltimeHighscore = dh.readHSFromFile();
-    setGlobalFlag("highscore", alltimeHighscore);
-    logger.info("HIGHSCORE" + alltimeHighscore);
+
+  @Override
+  protected void writeLevelState(StateBuffer out) {
+    out.putVarInt(this.nextShot);
+    out.putBoolean(this.lost);
+    out.putBoolean(this.doneLevel);
+    out.putDouble(this.starttime);
+  }
+
+
+  @Override
+  protected void readLevelState(StateBuffer in) {
+    this.nextShot = in.getVarInt();
+    this.lost = in.getBoolean();
+    this.doneLevel = in.getBoolean();
+    this.starttime = in.getDouble();
+    loadResources();
+    GameObject restored = getObject(this.particles.getId());
+    if (restored instanceof ParticleSystem) {
+      this.particles = (ParticleSystem) restored;
+    }
   }
 
 
@@ -159,42 +257,33 @@ public class SpaceInvadersLevel extends Playground {
         RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
 
     // fill background with black
-    int[] x = {0, canvasX, canvasX, 0};
-    int[] y = {0, 0, canvasY, canvasY};
-    Polygon bg = new Polygon(x, y, 4);
     g2.setColor(Color.BLACK);
-    g2.fill(bg);
+    g2.fillRect(0, 0, canvasX, canvasY);
+
+    if (hudPoints == null) {
+      Font drawFont = CachedText.getFont("SansSerif", Font.PLAIN, 20);
+      hudPoints = new CachedText(drawFont, Color.yellow);
+      hudLives = new CachedText(drawFont, Color.yellow);
+      hudHighscore = new CachedText(drawFont, Color.yellow);
+      hudPaused = new CachedText(CachedText.getFont("SansSerif", Font.PLAIN, 50), Color.red);
+      hudPaused.setText("Das Spiel wurde pausiert.");
+    }
 
     // draw score in upper left part of playground
-    Integer pts = (Integer) getGlobalFlag("points");
-    Font drawFont = new Font("SansSerif", Font.PLAIN, 20);
-    AttributedString as = new AttributedString("Points: " + pts);
-    as.addAttribute(TextAttribute.FONT, drawFont);
-    as.addAttribute(TextAttribute.FOREGROUND, Color.yellow);
-    g2.drawString(as.getIterator(), 10, 20);
+    FlagTable globals = getGlobalFlags();
+    hudPoints.setValue("Points: ", globals.getInt(FLAG_POINTS, 0));
+    hudPoints.draw(g2, 10, 20);
 
     // draw lives counter in upper left part of playground
-    Integer lives = (Integer) getGlobalFlag("egoLives");
-    Font drawFont2 = new Font("SansSerif", Font.PLAIN, 20);
-    AttributedString as2 = new AttributedString("Lives: " + lives);
-    as2.addAttribute(TextAttribute.FONT, drawFont2);
-    as2.addAttribute(TextAttribute.FOREGROUND, Color.yellow);
-    g2.drawString(as2.getIterator(), canvasX - 100, 20);
+    hudLives.setValue("Lives: ", globals.getInt(FLAG_EGO_LIVES, 0));
+    hudLives.draw(g2, canvasX - 100, 20);
 
     // draw highscore in left part of playground under score
-    Integer highscore = (Integer) getGlobalFlag("highscore");
-    Font drawFont3 = new Font("SansSerif", Font.PLAIN, 20);
-    AttributedString as3 = new AttributedString("Highscore: " + highscore);
-    as3.addAttribute(TextAttribute.FONT, drawFont3);
-    as3.addAttribute(TextAttribute.FOREGROUND, Color.yellow);
-    g2.drawString(as3.getIterator(), 10, 40);
+    hudHighscore.setValue("Highscore: ", globals.getInt(FLAG_HIGHSCORE, 0));
+    hudHighscore.draw(g2, 10, 40);
 
     if (isPaused()) {
-      Font drawFont4 = new Font("SansSerif", Font.PLAIN, 50);
-      AttributedString as4 = new AttributedString("Das Spiel wurde pausiert.");
-      as4.addAttribute(TextAttribute.FONT, drawFont4);
-      as4.addAttribute(TextAttribute.FOREGROUND, Color.red);
-      g2.drawString(as4.getIterator(), 30, 400);
+      hudPaused.draw(g2, 30, 400);
     }
 
   }
@@ -208,8 +297,9 @@ public class SpaceInvadersLevel extends Playground {
   @Override
   public void applyGameLogic() {
     double gameTime = this.getGameTime();
-    String gameStatus = (String) getLevelFlag("gameStatus");
-    String subStatus = (String) getLevelFlag("detailedStatus");
+    FlagTable levelFlags = getLevelFlags();
+    String gameStatus = (String) levelFlags.get(FLAG_GAME_STATUS);
+    String subStatus = (String) levelFlags.get(FLAG_DETAILED_STATUS);
 
     if (gameStatus.equals("start") == true) {
       setupInitialState();
@@ -217,7 +307,7 @@ public class SpaceInvadersLevel extends Playground {
     } else if (gameStatus.equals("starting") == true) {
 
       if ((gameTime - starttime) > LEVEL_INIT_TIME) {
-        setLevelFlag("gameStatus", "init");
+        levelFlags.set(FLAG_GAME_STATUS, "init");
       }
 
     } else if (gameStatus.equals("init") == true) {
@@ -225,7 +315,7 @@ public class SpaceInvadersLevel extends Playground {
       this.createEnemies();
       this.createCollectables();
 
-      setLevelFlag("gameStatus", "playing");
+      levelFlags.set(FLAG_GAME_STATUS, "playing");
 
     } else if (gameStatus.equals("playing") == true) {
       GameObject s = this.getObject("ego");
@@ -233,35 +323,33 @@ public class SpaceInvadersLevel extends Playground {
       if (subStatus.equals("std")) {
 
         // check for collisions of enemy and shots, reuse shots list from before..
-        LinkedList<GameObject> enemies = collectObjects("enemy", false);
+        Collection<GameObject> enemies = getObjectsByTag(TAG_ENEMY);
 
         // check whether all enemies have been destroyed or escaped
         if (enemies.size() == 0) {
-          HighscoreManager hsm = new HighscoreManager();
-          HighscoreManager.writeHSToFile((Integer) Playground.getGlobalFlag("points"),
-              (Integer) Playground.getGlobalFlag("highscore"));
           this.doneLevel = true;
           logger.info("no enemies left, level done.");
         }
 
         // loop over enemies to check for collisions or suchlike ...
-        LinkedList<GameObject> shots = collectObjects("simpleShot", true);
         for (GameObject e : enemies) {
           // if ego collides with enemy..
           if (s.collisionDetection(e)) {
             actionIfEgoCollidesWithEnemy(e, s);
           }
+        }
 
-          // if shot collides with enemy
-          for (GameObject shot : shots) {
-            if (e.collisionDetection(shot)) {
-              actionIfEnemyIsHit(e, shot);
-            }
+        // if shot collides with enemy: exact test only for shots near an enemy
+        shotGrid.clear();
+        shotGrid.insertAll(getObjectsByTag(TAG_SHOT), true);
+        shotGrid.findPairs(enemies, (e, shot) -> {
+          if (e.collisionDetection(shot)) {
+            actionIfEnemyIsHit(e, shot);
           }
-        }
+        });
 
         // collecting hearts
-        LinkedList<GameObject> collects = collectObjects("collect", false);
+        Collection<GameObject> collects = getObjectsByTag(TAG_COLLECT);
         for (GameObject c : collects) {
           if (s.collisionDetection(c)) {
             actionIfEgoCollidesWithCollect(c, s);
@@ -274,24 +362,24 @@ public class SpaceInvadersLevel extends Playground {
         }
 
         // check for collisions between ego object and enemy shots
-        LinkedList<GameObject> eshots = collectObjects("enmyShot", true);
+        Collection<GameObject> eshots = getObjectsByTag(TAG_ENEMY_SHOT);
         for (GameObject eshot : eshots) {
 
-          if (s.collisionDetection(eshot)) {
-            logger.trace("COLLISION" + eshot.scol.get(0) + "/" + s.scol.get(0));
+          if (eshot.isActive() && s.collisionDetection(eshot)) {
+            logger.trace("COLLISION {}/{}", eshot.scol.get(0), s.scol.get(0));
             actionIfEgoObjectIsHit(eshot, s);
           }
         }
       } // if substatus..
       else if (subStatus.equals("dying")) {
-        Double t0 = (Double) getLevelFlag("t0");
+        double t0 = levelFlags.getDouble(FLAG_T0, gameTime);
         if (gameTime - t0 > DYING_INTERVAL) {
-          LinkedList<GameObject> enemies = collectObjects("enemy", false);
-          setLevelFlag("detailedStatus", "std");
+          Collection<GameObject> enemies = getObjectsByTag(TAG_ENEMY);
+          levelFlags.set(FLAG_DETAILED_STATUS, "std");
           s.setActive(true);
 
           for (GameObject e : enemies) {
-            logger.trace("activating" + e.getId());
+            logger.trace("activating {}", e.getId());
             e.setActive(true);
           }
         }
@@ -331,7 +419,7 @@ public class SpaceInvadersLevel extends Playground {
   /** Adds ego object and stars and displays startup message. Is called from applyGameLogic */
   protected void setupInitialState() {
     double gameTime = this.getGameTime();
-    setLevelFlag("gameStatus", "starting");
+    getLevelFlags().set(FLAG_GAME_STATUS, "starting");
 
     this.createStars();
 
@@ -395,11 +483,21 @@ public class SpaceInvadersLevel extends Playground {
   }
 
 
+  /**
+   * creates a new enemy shot object. Only called if no deleted enemy shot can be reused, see
+   * {@link #createEnemyShot(GameObject)}.
+   * 
+   * @param parentObject enemy that shoots
+   * @param name unique name of the shot
+   * @param limitedTimeController controller to use for the shot
+   * @return the new shot object
+   */
   protected GameObject createEnemyShotObject(GameObject parentObject, String name,
       ObjectController limitedTimeController) {
     GameObject to =
         new TextObject(name, this, parentObject.getX(), parentObject.getY(), 0, ENEMYSHOTSPEED, "I",
             20, Color.YELLOW).generateColliders().addController(limitedTimeController);
+    aimEnemyShot(to, parentObject);
     /*
      * // also possible: GameObject to = new RectObject(name, this, parentObject.getX(),
      * parentObject.getY(), 0, ENEMYSHOTSPEED, 4, 20,
@@ -409,19 +507,39 @@ public class SpaceInvadersLevel extends Playground {
   }
 
 
+  /**
+   * sets the speed of an enemy shot, which starts at the position of the shooting enemy. Used for
+   * new and for reused shot objects. This implementation lets the shot fall straight down.
+   * 
+   * @param shot the shot object
+   * @param parentObject enemy that shoots
+   */
+  protected void aimEnemyShot(GameObject shot, GameObject parentObject) {
+    shot.setVX(0);
+    shot.setVY(ENEMYSHOTSPEED);
+  }
+
+
   protected void createEnemyShot(GameObject e) {
     double gameTime = this.getGameTime();
 
     double PROB = calcEnemyShotProb();
-    double diceThrow = Math.random();
-    Integer nrEnemyShots = (Integer) (getLevelFlag("enemyShotCounter"));
+    double diceThrow = getRandom().nextDouble();
     if (diceThrow < PROB) {
-      setLevelFlag("enemyShotCounter", Integer.valueOf(++nrEnemyShots));
-
-      LimitedTimeController limitedTimeController = new LimitedTimeController(gameTime, 10.);
-
-      GameObject textObject =
-          createEnemyShotObject(e, "enmyShot" + nrEnemyShots, limitedTimeController);
+      int nrEnemyShots = getLevelFlags().addInt(FLAG_ENEMY_SHOT_COUNTER, 1);
+      String name = "enmyShot" + nrEnemyShots;
+
+      // reuse a deleted enemy shot if possible
+      ObjectPool<GameObject> pool = getObjectPool(TAG_ENEMY_SHOT);
+      GameObject textObject = pool.acquire();
+      if (textObject == null) {
+        LimitedTimeController limitedTimeController = new LimitedTimeController(gameTime, 10.);
+        textObject = createEnemyShotObject(e, name, limitedTimeController).addTag(TAG_ENEMY_SHOT);
+        pool.register(textObject);
+      } else {
+        textObject.recycle(name, e.getX(), e.getY(), 0, 0);
+        aimEnemyShot(textObject, e);
+      }
 
       addObject(textObject);
     }
@@ -449,20 +567,21 @@ public class SpaceInvadersLevel extends Playground {
 
     GameObject tmp =
         new AnimatedGameobject(name, this, x_enemy, y_enemy, vx_enemy, vy_enemy, ENEMYSCALE,
-            this.enemyAnim, gameTime, "loop").addController(enemyController).generateColliders();
+            this.enemyAnim, gameTime, Animation.PlayMode.LOOP).addController(enemyController)
+                .generateColliders();
     return tmp;
   }
 
   GameObject createSingleCollect(String name) {
     double gameTime = this.getGameTime();
     double cspeedy = 20.;
-    double x_collect = Math.random() * this.canvasX;
-    double y_collect = Math.random() * this.canvasY / 3;
-    double vx_collect = 2 * (Math.random() - 0.5) * 0;
-    double vy_collect = Math.random() * cspeedy;
+    double x_collect = getRandom().nextDouble() * this.canvasX;
+    double y_collect = getRandom().nextDouble() * this.canvasY / 3;
+    double vx_collect = 2 * (getRandom().nextDouble() - 0.5) * 0;
+    double vy_collect = getRandom().nextDouble() * cspeedy;
 
     GameObject tmp = new AnimatedGameobject(name, this, x_collect, y_collect, vx_collect,
-        vy_collect, 0.3, this.heartAnim, gameTime, "loop").generateColliders()
+        vy_collect, 0.3, this.heartAnim, gameTime, Animation.PlayMode.LOOP).generateColliders()
             .addController(new EnemyController());
     return tmp;
   }
@@ -474,14 +593,14 @@ public class SpaceInvadersLevel extends Playground {
     double speedx = this.calcEnemySpeedX();
     double speedy = this.calcEnemySpeedY();
     for (int i = 0; i < this.calcNrEnemies(); i++) {
-      double x_enemy = Math.random() * this.canvasX;
-      double y_enemy = Math.random() * this.canvasY / 3;
-      double vx_enemy = 2 * (Math.random() - 0.5) * speedx;
-      double vy_enemy = Math.random() * speedy;
+      double x_enemy = getRandom().nextDouble() * this.canvasX;
+      double y_enemy = getRandom().nextDouble() * this.canvasY / 3;
+      double vx_enemy = 2 * (getRandom().nextDouble() - 0.5) * speedx;
+      double vy_enemy = getRandom().nextDouble() * speedy;
 
       ObjectController enemyController = createEnemyController();
       GameObject enemy = createSingleEnemy("enemy" + i, x_enemy, y_enemy, vx_enemy, vy_enemy,
-          enemyController, gameTime);
+          enemyController, gameTime).addTag(TAG_ENEMY);
       addObject(enemy);
     }
   }
@@ -492,7 +611,7 @@ public class SpaceInvadersLevel extends Playground {
     for (int i = 0; i < this.calcNrCollect(); i++) {
 
 
-      GameObject collect = createSingleCollect("collect" + i);
+      GameObject collect = createSingleCollect("collect" + i).addTag(TAG_COLLECT);
 
       addObject(collect);
     }
@@ -512,28 +631,19 @@ public class SpaceInvadersLevel extends Playground {
 
 
   void createStars() {
-    // add stars to playground
+    // add stars to playground, they fall down and re-appear on top (like FallingStarController)
+    double gameTime = this.getGameTime();
     for (int i = 1; i <= LEVEL2STARS; i++) {
-      FallingStarController fsc = new FallingStarController();
-
-      GameObject star = new FallingStar("star" + i, this, Math.random() * canvasX,
-          Math.random() * 15, 0.0, Math.random() * STARSPEED, Color.WHITE, 1.).addController(fsc);
-
-      addObject(star);
+      particles.emit(getRandom().nextDouble() * canvasX, getRandom().nextDouble() * 15, 0.0, getRandom().nextDouble() * STARSPEED,
+          gameTime, Double.POSITIVE_INFINITY, 1., Color.WHITE, ParticleSystem.MODE_WRAP);
     }
   }
 
 
-  void createExplosion(double gameTime, GameObject e, String basename, double interval,
-      Color color) {
+  void createExplosion(double gameTime, GameObject e, double interval, Color color) {
     // spawn a cloud of exploded shards
-    for (int i = 0; i < NRSHARDS; i++) {
-      double vx = 2 * (Math.random() - 0.5) * SHARDSPEED + e.getVX();
-      double vy = 2 * (Math.random() - 0.5) * SHARDSPEED + e.getVY();
-      addObject(
-          new FallingStar("shard" + gameTime + "/" + i, this, e.getX(), e.getY(), vx, vy, color, 2)
-              .addController(new LimitedTimeController(gameTime, interval)));
-    }
+    particles.burst(e.getX(), e.getY(), e.getVX(), e.getVY(), NRSHARDS, SHARDSPEED, gameTime,
+        interval, 2, color);
   }
 
 
@@ -548,7 +658,7 @@ public class SpaceInvadersLevel extends Playground {
   void actionIfEnemyIsHit(GameObject e, GameObject shot) {
 
     double gameTime = this.getGameTime();
-    createExplosion(gameTime, e, "shard", DYING_INTERVAL, Color.RED);
+    createExplosion(gameTime, e, DYING_INTERVAL, Color.RED);
 
     Music.music(smash);
 
@@ -559,8 +669,7 @@ public class SpaceInvadersLevel extends Playground {
     deleteObject(shot.getId());
 
     // add to points counter
-    Integer pts = (Integer) getGlobalFlag("points");
-    setGlobalFlag("points", pts + 200);
+    getGlobalFlags().addInt(FLAG_POINTS, 200);
 
   }
 
@@ -580,8 +689,8 @@ public class SpaceInvadersLevel extends Playground {
     if (this.getObject("bonustext") == null) {
 
       // spawn a bonus points object
-      double vx = 2 * (Math.random() - 0.5) * SHARDSPEED + collect.getVX();
-      double vy = 2 * (Math.random() - 0.5) * SHARDSPEED + collect.getVY();
+      double vx = 2 * (getRandom().nextDouble() - 0.5) * SHARDSPEED + collect.getVX();
+      double vy = 2 * (getRandom().nextDouble() - 0.5) * SHARDSPEED + collect.getVY();
 
 
       LimitedTimeController bonusTextController =
@@ -595,9 +704,7 @@ public class SpaceInvadersLevel extends Playground {
       deleteObject(collect.getId());
 
       // add to points counter
-      Integer lives = (Integer) getGlobalFlag("egoLives");
-      lives++;
-      setGlobalFlag("egoLives", lives);
+      getGlobalFlags().addInt(FLAG_EGO_LIVES, 1);
     }
 
   }
@@ -626,8 +733,7 @@ public class SpaceInvadersLevel extends Playground {
           ego.getVY(), "AUAA!!", 10, Color.RED)
               .addController(new LimitedTimeController(gameTime, BONUS_DURATION)));
       // deduct points
-      Integer pts = (Integer) getGlobalFlag("points");
-      setGlobalFlag("points", pts - 500);
+      getGlobalFlags().addInt(FLAG_POINTS, -500);
     }
 
   }
@@ -640,33 +746,29 @@ public class SpaceInvadersLevel extends Playground {
    * @param ego the ego object of the player
    */
   void actionIfEgoObjectIsHit(GameObject eshot, GameObject ego) {
-    logger.debug("collision of " + eshot.getId() + " and " + ego.getId());
+    logger.debug("collision of {} and {}", eshot.getId(), ego.getId());
 
     double gameTime = this.getGameTime();
     this.deleteObject(eshot.getId());
 
-    Integer oldLives = (Integer) getGlobalFlag("egoLives");
-    int newLives = oldLives - 1; 
-    setGlobalFlag("egoLives", newLives);
-    logger.debug("set egoLives to " + newLives + " (was " + oldLives + ")");
+    int newLives = getGlobalFlags().addInt(FLAG_EGO_LIVES, -1);
+    logger.debug("set egoLives to {} (was {})", newLives, newLives + 1);
 
     if (newLives <= 0) {
       lost = true;
-      HighscoreManager.writeHSToFile((Integer) Playground.getGlobalFlag("points"),
-          (Integer) Playground.getGlobalFlag("highscore"));
 
     }
 
-    LinkedList<GameObject> eshots = collectObjects("enmyShot", true);
-    for (GameObject _eshot : eshots) {
-      deleteObject(_eshot.getId());
+    for (GameObject _eshot : getObjectsByTag(TAG_ENEMY_SHOT)) {
+      if (_eshot.isActive()) {
+        deleteObject(_eshot.getId());
+      }
     }
-    setLevelFlag("detailedStatus", "dying");
-    setLevelFlag("t0", gameTime);
+    getLevelFlags().set(FLAG_DETAILED_STATUS, "dying");
+    getLevelFlags().setDouble(FLAG_T0, gameTime);
     ego.setActive(false);
-    createExplosion(gameTime, ego, "egoexp", DYING_INTERVAL, Color.WHITE);
-    LinkedList<GameObject> enemies = collectObjects("enemy", false);
-    for (GameObject enemy : enemies) {
+    createExplosion(gameTime, ego, DYING_INTERVAL, Color.WHITE);
+    for (GameObject enemy : getObjectsByTag(TAG_ENEMY)) {
       enemy.setY(0);
       enemy.setActive(false);
     }
@@ -0,0 +1,180 @@
+package playground;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Binary buffer the state of a {@link Snapshot} is written to and read from. Numbers are stored in
+ * a fixed layout, counts and ids as variable length ints. Strings are stored once: every further
+ * occurrence of the same String (like tags, class names or ids with common prefixes reused by
+ * many objects) only stores its number. Reading returns the same values in the same order they
+ * were written.
+ */
+public final class StateBuffer {
+
+  private ByteBuffer buf;
+  private final HashMap<String, Integer> stringIds = new HashMap<String, Integer>();
+  private final ArrayList<String> strings = new ArrayList<String>();
+  private final HashMap<Integer, Color> colors = new HashMap<Integer, Color>();
+
+  /**
+   * creates an empty buffer for writing.
+   *
+   * @param capacity initial capacity in bytes, grows as needed
+   */
+  StateBuffer(int capacity) {
+    this.buf = ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * creates a buffer reading the given bytes from their current position.
+   *
+   * @param data the bytes written by another buffer, see {@link #data()}
+   */
+  StateBuffer(ByteBuffer data) {
+    this.buf = data;
+  }
+
+  /** @return the bytes written so far, ready to be read */
+  ByteBuffer data() {
+    ByteBuffer data = this.buf.duplicate();
+    data.flip();
+    return data;
+  }
+
+  private void ensure(int bytes) {
+    if (buf.remaining() < bytes) {
+      ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * buf.capacity(), buf.position() + bytes));
+      buf.flip();
+      larger.put(buf);
+      buf = larger;
+    }
+  }
+
+  public void putByte(int value) {
+    ensure(1);
+    buf.put((byte) value);
+  }
+
+  public void putBoolean(boolean value) {
+    putByte(value ? 1 : 0);
+  }
+
+  public void putInt(int value) {
+    ensure(4);
+    buf.putInt(value);
+  }
+
+  public void putLong(long value) {
+    ensure(8);
+    buf.putLong(value);
+  }
+
+  public void putDouble(double value) {
+    ensure(8);
+    buf.putDouble(value);
+  }
+
+  /**
+   * writes a non-negative int in 1 to 5 bytes, small values need less.
+   *
+   * @param value count, index or length &gt;= 0
+   */
+  public void putVarInt(int value) {
+    ensure(5);
+    while ((value & ~0x7F) != 0) {
+      buf.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buf.put((byte) value);
+  }
+
+  /**
+   * writes a String, or only its number if it was written before.
+   *
+   * @param value the String, not null
+   */
+  public void putString(String value) {
+    Integer id = stringIds.get(value);
+    if (id != null) {
+      putVarInt(id + 1);
+      return;
+    }
+    stringIds.put(value, stringIds.size());
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    putVarInt(0);
+    putVarInt(utf8.length);
+    ensure(utf8.length);
+    buf.put(utf8);
+  }
+
+  /**
+   * writes a color with its alpha value.
+   *
+   * @param color the color, not null
+   */
+  public void putColor(Color color) {
+    putInt(color.getRGB());
+  }
+
+  public int getByte() {
+    return buf.get();
+  }
+
+  public boolean getBoolean() {
+    return buf.get() != 0;
+  }
+
+  public int getInt() {
+    return buf.getInt();
+  }
+
+  public long getLong() {
+    return buf.getLong();
+  }
+
+  public double getDouble() {
+    return buf.getDouble();
+  }
+
+  /** @return an int written by {@link #putVarInt(int)} */
+  public int getVarInt() {
+    int value = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = buf.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  /** @return a String written by {@link #putString(String)} */
+  public String getString() {
+    int id = getVarInt();
+    if (id > 0) {
+      return strings.get(id - 1);
+    }
+    byte[] utf8 = new byte[getVarInt()];
+    buf.get(utf8);
+    String value = new String(utf8, StandardCharsets.UTF_8);
+    strings.add(value);
+    return value;
+  }
+
+  /** @return a color written by {@link #putColor(Color)}, the same instance for equal values */
+  public Color getColor() {
+    int rgba = buf.getInt();
+    Color color = colors.get(rgba);
+    if (color == null) {
+      color = new Color(rgba, true);
+      colors.put(rgba, color);
+    }
+    return color;
+  }
+
+}
@@ -0,0 +1,25 @@
+package playground;
+
+/**
+ * Switch for trace logging in code that runs every frame, like updates, collision tests and
+ * drawing. Such log statements are guarded by {@link #ENABLED}:
+ *
+ * <pre>
+ * if (Trace.ENABLED) {
+ *   logger.trace("moving {} to {}", id, x);
+ * }
+ * </pre>
+ *
+ * Since {@link #ENABLED} is a static final field, the JIT compiler removes guarded statements
+ * completely when it is false, so they neither test the log level nor box arguments or build
+ * messages. Trace logging in the frame loop is switched on by starting the game with
+ * <code>-Dgame.trace=true</code>; the log level of the loggers (see log4j2.xml) still applies.
+ */
+public final class Trace {
+
+  /** true if the game was started with <code>-Dgame.trace=true</code> */
+  public static final boolean ENABLED = Boolean.getBoolean("game.trace");
+
+  private Trace() {}
+
+}
@@ -0,0 +1,44 @@
+package playground;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import gameobjects.GameObject;
+
+/**
+ * Collects the objects added and deleted by the controllers of one chunk of objects during a
+ * parallel {@link Playground#updateObjects()}. Every request is stored with the position of the
+ * requesting object in the update order, so the requests of all chunks can be merged in the same
+ * order as if the objects had been updated one after another.
+ */
+class UpdateBuffer {
+
+  /** position in the update order of the object currently updated */
+  int current = 0;
+
+  final ArrayList<GameObject> adds = new ArrayList<GameObject>();
+  int[] addOrder = new int[16];
+  final ArrayList<String> removes = new ArrayList<String>();
+  int[] removeOrder = new int[16];
+
+  void add(GameObject o) {
+    if (adds.size() == addOrder.length) {
+      addOrder = Arrays.copyOf(addOrder, 2 * addOrder.length);
+    }
+    addOrder[adds.size()] = current;
+    adds.add(o);
+  }
+
+  void remove(String id) {
+    if (removes.size() == removeOrder.length) {
+      removeOrder = Arrays.copyOf(removeOrder, 2 * removeOrder.length);
+    }
+    removeOrder[removes.size()] = current;
+    removes.add(id);
+  }
+
+  void clear() {
+    adds.clear();
+    removes.clear();
+  }
+
+}
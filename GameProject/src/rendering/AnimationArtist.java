@@ -2,92 +2,109 @@ package rendering;
 
 import gameobjects.GameObject;
 import playground.Animation;
+import playground.Trace;
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import java.util.LinkedList;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 
+/**
+ * Draws the current frame of an {@link Animation}, scaled, centered on the object. The frame is
+ * selected by {@link #update(double)} when the object is updated, from the game time passed since
+ * the animation started, so which frame is shown does not depend on when or how often the game is
+ * painted. {@link #draw(Graphics2D)} only draws it, see {@link SpriteAtlas}.
+ */
 public class AnimationArtist extends Artist {
 
-  protected LinkedList<BufferedImage> imageArray;
-  protected LinkedList<Double> showtime;
+  protected Animation animation;
+  /** frames scaled to w x h, shared with all artists of the same animation and scale */
+  protected SpriteAtlas atlas;
+  /** game time the animation started */
   protected double t0;
 
   protected int loopFrame = 0;
 
   protected double w = 0, h = 0, scale = 0;
-  protected String playmode = ""; // can be loop, forward, backward
+  protected Animation.PlayMode playmode;
   private static Logger logger = LogManager.getLogger(AnimationArtist.class);
 
 
-  public AnimationArtist(GameObject go, Animation anim, double t0, String playmode, double scale) {
+  public AnimationArtist(GameObject go, Animation anim, double t0, Animation.PlayMode playmode,
+      double scale) {
     super(go);
 
-    this.imageArray = anim.getImageList();
-    this.showtime = anim.getShowtimeList();
+    this.animation = anim;
+    this.scale = scale;
     this.t0 = t0;
-    logger.debug("AnimationArtist start = ") ;
-    this.loopFrame = 0;
-
-    for (int i = 0; i < imageArray.size(); i++) {
-      logger.trace("ANIMRAWWH="+imageArray.get(i).getWidth()) ;
-      this.w = Math.max(this.w, imageArray.get(i).getWidth());
-      this.h = Math.max(imageArray.get(i).getHeight(), this.h);
-    }
-    
-    logger.debug("AnimationArtist RAW WH = "+this.w+"/"+this.h) ;
-    
     this.playmode = playmode;
+    this.w = anim.getWidth();
+    this.h = anim.getHeight();
+
+    logger.debug("AnimationArtist RAW WH = {}/{}", this.w, this.h);
+
     this.w *= scale;
     this.h *= scale;
+    this.atlas = SpriteAtlas.get(anim, scale);
+    this.loopFrame = anim.frameAt(0, playmode);
   }
 
-  public double getW() {
-    return w;
+  public Animation getAnimation() {
+    return animation;
   }
 
-  public double getH() {
-    return h;
+  public double getScale() {
+    return scale;
   }
 
+  public Animation.PlayMode getPlaymode() {
+    return playmode;
+  }
 
-  @Override
-  public void draw(Graphics2D g) {
-    double i2 = this.getGameTime();
+  /** @return game time the animation started */
+  public double getT0() {
+    return t0;
+  }
 
-    double elapsedTime = i2 - t0;
+  /** @return index of the current frame */
+  public int getFrame() {
+    return loopFrame;
+  }
 
-    // Diff chance from sec to millis
-    double mseconds = (double) elapsedTime;
-     logger.debug("showtime= "+showtime.get(loopFrame)+" elapsed= "+elapsedTime+" i2= "+i2);
+  /**
+   * continues the animation at a frame, e.g. when a saved game is restored.
+   * 
+   * @param frame index of the frame
+   * @param t0 game time the animation started
+   */
+  public void setFrame(int frame, double t0) {
+    this.loopFrame = frame;
+    this.t0 = t0;
+  }
 
-    if (playmode.equals("loop")) {
-      if (mseconds >= showtime.get(loopFrame)) {
-        loopFrame++;
-        if (loopFrame >= imageArray.size())
-          loopFrame = 0;
-        t0 = i2;
-      }
-    }
+  public double getW() {
+    return w;
+  }
 
-    if (playmode.equals("forward")) {
-      if (mseconds >= showtime.get(loopFrame) && loopFrame < imageArray.size() - 1) {
-        loopFrame++;
-        t0 = i2;
-      }
-    }
+  public double getH() {
+    return h;
+  }
 
-    if (playmode.equals("backward")) {
-      if (mseconds >= showtime.get(loopFrame) && loopFrame > 1) {
-        loopFrame--;
-        t0 = i2;
-      }
+  /**
+   * selects the frame shown at a game time. Called when the object is updated.
+   * 
+   * @param gameTime the current game time
+   */
+  public void update(double gameTime) {
+    this.loopFrame = animation.frameAt(gameTime - t0, playmode);
+    if (Trace.ENABLED) {
+      logger.trace("elapsed= {} frame= {}", gameTime - t0, loopFrame);
     }
+  }
 
-    g.drawImage(imageArray.get(loopFrame), (int) Math.round(this.getX() - w / 2.),
-        (int) Math.round(this.getY() - h / 2.), (int) w, (int) h, null);
 
+  @Override
+  public void draw(Graphics2D g) {
+    atlas.draw(g, loopFrame, (int) Math.round(this.getX() - w / 2.),
+        (int) Math.round(this.getY() - h / 2.));
   }
 
 }
@@ -11,12 +11,12 @@ public abstract class Artist {
   }
 
   public double getX() {
-    return this.gameObject.getX();
+    return this.gameObject.getRenderX();
   }
 
 
   public double getY() {
-    return this.gameObject.getY();
+    return this.gameObject.getRenderY();
   }
 
 
@@ -0,0 +1,121 @@
+package rendering;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.HashMap;
+
+/**
+ * A text with fixed font and color that keeps its laid-out {@link GlyphVector}, so drawing the same
+ * text in every frame does not lay it out (and allocate) again. The layout is only redone when the
+ * text changes or the graphics context needs a different layout (e.g. other anti-aliasing
+ * settings). For texts showing a number, like a score, {@link #setValue(String, int)} builds the
+ * String only when the number changes.
+ * 
+ * <p>
+ * Fonts should be taken from {@link #getFont(String, int, int)}, which shares one instance per
+ * name, style and size.
+ * </p>
+ */
+public class CachedText {
+
+  private static HashMap<String, Font> fonts = new HashMap<String, Font>();
+
+  private final Font font;
+  private Color color;
+  private String text = "";
+
+  private String prefix = null;
+  private int value = 0;
+
+  private GlyphVector glyphs = null;
+  private FontRenderContext frc = null;
+
+  /**
+   * @param font font to draw with
+   * @param color color to draw with
+   */
+  public CachedText(Font font, Color color) {
+    this.font = font;
+    this.color = color;
+  }
+
+  /**
+   * returns a shared font instance.
+   * 
+   * @param name font name, e.g. "SansSerif"
+   * @param style font style, e.g. {@link Font#PLAIN}
+   * @param size font size in points
+   * @return the font, created on first request
+   */
+  public static synchronized Font getFont(String name, int style, int size) {
+    String key = name + "/" + style + "/" + size;
+    Font f = fonts.get(key);
+    if (f == null) {
+      f = new Font(name, style, size);
+      fonts.put(key, f);
+    }
+    return f;
+  }
+
+  /**
+   * sets the text to draw.
+   * 
+   * @param text the new text (not null)
+   */
+  public void setText(String text) {
+    if (!text.equals(this.text)) {
+      this.text = text;
+      this.prefix = null;
+      this.glyphs = null;
+    }
+  }
+
+  /**
+   * sets the text to a prefix followed by a number, e.g. "Points: " and 200. The String is only
+   * built if prefix or number differ from the last call.
+   * 
+   * @param prefix text in front of the number
+   * @param value the number
+   */
+  public void setValue(String prefix, int value) {
+    if (prefix != this.prefix || value != this.value) {
+      this.prefix = prefix;
+      this.value = value;
+      this.text = prefix + value;
+      this.glyphs = null;
+    }
+  }
+
+  public String getText() {
+    return this.text;
+  }
+
+  public Font getFont() {
+    return this.font;
+  }
+
+  public void setColor(Color color) {
+    this.color = color;
+  }
+
+  /**
+   * draws the text with its baseline starting at the given position.
+   * 
+   * @param g graphics context to draw on
+   * @param x left end of the text
+   * @param y baseline of the text
+   */
+  public void draw(Graphics2D g, float x, float y) {
+    FontRenderContext current = g.getFontRenderContext();
+    if (glyphs == null || !current.equals(frc)) {
+      frc = current;
+      glyphs = font.createGlyphVector(frc, text);
+    }
+    g.setColor(color);
+    g.drawGlyphVector(glyphs, x, y);
+  }
+
+}
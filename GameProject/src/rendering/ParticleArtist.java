@@ -0,0 +1,41 @@
+package rendering;
+
+import gameobjects.ParticleSystem;
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+/**
+ * Draws all live particles of a {@link ParticleSystem} as filled circles in one pass. The color of
+ * the graphics context is only changed when it differs from the previous particle's.
+ */
+public class ParticleArtist extends Artist {
+
+  protected ParticleSystem particles;
+
+  public ParticleArtist(ParticleSystem particles) {
+    super(particles);
+    this.particles = particles;
+  }
+
+  @Override
+  public void draw(Graphics2D g) {
+    double alpha = this.gameObject.getPlayground().getRenderAlpha();
+    Color current = null;
+    int n = particles.getHighWater();
+    for (int i = 0; i < n; i++) {
+      if (!particles.isAlive(i)) {
+        continue;
+      }
+      Color c = particles.getParticleColor(i);
+      if (c != current) {
+        g.setColor(c);
+        current = c;
+      }
+      double rad = particles.getParticleRadius(i);
+      int d = (int) (2 * rad);
+      g.fillOval((int) (particles.getParticleX(i, alpha) - rad),
+          (int) (particles.getParticleY(i, alpha) - rad), d, d);
+    }
+  }
+
+}
@@ -16,6 +16,10 @@ public class RectArtist extends Artist {
     this.height = height;
   }
 
+  public Color getColor() {
+    return this.color;
+  }
+
   @Override
   public void draw(Graphics2D g) {
     g.setColor(this.color);
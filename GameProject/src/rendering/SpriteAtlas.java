@@ -0,0 +1,143 @@
+package rendering;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import playground.Animation;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * All frames of an {@link Animation}, scaled once to the size they are drawn with and packed into
+ * a single image. Drawing a frame is then an unscaled blit of a part of that image, instead of
+ * scaling the original frame in every paint. The image is created by
+ * {@link GraphicsConfiguration#createCompatibleImage(int, int, int)} of the screen, so it has the
+ * pixel layout of the screen and Java2D can keep a copy of it in video memory (it is never changed
+ * after it has been built).
+ *
+ * <p>
+ * Atlases should be taken from {@link #get(Animation, double)}, which shares one atlas per
+ * animation and scale, e.g. for all aliens of a level.
+ * </p>
+ */
+public class SpriteAtlas {
+
+  /** atlases are at most this wide; frames continue in the next row */
+  public static final int MAX_WIDTH = 2048;
+
+  /** atlases by animation and scale; an atlas is dropped with its animation */
+  private static Map<Animation, Map<Double, SpriteAtlas>> atlases =
+      new WeakHashMap<Animation, Map<Double, SpriteAtlas>>();
+  private static Logger logger = LogManager.getLogger(SpriteAtlas.class);
+
+  private final BufferedImage image;
+  private final int frames;
+  private final int columns;
+  private final int cellW, cellH;
+
+  /**
+   * scales and packs frames. Every frame is scaled to the same cell size, like
+   * {@link AnimationArtist} has always drawn them.
+   *
+   * @param anim the animation
+   * @param cellW width of a scaled frame
+   * @param cellH height of a scaled frame
+   */
+  SpriteAtlas(Animation anim, int cellW, int cellH) {
+    this.frames = anim.getFrameCount();
+    this.cellW = Math.max(1, cellW);
+    this.cellH = Math.max(1, cellH);
+    this.columns = Math.max(1, Math.min(frames, MAX_WIDTH / this.cellW));
+    int rows = Math.max(1, (frames + columns - 1) / columns);
+    this.image = createImage(columns * this.cellW, rows * this.cellH);
+
+    Graphics2D g = image.createGraphics();
+    for (int i = 0; i < frames; i++) {
+      g.drawImage(anim.getImage(i), cellX(i), cellY(i), this.cellW, this.cellH, null);
+    }
+    g.dispose();
+  }
+
+  /**
+   * returns the shared atlas of an animation at a scale, building it on first request.
+   *
+   * @param anim the animation
+   * @param scale factor the frames are scaled with
+   * @return the atlas; cells are as large as the largest frame, scaled
+   */
+  public static synchronized SpriteAtlas get(Animation anim, double scale) {
+    Map<Double, SpriteAtlas> scales = atlases.get(anim);
+    if (scales == null) {
+      scales = new HashMap<Double, SpriteAtlas>();
+      atlases.put(anim, scales);
+    }
+    SpriteAtlas atlas = scales.get(scale);
+    if (atlas == null) {
+      long start = System.nanoTime();
+      atlas = new SpriteAtlas(anim, (int) (anim.getWidth() * scale),
+          (int) (anim.getHeight() * scale));
+      scales.put(scale, atlas);
+      logger.debug("atlas of {} at scale {}: {}x{} in {} us", anim.getPath(), scale,
+          atlas.image.getWidth(), atlas.image.getHeight(), (System.nanoTime() - start) / 1000);
+    }
+    return atlas;
+  }
+
+  /** image with the pixel layout of the screen, or a plain ARGB image without a screen */
+  private static BufferedImage createImage(int w, int h) {
+    if (GraphicsEnvironment.isHeadless()) {
+      return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+    GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+        .getDefaultScreenDevice().getDefaultConfiguration();
+    return gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+  }
+
+  private int cellX(int frame) {
+    return (frame % columns) * cellW;
+  }
+
+  private int cellY(int frame) {
+    return (frame / columns) * cellH;
+  }
+
+  /** @return number of frames */
+  public int getFrameCount() {
+    return frames;
+  }
+
+  public int getCellW() {
+    return cellW;
+  }
+
+  public int getCellH() {
+    return cellH;
+  }
+
+  /** @return the packed frames */
+  public BufferedImage getImage() {
+    return image;
+  }
+
+  /**
+   * draws a frame unscaled.
+   *
+   * @param g graphics context to draw on
+   * @param frame index of the frame; nothing is drawn if there is no such frame
+   * @param x left edge
+   * @param y top edge
+   */
+  public void draw(Graphics2D g, int frame, int x, int y) {
+    if (frame < 0 || frame >= frames) {
+      return;
+    }
+    int sx = cellX(frame), sy = cellY(frame);
+    g.drawImage(image, x, y, x + cellW, y + cellH, sx, sy, sx + cellW, sy + cellH, null);
+  }
+
+}
@@ -5,31 +5,36 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.font.FontRenderContext;
-import java.awt.font.TextAttribute;
-import java.text.AttributedString;
+import java.awt.geom.Rectangle2D;
 
 /**
- * Rendering an object as a text of a specified color, size and font.
+ * Rendering an object as a text of a specified color, size and font. The laid-out text is cached
+ * (see {@link CachedText}), so drawing does not allocate unless the text changes.
  */
 public class TextArtist extends Artist {
 
+  private static final FontRenderContext MEASURE_FRC = new FontRenderContext(null, false, false);
+
   private String text = null;
   private int size = 1;
   private Color textColor = null;
   protected double textWidth, textHeight;
   Font serifFont = null;
+  private CachedText cachedText;
 
   public TextArtist(GameObject go, String text, int size, Color textColor) {
     super(go);
     this.size = size;
     this.text = text;
 
-    this.serifFont = new Font("Serif", Font.PLAIN, size);
-    FontRenderContext frc = new FontRenderContext(null, false, false);
-    this.textWidth = (int) (serifFont.getStringBounds(text, frc).getWidth());
-    this.textHeight = (int) (serifFont.getStringBounds(text, frc).getHeight());
+    this.serifFont = CachedText.getFont("Serif", Font.PLAIN, size);
+    Rectangle2D bounds = serifFont.getStringBounds(text, MEASURE_FRC);
+    this.textWidth = (int) (bounds.getWidth());
+    this.textHeight = (int) (bounds.getHeight());
 
     this.textColor = textColor;
+    this.cachedText = new CachedText(serifFont, textColor);
+    this.cachedText.setText(text);
   }
 
 
@@ -37,8 +42,17 @@ public class TextArtist extends Artist {
     return this.text;
   }
 
+  public int getSize() {
+    return this.size;
+  }
+
+  public Color getColor() {
+    return this.textColor;
+  }
+
   public void setText(String s) {
     this.text = s;
+    this.cachedText.setText(s);
   }
 
 
@@ -70,11 +84,7 @@ public class TextArtist extends Artist {
    */
   @Override
   public void draw(Graphics2D g) {
-    AttributedString as = new AttributedString(this.text);
-    as.addAttribute(TextAttribute.FONT, this.serifFont);
-    as.addAttribute(TextAttribute.FOREGROUND, this.textColor);
-
-    g.drawString(as.getIterator(), (int) Math.round(this.getX() - this.textWidth / 2.),
+    this.cachedText.draw(g, (int) Math.round(this.getX() - this.textWidth / 2.),
         (int) Math.round(this.getY() + this.textHeight / 2.));
   }
 
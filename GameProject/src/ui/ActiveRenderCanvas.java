@@ -0,0 +1,68 @@
+package ui;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import playground.Playground;
+
+/**
+ * Heavyweight canvas for active rendering. The game thread draws the {@link Playground} directly
+ * into the back buffer of a {@link BufferStrategy} and flips it, instead of requesting a repaint
+ * from Swing and waiting for the event dispatch thread. Used by {@link GamePanel} if active
+ * rendering was selected at startup (see {@link GameUI#GameUI(int, int, int)}).
+ */
+class ActiveRenderCanvas extends Canvas {
+  private static final long serialVersionUID = 1L;
+
+  /** number of buffers: 2 for double buffering, 3 for triple buffering */
+  private final int numBuffers;
+
+  ActiveRenderCanvas(int numBuffers) {
+    super();
+    this.numBuffers = numBuffers;
+    setIgnoreRepaint(true);
+    setFocusable(true);
+  }
+
+  /**
+   * draws the given level into the back buffer and shows it. Repeats drawing if the buffer
+   * contents were lost in between (e.g. after a display mode change). Must not be called before the
+   * canvas is displayable; in that case nothing is drawn.
+   * 
+   * @param playground the level to draw (can be null, then only the background is cleared)
+   * @param alpha interpolation factor forwarded to {@link Playground#redraw(Graphics2D, double)}
+   * @return true if a frame was shown, false if the canvas is not yet displayable
+   */
+  boolean render(Playground playground, double alpha) {
+    if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) {
+      return false;
+    }
+    BufferStrategy strategy = getBufferStrategy();
+    if (strategy == null) {
+      createBufferStrategy(numBuffers);
+      strategy = getBufferStrategy();
+    }
+
+    do {
+      do {
+        Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+        try {
+          g.setColor(getBackground());
+          g.fillRect(0, 0, getWidth(), getHeight());
+          if (playground != null) {
+            playground.redraw(g, alpha);
+          }
+        } finally {
+          g.dispose();
+        }
+      } while (strategy.contentsRestored());
+      strategy.show();
+    } while (strategy.contentsLost());
+
+    // flush the window system's drawing queue (needed on Linux for smooth output)
+    Toolkit.getDefaultToolkit().sync();
+    return true;
+  }
+
+}
@@ -1,5 +1,6 @@
 package ui;
 
+import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
@@ -7,8 +8,13 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.util.HashMap;
 import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.swing.JPanel;
+import playground.InputQueue;
 import playground.Playground;
+import playground.Trace;
 import java.awt.event.*;
 
 import org.apache.logging.log4j.Logger;
@@ -21,10 +27,26 @@ import org.apache.logging.log4j.LogManager;
  */
 class GamePanel extends JPanel implements KeyListener, MouseListener {
   private static final long serialVersionUID = 1L;
+  /**
+   * maximum time the game thread waits for a frame to be painted, e.g. if the window is minimized
+   * and Swing skips painting.
+   */
+  static final long MAX_PAINT_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
   protected volatile boolean painting = false;
+  /**
+   * guards {@link #painting} and the drawing of the playground; the game thread waits on
+   * {@link #paintDone} and holds the lock while it changes the objects, see {@link #lockPainting()}
+   */
+  private final ReentrantLock paintLock = new ReentrantLock();
+  private final Condition paintDone = paintLock.newCondition();
+  private volatile long lastPaintWaitNanos = 0;
+  /** canvas used for active rendering, null if painting is done by Swing (default) */
+  private ActiveRenderCanvas activeCanvas = null;
+  private volatile double renderAlpha = 1.;
   private Playground playground = null;
   private HashMap<Integer, Integer> keys = new HashMap<Integer, Integer>();
-  Stack<KeyEvent> keyEvents = new Stack<KeyEvent>();
+  /** key events from the Swing thread to the game thread */
+  private final InputQueue keyEvents = new InputQueue();
   Stack<MouseEvent> mouseEvents = new Stack<MouseEvent>();
 
   private static Logger logger = LogManager.getLogger(GamePanel.class);
@@ -45,17 +67,122 @@ class GamePanel extends JPanel implements KeyListener, MouseListener {
   }
 
   public void setPainting() {
-    painting = true;
+    paintLock.lock();
+    try {
+      painting = true;
+    } finally {
+      paintLock.unlock();
+    }
+  }
+
+
+  /**
+   * switches this panel to active rendering: a {@link ActiveRenderCanvas} is added that covers the
+   * whole panel and receives key events. The game thread then draws frames by calling
+   * {@link #renderActive()} instead of {@link #repaint()}/{@link #waitWhilePainting()}. Call only
+   * once, before the panel is shown.
+   * 
+   * @param numBuffers number of buffers, 2 for double or 3 for triple buffering
+   */
+  void enableActiveRendering(int numBuffers) {
+    this.activeCanvas = new ActiveRenderCanvas(numBuffers);
+    this.activeCanvas.addKeyListener(this);
+    setLayout(new BorderLayout());
+    add(this.activeCanvas, BorderLayout.CENTER);
+    setIgnoreRepaint(true);
+  }
+
+
+  boolean isActiveRendering() {
+    return this.activeCanvas != null;
+  }
+
+
+  /**
+   * draws the current playground directly into the back buffer of the active rendering canvas and
+   * flips it. Only usable after {@link #enableActiveRendering(int)}.
+   * 
+   * @return nanoseconds spent for drawing the frame
+   */
+  long renderActive() {
+    long start = System.nanoTime();
+    this.activeCanvas.render(this.playground, this.renderAlpha);
+    lastPaintWaitNanos = System.nanoTime() - start;
+    return lastPaintWaitNanos;
+  }
+
+
+  /** requests keyboard focus for the component receiving key events */
+  void requestInputFocus() {
+    if (this.activeCanvas != null) {
+      this.activeCanvas.requestFocusInWindow();
+    } else {
+      grabFocus();
+    }
+  }
+
+
+  public void setRenderAlpha(double alpha) {
+    this.renderAlpha = alpha;
   }
 
 
-  public void waitWhilePainting() {
-    while (painting) {
+  /**
+   * blocks the calling (game) thread until {@link #paintComponent(Graphics)} has finished the frame
+   * requested by {@link #setPainting()}, or {@link #MAX_PAINT_WAIT_NANOS} have passed. A paint that
+   * has already started is always waited for, since it holds the lock until it is done; the frame
+   * is then painted later, see {@link #lockPainting()}.
+   * 
+   * @return nanoseconds the calling thread has waited
+   */
+  public long waitWhilePainting() {
+    long start = System.nanoTime();
+    paintLock.lock();
+    try {
+      long remaining = MAX_PAINT_WAIT_NANOS;
+      while (painting && remaining > 0) {
+        remaining = paintDone.awaitNanos(remaining);
+      }
+      if (painting) {
+        logger.debug("frame was not painted in time, it waits for the next update");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      paintLock.unlock();
     }
+    lastPaintWaitNanos = System.nanoTime() - start;
+    return lastPaintWaitNanos;
+  }
+
+
+  /**
+   * @return nanoseconds the game thread has waited in the last call of {@link #waitWhilePainting()}
+   */
+  public long getLastPaintWaitNanos() {
+    return lastPaintWaitNanos;
+  }
+
+
+  /**
+   * keeps {@link #paintComponent(Graphics)} from drawing the playground until
+   * {@link #unlockPainting()} is called. The game thread holds this while it updates the objects,
+   * so a paint that Swing starts late, e.g. after {@link #waitWhilePainting()} has given up, waits
+   * for the update instead of iterating the objects while they change. Waits for a paint in
+   * progress.
+   */
+  void lockPainting() {
+    paintLock.lock();
   }
 
 
-  Stack<KeyEvent> getKeyEvents() {
+  /** lets {@link #paintComponent(Graphics)} draw again, see {@link #lockPainting()} */
+  void unlockPainting() {
+    paintLock.unlock();
+  }
+
+
+  InputQueue getKeyEvents() {
     return keyEvents;
   }
 
@@ -81,11 +208,19 @@ class GamePanel extends JPanel implements KeyListener, MouseListener {
   @Override
   public void paintComponent(Graphics g) {
     super.paintComponent(g);
-    logger.trace("my Playground: " + playground);
-    if (playground != null) {
-      playground.redraw((Graphics2D) g);
+    if (Trace.ENABLED) {
+      logger.trace("my Playground: {}", playground);
+    }
+    paintLock.lock();
+    try {
+      if (playground != null && activeCanvas == null) {
+        playground.redraw((Graphics2D) g, renderAlpha);
+      }
+      painting = false;
+      paintDone.signalAll();
+    } finally {
+      paintLock.unlock();
     }
-    painting = false;
 
   }
 
@@ -102,17 +237,16 @@ class GamePanel extends JPanel implements KeyListener, MouseListener {
 
   @Override
   public void keyPressed(KeyEvent e) {
-    logger.debug("pressed keyCode " + e.getKeyCode());
-    logger.trace(e.paramString());
-    this.keyEvents.push(e);
+    if (!this.keyEvents.offer(InputQueue.KEY_PRESSED, e.getKeyCode(), System.nanoTime())) {
+      logger.warn("input queue full, key press dropped");
+    }
   }
 
   @Override
   public void keyReleased(KeyEvent e) {
-
-    logger.debug("released keyCode " + e.getKeyCode());
-    this.keyEvents.push(e);
-    logger.trace(e.paramString());
+    if (!this.keyEvents.offer(InputQueue.KEY_RELEASED, e.getKeyCode(), System.nanoTime())) {
+      logger.warn("input queue full, key release dropped");
+    }
   }
 
   @Override
@@ -10,6 +10,7 @@ import javax.swing.JPanel;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.WindowConstants;
+import playground.InputQueue;
 import playground.Playground;
 
 import java.awt.event.*;
@@ -82,10 +83,29 @@ public class GameUI implements ActionListener {
    * @param sizeY pixel dimension wanted in y direction
    */
   public GameUI(int sizeX, int sizeY) {
+    this(sizeX, sizeY, 0);
+  }
+
+  /**
+   * creates the GUI like {@link #GameUI(int, int)}, but allows to select active rendering. With
+   * active rendering the game thread draws each frame directly into a
+   * {@link java.awt.image.BufferStrategy} in {@link #waitWhilePainting()} instead of requesting a
+   * repaint from Swing.
+   * 
+   * @param sizeX pixel dimension wanted in x direction
+   * @param sizeY pixel dimension wanted in y direction
+   * @param renderBuffers 0 for painting by Swing (default), 2 for active rendering with double
+   *        buffering, 3 for active rendering with triple buffering
+   */
+  public GameUI(int sizeX, int sizeY, int renderBuffers) {
 
     // create a canvas on which the levels (Playgrounds) will be painted later when loaded and
     // started.
     this.canvas = new GamePanel();
+    if (renderBuffers > 0) {
+      logger.info("active rendering with " + renderBuffers + " buffers");
+      this.canvas.enableActiveRendering(renderBuffers);
+    }
 
 
     // create contentPane
@@ -160,7 +180,10 @@ public class GameUI implements ActionListener {
     return canvas.getCurrentKey();
   }
 
-  public Stack<KeyEvent> getKeyEvents() {
+  /**
+   * @return queue of key events from the window to the game thread
+   */
+  public InputQueue getKeyEvents() {
     return this.canvas.getKeyEvents();
   }
 
@@ -187,10 +210,53 @@ public class GameUI implements ActionListener {
     canvas.setPainting();
   }
 
-  public void waitWhilePainting() {
+  /**
+   * requests a repaint of the canvas and blocks until the frame has been painted by the Swing
+   * event dispatch thread. In active rendering mode the frame is drawn directly by the calling
+   * thread instead.
+   * 
+   * @return nanoseconds the calling thread has waited for the frame
+   */
+  public long waitWhilePainting() {
+    if (canvas.isActiveRendering()) {
+      return canvas.renderActive();
+    }
     canvas.setPainting();
     canvas.repaint();
-    canvas.waitWhilePainting();
+    return canvas.waitWhilePainting();
+  }
+
+  /**
+   * repaints the canvas like {@link #waitWhilePainting()}, but forwards an interpolation factor to
+   * {@link Playground#redraw(java.awt.Graphics2D, double)}.
+   *
+   * @param alpha interpolation factor between last (0) and current (1) object positions
+   * @return nanoseconds the calling thread has waited for the frame
+   */
+  public long waitWhilePainting(double alpha) {
+    canvas.setRenderAlpha(alpha);
+    return waitWhilePainting();
+  }
+
+  /**
+   * @return nanoseconds the game thread has waited for the last painted frame
+   */
+  public long getLastPaintWaitNanos() {
+    return canvas.getLastPaintWaitNanos();
+  }
+
+
+  /**
+   * keeps the canvas from drawing the playground while the calling (game) thread changes the
+   * objects. Every call must be followed by {@link #unlockPainting()}, best in a finally block.
+   */
+  public void lockPainting() {
+    canvas.lockPainting();
+  }
+
+  /** ends {@link #lockPainting()} */
+  public void unlockPainting() {
+    canvas.unlockPainting();
   }
 
 
@@ -205,7 +271,7 @@ public class GameUI implements ActionListener {
 
 
   public void grabFocus() {
-    canvas.grabFocus();
+    canvas.requestInputFocus();
   }
 
 
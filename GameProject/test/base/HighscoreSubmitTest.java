@@ -0,0 +1,95 @@
+package base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import playground.HighscoreManager;
+import playground.Level1;
+
+/**
+ * Tests that a game played by {@link HeadlessRunner} enters its points into the highscore table
+ * exactly once, at the end of the game, no matter how many levels were played.
+ */
+class HighscoreSubmitTest {
+
+  private static final double LEVEL_TIME = 0.5;
+
+  @TempDir
+  File tempDir;
+
+  private HighscoreManager highscores;
+
+  /** a level that is finished, or lost, after {@link #LEVEL_TIME} seconds */
+  private static class ShortLevel extends Level1 {
+    private final boolean lose;
+
+    ShortLevel(boolean lose) {
+      this.lose = lose;
+    }
+
+    @Override
+    public boolean levelFinished() {
+      return !lose && getGameTime() > LEVEL_TIME;
+    }
+
+    @Override
+    public boolean gameOver() {
+      return super.gameOver() || (lose && getGameTime() > LEVEL_TIME);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    highscores = new HighscoreManager(new File(tempDir, "highscore.journal").toPath());
+  }
+
+  @AfterEach
+  void tearDown() {
+    highscores.close();
+  }
+
+  private SimulationResult play(long maxFrames, ShortLevel... levels) {
+    GameLoop game = new GameLoop();
+    game.resetLevels();
+    for (ShortLevel level : levels) {
+      game.addLevel(level);
+    }
+    SimulationResult result = new HeadlessRunner(game).setSeed(1L).setHighscores(highscores)
+        .run(new InputScript(), maxFrames);
+    highscores.flush(1000);
+    return result;
+  }
+
+  @Test
+  void finishedGameGivesOneEntry() {
+    SimulationResult result =
+        play(10000, new ShortLevel(false), new ShortLevel(false), new ShortLevel(false));
+    assertEquals(3, result.getLevelsFinished());
+    List<HighscoreManager.Entry> entries = highscores.getTopScores();
+    assertEquals(1, entries.size());
+    assertEquals("level2", entries.get(0).getLevel());
+    assertEquals(result.getPoints(), entries.get(0).getScore());
+  }
+
+  @Test
+  void lostGameGivesOneEntry() {
+    SimulationResult result =
+        play(10000, new ShortLevel(false), new ShortLevel(true), new ShortLevel(false));
+    assertTrue(result.isGameOver());
+    List<HighscoreManager.Entry> entries = highscores.getTopScores();
+    assertEquals(1, entries.size());
+    assertEquals("level1", entries.get(0).getLevel());
+  }
+
+  @Test
+  void unfinishedGameGivesNoEntry() {
+    play(10, new ShortLevel(false), new ShortLevel(false));
+    assertEquals(0, highscores.getTopScores().size());
+  }
+
+}
@@ -0,0 +1,56 @@
+package base;
+
+import static org.junit.Assert.assertEquals;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import playground.Playground;
+
+/**
+ * Tests that a game recorded with a {@link SessionRecorder} ends exactly like the recorded one when
+ * it is replayed with {@link HeadlessRunner#replay(SessionReplayer)}, even if the random numbers
+ * were used in between.
+ */
+class SessionReplayTest {
+
+  private static final long FRAMES = 2000;
+  private static final long SEED = 42;
+
+  @TempDir
+  File tempDir;
+
+  private static InputScript moveAndShoot() {
+    InputScript script = new InputScript();
+    for (int f = 0; f < FRAMES; f += 40) {
+      int key = (f / 40) % 2 == 0 ? KeyEvent.VK_LEFT : KeyEvent.VK_RIGHT;
+      script.press(f, KeyEvent.VK_SPACE).release(f + 1, KeyEvent.VK_SPACE);
+      script.press(f + 5, key).release(f + 30, key);
+    }
+    return script;
+  }
+
+  @Test
+  void replayEqualsRecording() throws IOException {
+    File file = new File(tempDir, "session.bin");
+    HeadlessRunner recording = new HeadlessRunner(new GameLoop()).setSeed(SEED);
+    recording.setRecorder(new SessionRecorder(file, SEED, true, GameLoop.FIXED_TIMESTEP));
+    SimulationResult recorded = recording.run(moveAndShoot(), FRAMES);
+
+    Playground.setRandomSeed(SEED + 1);
+    SimulationResult replayed;
+    try (SessionReplayer replayer = new SessionReplayer(file)) {
+      replayed = new HeadlessRunner(new GameLoop()).replay(replayer);
+    }
+
+    assertEquals(recorded.getFrames(), replayed.getFrames());
+    assertEquals(recorded.getPoints(), replayed.getPoints());
+    assertEquals(recorded.getLives(), replayed.getLives());
+    assertEquals(recorded.getLevelsFinished(), replayed.getLevelsFinished());
+    assertEquals(recorded.isGameOver(), replayed.isGameOver());
+    assertEquals(Double.doubleToLongBits(recorded.getGameTime()),
+        Double.doubleToLongBits(replayed.getGameTime()));
+  }
+
+}
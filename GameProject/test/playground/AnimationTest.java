@@ -0,0 +1,47 @@
+package playground;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.jupiter.api.Test;
+import playground.Animation.PlayMode;
+
+/**
+ * Tests finding the frame of an {@link Animation} by time, with the alien animation: 8 frames shown
+ * 0.2, 0.5, 0.2, 0.5, 0.4, 0.2, 0.3 and 0.5 seconds.
+ */
+class AnimationTest {
+
+  private final Animation anim = new Animation("./video/sweetAlien.txt");
+
+  @Test
+  void readsFramesAndShowtimes() {
+    assertEquals(8, anim.getFrameCount());
+    assertEquals(0.5, anim.getShowtime(1), 1e-9);
+    assertEquals(2.8, anim.getDuration(), 1e-9);
+  }
+
+  @Test
+  void loop() {
+    assertEquals(0, anim.frameAt(0, PlayMode.LOOP));
+    assertEquals(0, anim.frameAt(0.19, PlayMode.LOOP));
+    assertEquals(1, anim.frameAt(0.21, PlayMode.LOOP));
+    assertEquals(2, anim.frameAt(0.8, PlayMode.LOOP));
+    assertEquals(7, anim.frameAt(2.7, PlayMode.LOOP));
+    assertEquals(0, anim.frameAt(2.85, PlayMode.LOOP));
+    assertEquals(1, anim.frameAt(10 * 2.8 + 0.3, PlayMode.LOOP));
+  }
+
+  @Test
+  void forwardAndBackwardStopAtTheEnd() {
+    assertEquals(3, anim.frameAt(1.0, PlayMode.FORWARD));
+    assertEquals(7, anim.frameAt(2.85, PlayMode.FORWARD));
+    assertEquals(7, anim.frameAt(100, PlayMode.FORWARD));
+
+    assertEquals(7, anim.frameAt(0, PlayMode.BACKWARD));
+    assertEquals(7, anim.frameAt(0.49, PlayMode.BACKWARD));
+    assertEquals(6, anim.frameAt(0.51, PlayMode.BACKWARD));
+    assertEquals(1, anim.frameAt(2.5, PlayMode.BACKWARD));
+    assertEquals(0, anim.frameAt(2.7, PlayMode.BACKWARD));
+    assertEquals(0, anim.frameAt(100, PlayMode.BACKWARD));
+  }
+
+}
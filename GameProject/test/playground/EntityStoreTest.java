@@ -0,0 +1,84 @@
+package playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.awt.Color;
+import java.util.ArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import controller.EnemyController;
+import controller.FallingStarController;
+import controller.SimpleShotController;
+import gameobjects.EntityStore;
+import gameobjects.GameObject;
+import gameobjects.RectObject;
+
+/**
+ * Tests that a level keeping its objects in an {@link EntityStore} (see
+ * {@link Playground#setEntityStore(EntityStore)}), with stars, shots and enemies moved in bulk,
+ * gives the same positions in every step as a level without store. The objects start at the
+ * borders where their controllers delete, wrap or turn them.
+ */
+class EntityStoreTest {
+
+  private static final int NR_OBJECTS = 300;
+  private static final int STEPS = 120;
+
+  @AfterEach
+  void tearDown() {
+    Playground.setEntityStore(null);
+  }
+
+  /** runs the scene and returns the positions of all objects after each step, "-" if deleted */
+  private ArrayList<String> simulate(EntityStore store) {
+    Playground.setEntityStore(store);
+    ArrayList<String> result = new ArrayList<String>();
+    Level1 level = new Level1();
+    level.reset();
+    Playground.setGlobalFlag("points", 0);
+    level.setTimestep(1. / 60.);
+    int sizeX = level.getSizeX(), sizeY = level.getSizeY();
+    for (int i = 0; i < NR_OBJECTS; i++) {
+      GameObject o;
+      if (i % 3 == 0) {
+        // stars at the bottom, wrapping to the top
+        o = new RectObject("o" + i, level, (i * 7) % sizeX, sizeY - 3 - i % 5, 0, 40 + i % 30, 4,
+            4, Color.WHITE).addController(new FallingStarController());
+      } else if (i % 3 == 1) {
+        // shots at the top, leaving the level
+        o = new RectObject("o" + i, level, (i * 7) % sizeX, 3 - i % 4, 0, -120 - i % 50, 4, 4,
+            Color.WHITE).addController(new SimpleShotController());
+      } else {
+        // enemies at the left and right border and at the bottom
+        double x = i % 2 == 0 ? sizeX * 0.1 - 1 : sizeX * 0.9 + 1;
+        o = new RectObject("o" + i, level, x, sizeY - 30 + i % 40, i % 2 == 0 ? -50 : 50, 60, 4,
+            4, Color.WHITE).addController(new EnemyController());
+      }
+      level.addObjectNow(o);
+    }
+    for (int s = 0; s < STEPS; s++) {
+      level.updateObjects();
+      StringBuilder step = new StringBuilder();
+      for (int i = 0; i < NR_OBJECTS; i++) {
+        GameObject o = level.getObject("o" + i);
+        step.append(o == null ? "-" : o.getX() + "/" + o.getY()).append(' ');
+      }
+      result.add(step.toString());
+    }
+    result.add("points " + Playground.getGlobalFlag("points"));
+    level.reset();
+    return result;
+  }
+
+  @Test
+  void bulkMovementEqualsMovementByControllers() {
+    ArrayList<String> plain = simulate(null);
+    ArrayList<String> stored = simulate(new EntityStore(16));
+    assertTrue("some objects are deleted", plain.get(0).contains("-"));
+    assertTrue("points changed", !plain.get(plain.size() - 1).equals("points 0"));
+    for (int s = 0; s < plain.size(); s++) {
+      assertEquals("step " + s, plain.get(s), stored.get(s));
+    }
+  }
+
+}
@@ -0,0 +1,87 @@
+package playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.awt.Color;
+import java.lang.ref.WeakReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import gameobjects.GameObject;
+import gameobjects.RectObject;
+
+/**
+ * Tests the typed flag slots of {@link FlagTable} and the scoped resets of
+ * {@link Playground#resetFlags(int)}, also through the String based flag methods.
+ */
+class FlagTableTest {
+
+  private static final Flag POINTS = Flag.of("points");
+  private static final Flag STATUS = Flag.of("testStatus");
+  private static final Flag INPUT = Flag.of("testInput");
+
+  private final Level1 level = new Level1();
+
+  @AfterEach
+  void tearDown() {
+    level.resetFlags(Playground.FLAGS_ALL);
+  }
+
+  @Test
+  void handlesAreInterned() {
+    assertSame(POINTS, Flag.of("points"));
+    assertEquals("points", POINTS.getName());
+  }
+
+  @Test
+  void typedSlotsAndBoxedView() {
+    FlagTable flags = Playground.getGlobalFlags();
+    flags.setInt(POINTS, 100);
+    assertEquals(300, flags.addInt(POINTS, 200));
+    assertEquals(Integer.valueOf(300), Playground.getGlobalFlag("points"));
+
+    Playground.setGlobalFlag("points", Integer.valueOf(7));
+    assertEquals(7, flags.getInt(POINTS, 0));
+    assertThrows(ClassCastException.class, () -> flags.getDouble(POINTS, 0));
+
+    flags.set(POINTS, "text");
+    assertEquals("text", flags.get(POINTS));
+    flags.set(POINTS, null);
+    assertFalse(flags.isSet(POINTS));
+    assertEquals(-1, flags.getInt(POINTS, -1));
+  }
+
+  @Test
+  void resetsRemoveOnlyTheirScope() {
+    GameObject o = new RectObject("o", level, 0, 0, 0, 0, 1, 1, Color.RED);
+    Playground.getGlobalFlags().setInt(POINTS, 5);
+    level.setLevelFlag("testStatus", "playing");
+    o.getObjectFlags().setInt(STATUS, 2);
+
+    level.resetFlags(Playground.FLAGS_LEVEL);
+    assertNull(level.getLevelFlag("testStatus"));
+    assertFalse(o.getObjectFlags().isSet(STATUS));
+    assertEquals(5, Playground.getGlobalFlags().getInt(POINTS, 0));
+
+    level.setLevelFlag("testStatus", "again");
+    level.resetFlags(Playground.FLAGS_GLOBAL);
+    assertFalse(Playground.getGlobalFlags().isSet(POINTS));
+    assertTrue(level.getLevelFlags().isSet(STATUS));
+
+    // a reset table does not keep its old objects reachable
+    Object input = new Object();
+    WeakReference<Object> ref = new WeakReference<Object>(input);
+    level.getLevelFlags().set(INPUT, input);
+    input = null;
+    level.resetFlags(Playground.FLAGS_LEVEL);
+    assertNull(level.getLevelFlags().get(INPUT));
+    for (int i = 0; i < 10 && ref.get() != null; i++) {
+      System.gc();
+    }
+    assertNull(ref.get());
+  }
+
+}
@@ -0,0 +1,76 @@
+package playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the {@link HighscoreManager} keeps the best scores over restarts, survives an
+ * interrupted write and compacts its journal.
+ */
+class HighscoreManagerTest {
+
+  @TempDir
+  File tempDir;
+
+  private Path journal() {
+    return new File(tempDir, "highscore.journal").toPath();
+  }
+
+  private static HighscoreManager reopen(HighscoreManager hm, Path journal) {
+    hm.close();
+    return new HighscoreManager(journal);
+  }
+
+  @Test
+  void keepsBestScoresOverRestarts() {
+    HighscoreManager hm = new HighscoreManager(journal());
+    for (int i = 1; i <= 15; i++) {
+      hm.submit("p" + i, (i * 37) % 16 * 100, "level" + i);
+    }
+    List<HighscoreManager.Entry> before = hm.getTopScores();
+    assertEquals(HighscoreManager.TOP_N, before.size());
+    assertEquals(1500, hm.getHighscore());
+
+    HighscoreManager again = reopen(hm, journal());
+    assertEquals(before.toString(), again.getTopScores().toString());
+    again.close();
+  }
+
+  @Test
+  void ignoresIncompleteLastLine() throws IOException {
+    Files.write(journal(), "500\tlevel1\t1\tanna\n700\tlevel2\t2\tben\n900\tlev"
+        .getBytes(StandardCharsets.UTF_8));
+    HighscoreManager hm = new HighscoreManager(journal());
+    assertEquals(700, hm.getHighscore());
+    hm.submit("carl", 600, "level0");
+
+    HighscoreManager again = reopen(hm, journal());
+    assertEquals("[ben 700 (level2), carl 600 (level0), anna 500 (level1)]",
+        again.getTopScores().toString());
+    again.close();
+  }
+
+  @Test
+  void compactsJournal() throws IOException {
+    HighscoreManager hm = new HighscoreManager(journal());
+    for (int i = 0; i < 3 * HighscoreManager.COMPACT_AFTER; i++) {
+      hm.submit("p", i, "level0"); // every score is a new best one
+    }
+    hm.flush(5000);
+    assertTrue(Files.readAllLines(journal()).size() < HighscoreManager.COMPACT_AFTER);
+    List<HighscoreManager.Entry> before = hm.getTopScores();
+
+    HighscoreManager again = reopen(hm, journal());
+    assertEquals(before.toString(), again.getTopScores().toString());
+    again.close();
+  }
+
+}
@@ -0,0 +1,85 @@
+package playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import controller.EnemyController;
+import controller.FallingStarController;
+import controller.SimpleShotController;
+import gameobjects.GameObject;
+import gameobjects.RectObject;
+
+/**
+ * Tests that {@link Playground#updateObjects()} with an update pool (see
+ * {@link Playground#setUpdatePool(ForkJoinPool)}) gives the same result as updating all objects one
+ * after another: same positions, same objects deleted in the same order and the same points, for a
+ * mix of parallel-safe (stars, shots) and other controllers (enemies, changing the points).
+ */
+class ParallelUpdateTest {
+
+  private static final int NR_OBJECTS = 3000;
+  private static final int STEPS = 400;
+
+  @AfterEach
+  void tearDown() {
+    Playground.setUpdatePool(null);
+  }
+
+  /** runs the scene and returns positions of all objects, "-" for deleted ones, and the points */
+  private ArrayList<String> simulate(ForkJoinPool pool) {
+    Playground.setUpdatePool(pool);
+    ArrayList<String> result = new ArrayList<String>();
+    Level1 level = new Level1() {
+      @Override
+      public void deleteObjectNow(String id) {
+        result.add(id); // deletions in order
+        super.deleteObjectNow(id);
+      }
+    };
+    level.reset();
+    Playground.setGlobalFlag("points", 0);
+    level.setTimestep(1. / 60.);
+    for (int i = 0; i < NR_OBJECTS; i++) {
+      GameObject o = new RectObject("o" + i, level, (i * 7) % 700, (i * 13) % 700,
+          (i % 5) - 2, (i % 3 == 1) ? -80 - i % 50 : 40 + i % 30, 4, 4, Color.WHITE);
+      if (i % 3 == 0) {
+        o.addController(new FallingStarController());
+      } else if (i % 3 == 1) {
+        o.addController(new SimpleShotController());
+      } else {
+        o.addController(new EnemyController());
+      }
+      level.addObjectNow(o);
+    }
+    for (int s = 0; s < STEPS; s++) {
+      level.updateObjects();
+    }
+    for (int i = 0; i < NR_OBJECTS; i++) {
+      GameObject o = level.getObject("o" + i);
+      result.add(o == null ? "-" : o.getX() + "/" + o.getY());
+    }
+    result.add("points " + Playground.getGlobalFlag("points"));
+    level.reset();
+    return result;
+  }
+
+  @Test
+  void testParallelUpdateEqualsSequentialUpdate() {
+    ArrayList<String> sequential = simulate(null);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ArrayList<String> parallel;
+    try {
+      parallel = simulate(pool);
+    } finally {
+      pool.shutdown();
+    }
+    assertTrue("some objects are deleted", sequential.contains("-"));
+    assertTrue("points changed", !sequential.get(sequential.size() - 1).equals("points 0"));
+    assertEquals(sequential, parallel);
+  }
+
+}
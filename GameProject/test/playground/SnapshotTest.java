@@ -0,0 +1,115 @@
+package playground;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import gameobjects.GameObject;
+import gameobjects.ParticleSystem;
+
+/**
+ * Tests that a level restored from a {@link Snapshot} file continues exactly like the level it was
+ * captured from, and that damaged files are rejected.
+ */
+class SnapshotTest {
+
+  private static final double TIMESTEP = 1. / 60.;
+  private static final int FRAMES = 900;
+
+  @TempDir
+  File tempDir;
+
+  private final Level1 level = new Level1();
+  private final InputQueue keys = new InputQueue();
+  private double gameTime = 0;
+  private int frame = 0;
+
+  @AfterEach
+  void tearDown() {
+    level.reset();
+    level.resetFlags(Playground.FLAGS_ALL);
+  }
+
+  /** plays some frames, moving and shooting in turns */
+  private void play(int frames) {
+    for (int end = frame + frames; frame < end; frame++) {
+      if (frame % 30 == 0) {
+        int key = (frame / 30) % 4 < 2 ? KeyEvent.VK_LEFT : KeyEvent.VK_RIGHT;
+        keys.offer(InputQueue.KEY_PRESSED, KeyEvent.VK_SPACE, 0);
+        keys.offer(InputQueue.KEY_RELEASED, KeyEvent.VK_SPACE, 0);
+        keys.offer(InputQueue.KEY_PRESSED, key, 0);
+      }
+      level.processKeyEvents(keys);
+      level.setTimestep(TIMESTEP);
+      level.updateObjects();
+      level.applyGameLogic();
+      gameTime += TIMESTEP;
+      level.setGameTime(gameTime);
+    }
+  }
+
+  private String state() {
+    // the inputs are not saved, they are set again by the next frame
+    Playground.getGlobalFlags().remove(Playground.FLAG_INPUTS);
+    ArrayList<String> objects = new ArrayList<String>();
+    for (GameObject o : Playground.gameObjects.values()) {
+      String s = o.getId() + "@" + o.getX() + "," + o.getY() + "/" + o.getVX() + "," + o.getVY()
+          + (o.isActive() ? "" : " inactive");
+      if (o instanceof ParticleSystem) {
+        s += " particles=" + ((ParticleSystem) o).getLiveCount();
+      }
+      objects.add(s);
+    }
+    Collections.sort(objects);
+    return Playground.getGlobalFlags() + " " + level.getLevelFlags() + " t=" + gameTime + " "
+        + objects;
+  }
+
+  @Test
+  void restoredLevelContinuesLikeTheOriginal() throws IOException {
+    Playground.setRandomSeed(7);
+    level.prepareLevel("level0");
+    play(FRAMES);
+    Path file = new File(tempDir, "game.snap").toPath();
+    Snapshot.capture(level, 0).writeTo(file);
+    String captured = state();
+
+    play(FRAMES);
+    String expected = state();
+    Playground.setRandomSeed(8);
+
+    Snapshot snapshot = Snapshot.readFrom(file);
+    assertEquals(0, snapshot.getLevelIndex());
+    snapshot.restore(level);
+    gameTime = snapshot.getGameTime();
+    frame -= FRAMES;
+    assertEquals(captured, state());
+    play(FRAMES);
+    assertEquals(expected, state());
+  }
+
+  @Test
+  void damagedFilesAreRejected() throws IOException {
+    Playground.setRandomSeed(7);
+    level.prepareLevel("level0");
+    play(60);
+    File file = new File(tempDir, "game.snap");
+    Snapshot.capture(level, 0).writeTo(file.toPath());
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(raf.length() - 1);
+      int last = raf.read();
+      raf.seek(raf.length() - 1);
+      raf.write(last ^ 1);
+    }
+    assertThrows(IOException.class, () -> Snapshot.readFrom(file.toPath()));
+  }
+
+}